@@ -43,6 +43,10 @@ public class AuthFilter extends OncePerRequestFilter {
         }
 
         String token = request.getHeader("X-Auth-Token");
+        if (token == null && request.getRequestURI().startsWith("/ws/")) {
+            // Браузерный WebSocket не умеет передавать заголовки при рукопожатии, токен приходит в query
+            token = request.getParameter("token");
+        }
 
         if (token != null) {
             SessionInfo info = authServiceClient.getSessionInfo(token);
@@ -0,0 +1,25 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.service.NotificationRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationRetentionJob {
+
+    private final NotificationRetentionService notificationRetentionService;
+    private final NotificationRetentionProperties properties;
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void purgeExpiredNotifications() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long deleted = notificationRetentionService.purgeExpired();
+        log.info("Очистка уведомлений завершена, удалено: {}", deleted);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.entity.NotificationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Сроки хранения уведомлений. Значение 0 или меньше - хранить бессрочно.
+ * Пример переопределения для типа: notifications.retention.types.INFO.read-ttl-days=7
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notifications.retention")
+public class NotificationRetentionProperties {
+
+    private boolean enabled = true;
+
+    private int readTtlDays = 30;
+
+    private int unreadTtlDays = 90;
+
+    private int batchSize = 1000;
+
+    // Таблица notifications разбита на месячные секции (см. db/notifications-partitioning.sql)
+    private boolean partitioned = false;
+
+    private int partitionsAhead = 2;
+
+    private Map<NotificationType, TypePolicy> types = new EnumMap<>(NotificationType.class);
+
+    public int ttlDays(NotificationType type, boolean read) {
+        TypePolicy policy = types.get(type);
+        Integer override = policy == null ? null : read ? policy.getReadTtlDays() : policy.getUnreadTtlDays();
+        if (override != null) {
+            return override;
+        }
+        return read ? readTtlDays : unreadTtlDays;
+    }
+
+    @Data
+    public static class TypePolicy {
+        private Integer readTtlDays;
+        private Integer unreadTtlDays;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.entity.Role;
+import com.example.businessLogic.repository.TaskRepository;
+import com.example.businessLogic.service.ProjectAccessCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Единая проверка доступа к эндпоинтам /projects/{id}/... и /tasks/{id}/... задач проекта: пользователь должен быть
+ * участником проекта, а для методов с {@link ProjectRoleRequired} - иметь одну из перечисленных ролей.
+ * Роли берутся из ProjectAccessCache, поэтому запрос к БД нужен только при первом обращении пользователя;
+ * для задачи дополнительно читается её project_id. Личные задачи без проекта проверка пропускает.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectAccessInterceptor implements HandlerInterceptor {
+
+    private final ProjectAccessCache projectAccessCache;
+    private final TaskRepository taskRepository;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        String projectId = projectId(request);
+        if (projectId == null) {
+            return true;
+        }
+
+        Principal principal = request.getUserPrincipal();
+        if (principal == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return false;
+        }
+
+        String userId = principal.getName();
+        Role role = projectAccessCache.roleOf(userId, projectId);
+        ProjectRoleRequired required = method.getMethodAnnotation(ProjectRoleRequired.class);
+        if (role == null || (required != null && !Arrays.asList(required.value()).contains(role))) {
+            log.warn("Доступ к проекту {} запрещён пользователю {} ({} {})",
+                    projectId, userId, request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String projectId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            return null;
+        }
+        String projectId = variables.get("projectId");
+        if (projectId != null) {
+            return projectId;
+        }
+        String id = variables.get("id");
+        if (id == null) {
+            return null;
+        }
+        // Интерцептор подключён к /projects/** и /tasks/**: в первом id - проект, во втором - задача
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null && pattern.startsWith("/tasks/")) {
+            return taskRepository.findProjectIdById(id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.entity.Role;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Роли, которым доступен обработчик /projects/{id}/...; без аннотации достаточно любого членства в проекте.
+ * Проверяет ProjectAccessInterceptor.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProjectRoleRequired {
+    Role[] value();
+}
@@ -0,0 +1,38 @@
+package com.example.businessLogic.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Реплика для чтения. Логин и пароль по умолчанию те же, что у spring.datasource.
+ * Пример: datasource.replica.enabled=true, datasource.replica.url=jdbc:postgresql://replica:5432/business-logic-db
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private int maxPoolSize = 10;
+
+    // Сколько после изменяющего запроса чтения пользователя идут в основную БД
+    private long readYourWritesMs = 5000;
+
+    // При большем отставании все чтения идут в основную БД
+    private long maxLagMs = 5000;
+
+    /**
+     * Окно read-your-writes не меньше допустимого отставания: после него реплика уже содержит запись.
+     */
+    public long readYourWritesWindowMs() {
+        return Math.max(readYourWritesMs, maxLagMs);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.businessLogic.config;
+
+import jakarta.servlet.http.Cookie;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Метка последней записи пользователя. Её носит сам клиент - cookie для HTTP и атрибут WebSocket-сессии, -
+ * поэтому она не зависит от того, какой узел примет следующий запрос.
+ * На время обработки запроса или кадра метка привязывается к потоку, и ReplicaRoutingDataSource направляет
+ * read-only транзакции в основную БД, пока с неё не прошло окно read-your-writes.
+ */
+public final class ReadYourWrites {
+
+    public static final String COOKIE = "last_write";
+    public static final String SESSION_ATTRIBUTE = "lastWriteAt";
+
+    private static final ThreadLocal<Long> LAST_WRITE_AT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void bind(Long writtenAt) {
+        if (writtenAt != null) {
+            LAST_WRITE_AT.set(writtenAt);
+        } else {
+            LAST_WRITE_AT.remove();
+        }
+    }
+
+    public static void clear() {
+        LAST_WRITE_AT.remove();
+    }
+
+    public static boolean wroteWithin(long windowMs) {
+        Long writtenAt = LAST_WRITE_AT.get();
+        // Метку из будущего дальше окна (подделка или расхождение часов узлов) не учитываем
+        return writtenAt != null && Math.abs(System.currentTimeMillis() - writtenAt) < windowMs;
+    }
+
+    public static Long fromCookies(Cookie[] cookies) {
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Заводит метку сессии при рукопожатии; дальше её обновляют поток сессии и рассылка через шину.
+     */
+    public static void initSession(Map<String, Object> attributes, Long writtenAt) {
+        attributes.put(SESSION_ATTRIBUTE, new AtomicLong(writtenAt != null ? writtenAt : 0));
+    }
+
+    public static void markSession(Map<String, Object> attributes) {
+        if (attributes.get(SESSION_ATTRIBUTE) instanceof AtomicLong writtenAt) {
+            writtenAt.set(System.currentTimeMillis());
+        }
+    }
+
+    public static Long sessionMark(Map<String, Object> attributes) {
+        if (attributes.get(SESSION_ATTRIBUTE) instanceof AtomicLong writtenAt && writtenAt.get() > 0) {
+            return writtenAt.get();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.businessLogic.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * Ставит клиенту cookie с временем изменяющего запроса и привязывает метку из cookie к потоку запроса.
+ * Cookie ставится до обработки: к afterCompletion ответ уже отправлен. Поэтому окно отсчитывается от начала
+ * записи, а не от коммита, и должно покрывать и длительность запроса, и отставание реплики.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadReplicaProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+
+        Long writtenAt = ReadYourWrites.fromCookies(request.getCookies());
+        if (request.getUserPrincipal() != null && !SAFE_METHODS.contains(request.getMethod())) {
+            writtenAt = System.currentTimeMillis();
+            Cookie cookie = new Cookie(ReadYourWrites.COOKIE, writtenAt.toString());
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) ((properties.readYourWritesWindowMs() + 999) / 1000));
+            response.addCookie(cookie);
+        }
+        ReadYourWrites.bind(writtenAt);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadYourWrites.clear();
+    }
+}
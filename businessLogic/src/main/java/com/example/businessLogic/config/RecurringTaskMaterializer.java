@@ -0,0 +1,47 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.service.RecurrenceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecurringTaskMaterializer {
+
+    private final RecurrenceService recurrenceService;
+
+    @Value("${tasks.recurrence.horizon-days:14}")
+    private int horizonDays;
+
+    @Value("${tasks.recurrence.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(cron = "${tasks.recurrence.cron:0 */15 * * * *}")
+    public void materializeUpcoming() {
+        LocalDate horizon = LocalDate.now().plusDays(horizonDays);
+        long afterId = 0;
+        int total = 0;
+
+        while (true) {
+            RecurrenceService.BatchResult batch = recurrenceService.materializeDueBatch(afterId, horizon, batchSize);
+            if (batch.lastId() == null) {
+                break;
+            }
+            total += batch.created();
+            afterId = batch.lastId();
+            if (batch.rules() < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Материализовано экземпляров повторяющихся задач: {}", total);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.service.MetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Периодически измеряет отставание реплики. Пока реплика не проверена, недоступна или отстаёт
+ * больше maxLagMs, чтения на неё не направляются.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Реплика без новых записей не воспроизводит WAL, и время последней транзакции устаревает - это не отставание
+    static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS bigint) END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxLagMs;
+
+    // -1 - реплика ещё не проверялась или недоступна
+    private volatile long lagMs = -1;
+    private volatile boolean acceptable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMs, MetricsService metricsService) {
+        this.jdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagMs = maxLagMs;
+        metricsService.monitorReplicaLag(() -> lagMs);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        long lag;
+        String error = null;
+        try {
+            Long measured = jdbcTemplate.queryForObject(LAG_QUERY, Long.class);
+            lag = measured != null ? Math.max(0, measured) : 0;
+        } catch (DataAccessException e) {
+            lag = -1;
+            error = e.getMessage();
+        }
+
+        boolean nowAcceptable = lag >= 0 && lag <= maxLagMs;
+        if (nowAcceptable != acceptable) {
+            if (nowAcceptable) {
+                log.info("Чтения направляются на реплику, отставание {} мс", lag);
+            } else if (error != null) {
+                log.warn("Реплика недоступна, чтения переключены на основную БД: {}", error);
+            } else {
+                log.warn("Отставание реплики {} мс, чтения переключены на основную БД", lag);
+            }
+        }
+        lagMs = lag;
+        acceptable = nowAcceptable;
+    }
+
+    public boolean isAcceptable() {
+        return acceptable;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+}
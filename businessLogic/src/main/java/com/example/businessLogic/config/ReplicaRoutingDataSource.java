@@ -0,0 +1,45 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.service.MetricsService;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Источник соединений для read-only транзакций: реплика, если её отставание в норме и у текущего
+ * запроса нет свежей метки записи (см. {@link ReadYourWrites}), иначе основная БД.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReadReplicaProperties properties;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final MetricsService metricsService;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadReplicaProperties properties,
+                                    ReplicaLagMonitor replicaLagMonitor, MetricsService metricsService) {
+        this.properties = properties;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.metricsService = metricsService;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!replicaLagMonitor.isAcceptable()) {
+            metricsService.recordReadRouting("primary-lag");
+            return Target.PRIMARY;
+        }
+        // Фоновые задачи и рассылки выполняются без метки - им хватает реплики
+        if (ReadYourWrites.wroteWithin(properties.readYourWritesWindowMs())) {
+            metricsService.recordReadRouting("primary-after-write");
+            return Target.PRIMARY;
+        }
+        metricsService.recordReadRouting("replica");
+        return Target.REPLICA;
+    }
+}
@@ -11,9 +11,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     private MetricsInterceptor metricsInterceptor;
+    private ProjectAccessInterceptor projectAccessInterceptor;
+    private ReadYourWritesInterceptor readYourWritesInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(metricsInterceptor);
+        registry.addInterceptor(projectAccessInterceptor)
+                .addPathPatterns("/projects/*", "/projects/*/**", "/tasks/*", "/tasks/*/**");
+        registry.addInterceptor(readYourWritesInterceptor);
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.example.businessLogic.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Привязывает пользователя к WebSocket-сессии при рукопожатии.
+ * Токен или HTTP-сессию уже проверил AuthFilter тем же путём, что и для REST,
+ * поэтому здесь берётся только установленный им пользователь; без него рукопожатие отклоняется.
+ */
+@Slf4j
+@Component
+public class WebSocketAuthInterceptor implements HandshakeInterceptor {
+
+    public static final String USER_ID_ATTRIBUTE = "userId";
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Principal principal = request.getPrincipal();
+        if (principal == null || principal.getName() == null) {
+            log.warn("WebSocket-рукопожатие без аутентификации: {}", request.getRemoteAddress());
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        attributes.put(USER_ID_ATTRIBUTE, principal.getName());
+        // Запись, сделанная по HTTP перед подключением, должна быть видна уже в первой синхронизации
+        ReadYourWrites.initSession(attributes, request instanceof ServletServerHttpRequest servletRequest
+                ? ReadYourWrites.fromCookies(servletRequest.getServletRequest().getCookies()) : null);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
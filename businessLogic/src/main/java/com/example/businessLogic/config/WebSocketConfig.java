@@ -1,24 +1,68 @@
 package com.example.businessLogic.config;
 
+import com.example.businessLogic.service.CompactMessageCodec;
 import com.example.businessLogic.service.NotificationWebSocketHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSocket
 public class WebSocketConfig implements WebSocketConfigurer {
 
     private final NotificationWebSocketHandler notificationHandler;
+    private final WebSocketAuthInterceptor authInterceptor;
+
+    @Value("${notifications.ws.deflate-enabled:true}")
+    private boolean deflateEnabled;
 
-    public WebSocketConfig(NotificationWebSocketHandler notificationHandler) {
+    public WebSocketConfig(NotificationWebSocketHandler notificationHandler, WebSocketAuthInterceptor authInterceptor) {
         this.notificationHandler = notificationHandler;
+        this.authInterceptor = authInterceptor;
     }
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Клиент без подпротокола получает JSON, с CompactMessageCodec.PROTOCOL — бинарные кадры
+        DefaultHandshakeHandler handshakeHandler = new NotificationHandshakeHandler(deflateEnabled);
+        handshakeHandler.setSupportedProtocols(CompactMessageCodec.PROTOCOL);
+
         registry.addHandler(notificationHandler, "/ws/notifications")
+                .setHandshakeHandler(handshakeHandler)
+                .addInterceptors(authInterceptor)
                 .setAllowedOrigins("*");
     }
+
+    /**
+     * permessage-deflate согласует контейнер, если клиент его предложил; флаг позволяет отключить сжатие,
+     * когда процессор узла дороже трафика.
+     */
+    private static class NotificationHandshakeHandler extends DefaultHandshakeHandler {
+
+        private final boolean deflateEnabled;
+
+        NotificationHandshakeHandler(boolean deflateEnabled) {
+            this.deflateEnabled = deflateEnabled;
+        }
+
+        @Override
+        protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                     List<WebSocketExtension> requested,
+                                                                     List<WebSocketExtension> supported) {
+            List<WebSocketExtension> extensions = super.filterRequestedExtensions(request, requested, supported);
+            if (deflateEnabled) {
+                return extensions;
+            }
+            return extensions.stream()
+                    .filter(extension -> !"permessage-deflate".equals(extension.getName()))
+                    .toList();
+        }
+    }
 }
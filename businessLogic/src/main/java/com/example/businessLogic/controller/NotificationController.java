@@ -1,5 +1,6 @@
 package com.example.businessLogic.controller;
 
+import com.example.businessLogic.dto.NotificationPage;
 import com.example.businessLogic.dto.NotificationRequest;
 import com.example.businessLogic.dto.NotificationResponse;
 import com.example.businessLogic.service.NotificationService;
@@ -16,31 +17,33 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NotificationController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final NotificationService notificationService;
     private final UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<NotificationResponse>> getNotifications(Authentication authentication) {
+    public ResponseEntity<List<NotificationResponse>> getNotifications(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "50") int limit,
+                                                                       Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).build();
         }
         String userId = userService.findByUserId(authentication.getPrincipal().toString()).getId();
 
-        List<NotificationResponse> notifications = notificationService.getUserNotifications(userId);
-
-        return ResponseEntity.ok(notifications);
+        return pageResponse(userId, cursor, limit, false);
     }
 
     @GetMapping("/unread")
-    public ResponseEntity<List<NotificationResponse>> getUnreadNotifications(Authentication authentication) {
+    public ResponseEntity<List<NotificationResponse>> getUnreadNotifications(@RequestParam(required = false) String cursor,
+                                                                             @RequestParam(defaultValue = "50") int limit,
+                                                                             Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).build();
         }
         String userId = userService.findByUserId(authentication.getPrincipal().toString()).getId();
 
-        List<NotificationResponse> unreadNotifications = notificationService.getUnreadNotifications(userId);
-
-        return ResponseEntity.ok(unreadNotifications);
+        return pageResponse(userId, cursor, limit, true);
     }
 
     @GetMapping("/unread-count")
@@ -114,4 +117,21 @@ public class NotificationController {
 
         return ResponseEntity.status(204).build();
     }
-}
\ No newline at end of file
+
+    // Тело остаётся списком для совместимости с клиентом, курсор следующей страницы - в заголовке
+    private ResponseEntity<List<NotificationResponse>> pageResponse(String userId, String cursor, int limit,
+                                                                    boolean unreadOnly) {
+        NotificationPage page;
+        try {
+            page = notificationService.getNotificationsPage(userId, cursor, limit, unreadOnly);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
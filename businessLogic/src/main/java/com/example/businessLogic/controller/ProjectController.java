@@ -1,14 +1,30 @@
 package com.example.businessLogic.controller;
 
+import com.example.businessLogic.config.ProjectRoleRequired;
+import com.example.businessLogic.dto.BulkNotificationResult;
 import com.example.businessLogic.dto.CreateProjectRequest;
+import com.example.businessLogic.dto.NotificationRequest;
+import com.example.businessLogic.dto.ProjectDeletionStatus;
 import com.example.businessLogic.dto.ProjectDto;
 import com.example.businessLogic.dto.ProjectMemberDto;
+import com.example.businessLogic.dto.ProjectScheduleDto;
 import com.example.businessLogic.dto.ProjectSettingsDto;
+import com.example.businessLogic.dto.ProjectWorkloadReport;
+import com.example.businessLogic.dto.TaskImportResult;
 import com.example.businessLogic.entity.Project;
+import com.example.businessLogic.entity.Role;
 import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.service.ProjectChangeResult;
+import com.example.businessLogic.service.ProjectDeletionService;
 import com.example.businessLogic.service.ProjectMapper;
 import com.example.businessLogic.service.ProjectService;
+import com.example.businessLogic.service.ProjectWorkloadService;
+import com.example.businessLogic.service.TaskDependencyService;
+import com.example.businessLogic.service.TaskExportService;
+import com.example.businessLogic.service.TaskImportService;
 import com.example.businessLogic.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +32,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 @RestController
@@ -25,6 +43,11 @@ public class ProjectController {
     private final ProjectService projectService;
     private final TaskService taskService;
     private final ProjectMapper projectMapper;
+    private final TaskDependencyService taskDependencyService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final ProjectDeletionService projectDeletionService;
+    private final ProjectWorkloadService projectWorkloadService;
 
     @GetMapping
     public ResponseEntity<List<ProjectDto>> getAllProjects() {
@@ -50,25 +73,36 @@ public class ProjectController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String userId = authentication.getName();
 
-        Project project = projectService.createProject(request, userId);
-        ProjectDto projectDto = projectMapper.toDto(project);
+        ProjectChangeResult result = projectService.createProject(request, userId);
+        ProjectDto projectDto = projectMapper.toDto(result.project());
+        projectDto.setInvitations(result.invitations());
 
         return ResponseEntity.status(201).body(projectDto);
     }
 
     @PutMapping("/{id}")
+    @ProjectRoleRequired({Role.ROLE_OWNER, Role.ROLE_ADMIN})
     public ResponseEntity<ProjectDto> updateProject(@PathVariable String id, @Valid @RequestBody CreateProjectRequest request) {
-        Project project = projectService.updateProject(id, request);
-        ProjectDto projectDto = projectMapper.toDto(project);
+        ProjectChangeResult result = projectService.updateProject(id, request);
+        ProjectDto projectDto = projectMapper.toDto(result.project());
+        projectDto.setInvitations(result.invitations());
 
         return ResponseEntity.ok(projectDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProject(@PathVariable String id) {
-        projectService.deleteProject(id);
+    @ProjectRoleRequired(Role.ROLE_OWNER)
+    public ResponseEntity<ProjectDeletionStatus> deleteProject(@PathVariable String id, Authentication auth) {
+        String userId = auth.getPrincipal().toString();
+        ProjectDeletionStatus status = projectService.deleteProject(id, userId);
+
+        return ResponseEntity.accepted().body(status);
+    }
 
-        return ResponseEntity.noContent().build();
+    @GetMapping("/deletions/{deletionId}")
+    public ResponseEntity<ProjectDeletionStatus> getDeletionStatus(@PathVariable String deletionId, Authentication auth) {
+        String userId = auth.getPrincipal().toString();
+        return ResponseEntity.ok(projectDeletionService.getStatus(deletionId, userId));
     }
 
     @GetMapping("/{id}/tasks")
@@ -78,13 +112,74 @@ public class ProjectController {
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/{id}/tasks/export")
+    public void exportProjectTasks(@PathVariable String id,
+                                   @RequestParam(defaultValue = "csv") String format,
+                                   @RequestParam(defaultValue = "false") boolean gzip,
+                                   Authentication auth,
+                                   HttpServletResponse response) throws IOException {
+        TaskExportService.Format exportFormat;
+        try {
+            exportFormat = TaskExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        taskExportService.checkProjectAccess(id, auth.getPrincipal().toString());
+
+        try (OutputStream out = taskExportService.openResponse(response, exportFormat, "project-" + id + "-tasks", gzip)) {
+            taskExportService.exportProjectTasks(id, exportFormat, out);
+        }
+    }
+
+    @PostMapping("/{id}/tasks/import")
+    public ResponseEntity<TaskImportResult> importProjectTasks(@PathVariable String id,
+                                                               @RequestParam(defaultValue = "csv") String format,
+                                                               Authentication auth,
+                                                               HttpServletRequest request) throws IOException {
+        String userId = auth.getPrincipal().toString();
+        TaskExportService.Format importFormat;
+        try {
+            importFormat = TaskExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        TaskImportResult result = taskImportService.importTasks(id, userId, importFormat, request.getInputStream());
+
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<ProjectScheduleDto> getProjectSchedule(@PathVariable String id) {
+        return ResponseEntity.ok(taskDependencyService.analyzeProject(id));
+    }
+
+    @GetMapping("/{projectId}/workload")
+    @ProjectRoleRequired({Role.ROLE_OWNER, Role.ROLE_ADMIN})
+    public ResponseEntity<ProjectWorkloadReport> getProjectWorkload(@PathVariable String projectId,
+                                                                    @RequestParam(defaultValue = "12") int weeks) {
+        return ResponseEntity.ok(projectWorkloadService.getReport(projectId, weeks));
+    }
+
     @GetMapping("/{projectId}/members")
     public ResponseEntity<List<ProjectMemberDto>> getProjectMembers(@PathVariable String projectId) {
         List<ProjectMemberDto> members = projectService.getProjectMembers(projectId);
         return ResponseEntity.ok(members);
     }
 
+    @PostMapping("/{projectId}/announcements")
+    @ProjectRoleRequired({Role.ROLE_OWNER, Role.ROLE_ADMIN})
+    public ResponseEntity<BulkNotificationResult> sendAnnouncement(@PathVariable String projectId,
+                                                                   @RequestBody NotificationRequest request,
+                                                                   Authentication auth) {
+        String userId = auth.getPrincipal().toString();
+        BulkNotificationResult result = projectService.sendAnnouncement(projectId, userId, request);
+
+        return ResponseEntity.ok(result);
+    }
+
     @PatchMapping("/{projectId}/settings/auto-delete")
+    @ProjectRoleRequired(Role.ROLE_OWNER)
     public ResponseEntity<Project> updateAutoDeleteSettings(@PathVariable String projectId,
                                                             @RequestParam(required = false) Integer days,
                                                             Authentication auth) {
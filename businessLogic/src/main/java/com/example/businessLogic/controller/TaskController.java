@@ -1,11 +1,31 @@
 package com.example.businessLogic.controller;
+import com.example.businessLogic.dto.RecurrenceRuleDto;
+import com.example.businessLogic.dto.TaskImportResult;
+import com.example.businessLogic.entity.RecurrenceRule;
 import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.entity.TaskDependency;
 import com.example.businessLogic.entity.User;
+import com.example.businessLogic.service.ProjectAccessCache;
+import com.example.businessLogic.service.RecurrenceService;
+import com.example.businessLogic.service.TaskDependencyService;
+import com.example.businessLogic.service.TaskExportService;
+import com.example.businessLogic.service.TaskImportService;
 import com.example.businessLogic.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 @RestController
@@ -13,6 +33,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskController {
      private final TaskService taskService;
+     private final RecurrenceService recurrenceService;
+     private final TaskDependencyService taskDependencyService;
+     private final TaskExportService taskExportService;
+     private final TaskImportService taskImportService;
+     private final ProjectAccessCache projectAccessCache;
+
     @GetMapping
     public ResponseEntity<List<Task>> getAllTasks() {
         return ResponseEntity.ok(taskService.getAllTasks());
@@ -25,12 +51,16 @@ public class TaskController {
 
 
     @PostMapping
-    public ResponseEntity<Task> createTask(@RequestBody Task task) {
+    public ResponseEntity<Task> createTask(@RequestBody Task task, Authentication authentication) {
+        checkProjectAccess(task, authentication);
         return ResponseEntity.ok(taskService.createTask(task));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable String id, @RequestBody Task taskDetails) {
+    public ResponseEntity<Task> updateTask(@PathVariable String id, @RequestBody Task taskDetails,
+                                           Authentication authentication) {
+        // Доступ к текущему проекту задачи проверил ProjectAccessInterceptor, здесь - к проекту, куда её переносят
+        checkProjectAccess(taskDetails, authentication);
         return ResponseEntity.ok(taskService.updateTask(id, taskDetails));
     }
 
@@ -76,9 +106,96 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getTasksWithUpcomingDeadlines(daysAhead));
     }
 
+    @GetMapping("/personal/export")
+    public void exportPersonalTasks(@RequestParam(defaultValue = "csv") String format,
+                                    @RequestParam(defaultValue = "false") boolean gzip,
+                                    Authentication authentication,
+                                    HttpServletResponse response) throws IOException {
+        String userId = authentication.getPrincipal().toString();
+        TaskExportService.Format exportFormat;
+        try {
+            exportFormat = TaskExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        try (OutputStream out = taskExportService.openResponse(response, exportFormat, "personal-tasks", gzip)) {
+            taskExportService.exportPersonalTasks(userId, exportFormat, out);
+        }
+    }
+
+    @PostMapping("/personal/import")
+    public ResponseEntity<TaskImportResult> importPersonalTasks(@RequestParam(defaultValue = "csv") String format,
+                                                                Authentication authentication,
+                                                                HttpServletRequest request) throws IOException {
+        String userId = authentication.getPrincipal().toString();
+        TaskExportService.Format importFormat;
+        try {
+            importFormat = TaskExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskImportService.importTasks(null, userId, importFormat, request.getInputStream()));
+    }
+
+    @GetMapping("/import/{importId}/errors")
+    public void downloadImportErrors(@PathVariable String importId,
+                                     Authentication authentication,
+                                     HttpServletResponse response) throws IOException {
+        Path report = taskImportService.getErrorReport(authentication.getPrincipal().toString(), importId);
+        if (report == null) {
+            response.setStatus(404);
+            return;
+        }
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + importId + "-errors.csv\"");
+        Files.copy(report, response.getOutputStream());
+    }
+
     @GetMapping("/personal/{userId}")
     public ResponseEntity<List<Task>> getTasksByPersonalId(@PathVariable String userId) {
         return ResponseEntity.ok(taskService.getPersonalTasks(userId));
     }
 
-}
\ No newline at end of file
+    @PutMapping("/{id}/recurrence")
+    public ResponseEntity<RecurrenceRule> setRecurrence(@PathVariable String id,
+                                                        @Valid @RequestBody RecurrenceRuleDto request) {
+        return ResponseEntity.ok(recurrenceService.setRecurrence(id, request));
+    }
+
+    @DeleteMapping("/{id}/recurrence")
+    public ResponseEntity<Void> removeRecurrence(@PathVariable String id) {
+        recurrenceService.removeRecurrence(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/blockers")
+    public ResponseEntity<List<TaskDependency>> getBlockers(@PathVariable String id) {
+        return ResponseEntity.ok(taskDependencyService.getBlockers(id));
+    }
+
+    @GetMapping("/{id}/blocked")
+    public ResponseEntity<List<TaskDependency>> getBlockedTasks(@PathVariable String id) {
+        return ResponseEntity.ok(taskDependencyService.getBlockedTasks(id));
+    }
+
+    @PostMapping("/{id}/blockers/{blockerId}")
+    public ResponseEntity<TaskDependency> addBlocker(@PathVariable String id, @PathVariable String blockerId) {
+        return ResponseEntity.status(201).body(taskDependencyService.addDependency(id, blockerId));
+    }
+
+    @DeleteMapping("/{id}/blockers/{blockerId}")
+    public ResponseEntity<Void> removeBlocker(@PathVariable String id, @PathVariable String blockerId) {
+        taskDependencyService.removeDependency(id, blockerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private void checkProjectAccess(Task task, Authentication authentication) {
+        if (task.getProject() == null || task.getProject().getId() == null) {
+            return;
+        }
+        if (projectAccessCache.roleOf(authentication.getPrincipal().toString(), task.getProject().getId()) == null) {
+            throw new AccessDeniedException("У вас нет доступа к этому проекту");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AssigneeWorkloadDto {
+    private String userId;
+    private String username;
+    private long openTasks;
+    private long overdueTasks;
+    // Завершённые за период отчёта
+    private long completedTasks;
+    // 1 - самый загруженный исполнитель
+    private int loadRank;
+    // Доля открытых задач исполнителя среди всех назначений проекта, 0..1
+    private double loadShare;
+}
@@ -0,0 +1,46 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkNotificationResult {
+    private int recipients;
+    private int delivered;
+    private int stored;
+    private int failed;
+    private Map<String, DeliveryStatus> statuses;
+
+    public enum DeliveryStatus {
+        // Сообщение поставлено в открытую сессию получателя на этом узле
+        DELIVERED,
+        // Уведомление сохранено; получатель увидит его через другой узел или при следующей синхронизации
+        STORED,
+        // Уведомление сохранено, но отправка в сессию завершилась ошибкой
+        FAILED
+    }
+
+    public static BulkNotificationResult of(Map<String, DeliveryStatus> statuses) {
+        BulkNotificationResultBuilder result = builder()
+                .recipients(statuses.size())
+                .statuses(statuses);
+        int delivered = 0;
+        int stored = 0;
+        int failed = 0;
+        for (DeliveryStatus status : statuses.values()) {
+            switch (status) {
+                case DELIVERED -> delivered++;
+                case STORED -> stored++;
+                case FAILED -> failed++;
+            }
+        }
+        return result.delivered(delivered).stored(stored).failed(failed).build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InvitationBatchResult {
+    private int invited;
+    private int skipped;
+    private Map<String, Outcome> outcomes;
+
+    public enum Outcome {
+        INVITED,
+        // Пользователь уже участник проекта
+        ALREADY_MEMBER,
+        // У пользователя уже есть ожидающее приглашение в этот проект
+        ALREADY_INVITED,
+        USER_NOT_FOUND
+    }
+
+    public static InvitationBatchResult of(Map<String, Outcome> outcomes) {
+        int invited = (int) outcomes.values().stream().filter(outcome -> outcome == Outcome.INVITED).count();
+        return builder()
+                .invited(invited)
+                .skipped(outcomes.size() - invited)
+                .outcomes(outcomes)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NotificationPage {
+    private List<NotificationResponse> items;
+    // null, если это последняя страница
+    private String nextCursor;
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,4 +18,6 @@ public class NotificationRequest {
     private String senderId;
     private NotificationType type;
     private Long invitationId;
+    private Integer count;
+    private List<String> referenceIds;
 }
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -21,6 +22,8 @@ public class NotificationResponse {
     private NotificationType type;
     private Boolean isRead;
     private Long invitationId;
+    private Integer count;
+    private List<String> referenceIds;
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime date;
@@ -0,0 +1,25 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NotificationSyncResponse {
+    // true - клиент заменяет свой список, false - применяет изменения поверх
+    private boolean snapshot;
+    private List<NotificationResponse> notifications;
+    // Только в дельте: id уведомлений, удалённых после курсора клиента
+    private List<Long> deletedIds;
+    // В снимке есть более старые уведомления, их можно догрузить по id последнего
+    private boolean hasMore;
+    private String cursor;
+    private long unreadCount;
+    private long totalCount;
+}
@@ -0,0 +1,32 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProjectDeletionStatus {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String deletionId;
+    private String projectId;
+    private State state;
+    // Число задач на момент запуска; известно, когда задание начало выполняться
+    private long totalTasks;
+    private long deletedTasks;
+    private LocalDateTime requestedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
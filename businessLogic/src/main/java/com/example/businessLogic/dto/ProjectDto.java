@@ -1,5 +1,6 @@
 package com.example.businessLogic.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,4 +19,7 @@ public class ProjectDto {
     private String description;
     private LocalDate createdAt;
     private List<ProjectMemberDto> members;
+    // Только в ответах на создание и изменение проекта: итог приглашения по каждому пользователю
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private InvitationBatchResult invitations;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProjectScheduleDto {
+    private String projectId;
+    private LocalDate earliestFinish;
+    private List<String> criticalPath;
+    private List<TaskScheduleDto> tasks;
+}
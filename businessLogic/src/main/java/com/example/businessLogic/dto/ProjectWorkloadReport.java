@@ -0,0 +1,26 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProjectWorkloadReport {
+    private String projectId;
+    private LocalDateTime generatedAt;
+    private LocalDate fromWeek;
+    private int weeks;
+    // Открытые задачи без исполнителей
+    private long unassignedOpenTasks;
+    private long unassignedOverdueTasks;
+    private List<AssigneeWorkloadDto> assignees;
+    private List<WeeklyThroughputDto> throughput;
+}
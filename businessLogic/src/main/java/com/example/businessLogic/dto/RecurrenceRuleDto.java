@@ -0,0 +1,25 @@
+package com.example.businessLogic.dto;
+
+import com.example.businessLogic.entity.RecurrenceFrequency;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RecurrenceRuleDto {
+    @NotNull
+    private RecurrenceFrequency frequency;
+
+    private Integer interval;
+
+    private String cronExpression;
+
+    private LocalDate untilDate;
+}
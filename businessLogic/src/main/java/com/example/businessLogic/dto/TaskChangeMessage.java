@@ -0,0 +1,20 @@
+package com.example.businessLogic.dto;
+
+import com.example.businessLogic.entity.TaskChangeAction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class TaskChangeMessage {
+    // Возрастающий номер события внутри проекта, по нему клиент догоняет пропущенное
+    private long eventId;
+    private String projectId;
+    private String taskId;
+    private TaskChangeAction action;
+    private String title;
+}
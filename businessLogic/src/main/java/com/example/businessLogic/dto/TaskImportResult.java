@@ -0,0 +1,19 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskImportResult {
+    private String importId;
+    private long totalRows;
+    private long imported;
+    private long failed;
+    // Ссылка на CSV с ошибками по строкам, null если ошибок нет
+    private String errorsUrl;
+}
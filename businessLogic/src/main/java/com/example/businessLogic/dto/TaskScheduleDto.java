@@ -0,0 +1,19 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskScheduleDto {
+    private String taskId;
+    private LocalDate earliestStart;
+    private LocalDate earliestFinish;
+    private boolean critical;
+}
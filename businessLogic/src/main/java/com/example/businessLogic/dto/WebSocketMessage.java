@@ -0,0 +1,101 @@
+package com.example.businessLogic.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Исходящие сообщения /ws/notifications. Поле type в JSON задаёт каждый вид сообщения,
+ * остальные поля совпадают с компонентами записи.
+ */
+public sealed interface WebSocketMessage {
+
+    @JsonProperty("type")
+    String type();
+
+    // messageId есть только у сообщений из outbox, по нему клиент отбрасывает повторы
+    record NewNotification(String messageId, NotificationResponse notification) implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "NEW_NOTIFICATION";
+        }
+    }
+
+    record NotificationRead(Long notificationId, @JsonProperty("isRead") boolean isRead) implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "NOTIFICATION_READ";
+        }
+    }
+
+    record AllNotificationsRead() implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "ALL_NOTIFICATIONS_READ";
+        }
+    }
+
+    record NotificationDeleted(Long notificationId) implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "NOTIFICATION_DELETED";
+        }
+    }
+
+    /**
+     * Снимок (NOTIFICATIONS_LIST) или дельта (NOTIFICATIONS_DELTA) синхронизации.
+     */
+    record NotificationsSync(String type, List<NotificationResponse> data, List<Long> deletedIds, boolean hasMore,
+                             String cursor, long unreadCount, long totalCount) implements WebSocketMessage {
+
+        public static NotificationsSync of(NotificationSyncResponse sync) {
+            return new NotificationsSync(sync.isSnapshot() ? "NOTIFICATIONS_LIST" : "NOTIFICATIONS_DELTA",
+                    sync.getNotifications(), sync.getDeletedIds(), sync.isHasMore(), sync.getCursor(),
+                    sync.getUnreadCount(), sync.getTotalCount());
+        }
+    }
+
+    record NotificationsPage(List<NotificationResponse> data) implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "NOTIFICATIONS_PAGE";
+        }
+    }
+
+    record UnreadCount(long count, long version) implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "UNREAD_COUNT";
+        }
+    }
+
+    record TaskChanges(List<TaskChangeMessage> events) implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "TASK_CHANGES";
+        }
+    }
+
+    record TaskResyncRequired(String projectId, long lastEventId) implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "TASK_RESYNC_REQUIRED";
+        }
+    }
+
+    record Pong() implements WebSocketMessage {
+        @Override
+        @JsonProperty("type")
+        public String type() {
+            return "PONG";
+        }
+    }
+}
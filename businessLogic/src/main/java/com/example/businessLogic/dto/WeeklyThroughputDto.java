@@ -0,0 +1,22 @@
+package com.example.businessLogic.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WeeklyThroughputDto {
+    private LocalDate weekStart;
+    private long created;
+    private long completed;
+    // Среднее число завершённых за эту и три предыдущие недели
+    private double rollingCompleted;
+    // Накопленный с начала отчёта прирост открытых задач
+    private long backlogChange;
+}
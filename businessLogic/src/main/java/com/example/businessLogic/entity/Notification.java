@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.time.LocalDateTime;
 
@@ -17,7 +19,13 @@ import java.time.LocalDateTime;
         @Index(name = "idx_notifications_invitation_id",
                 columnList = "invitation_id", unique = true),
         @Index(name = "idx_notifications_owner_date",
-                columnList = "owner_id, date")
+                columnList = "owner_id, date"),
+        @Index(name = "idx_notifications_owner_change_seq",
+                columnList = "owner_id, change_seq"),
+        @Index(name = "idx_notifications_type_read_date",
+                columnList = "type, is_read, date, id"),
+        @Index(name = "idx_notifications_owner_id",
+                columnList = "owner_id, id")
 })
 @Data
 @NoArgsConstructor
@@ -41,6 +49,7 @@ public class Notification {
     @Column(name = "date")
     private LocalDateTime date;
 
+    // Значимо только выше отметки «прочитано до» из notification_counters, ниже неё уведомление прочитано
     @Column(name = "is_read")
     private Boolean isRead = false;
 
@@ -53,8 +62,33 @@ public class Notification {
     @Column(name = "invitation_id")
     private Long invitationId;
 
+    // Для сгруппированного уведомления - сколько исходных уведомлений в нём объединено
+    @Column(name = "group_count")
+    private Integer groupCount;
+
+    // Идентификаторы объектов (задач и т.п.), на которые ссылается уведомление, через запятую
+    @Column(name = "reference_ids", columnDefinition = "text")
+    private String referenceIds;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Номер последнего изменения из notification_changes_seq, по нему клиент получает дельту при переподключении.
+    // Номер выдаёт БД при вставке и каждом обновлении, поэтому расхождение часов узлов курсор не ломает
+    @Generated(event = {EventType.INSERT, EventType.UPDATE},
+            sql = "nextval('" + NotificationTombstone.CHANGE_SEQUENCE + "')")
+    @Column(name = "change_seq",
+            columnDefinition = "bigint default nextval('" + NotificationTombstone.CHANGE_SEQUENCE + "')")
+    private Long changeSeq;
+
     @PrePersist
     protected void onCreate() {
         this.date = LocalDateTime.now();
+        this.updatedAt = this.date;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
     }
 }
\ No newline at end of file
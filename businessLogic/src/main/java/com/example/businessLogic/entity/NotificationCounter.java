@@ -0,0 +1,44 @@
+package com.example.businessLogic.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Число непрочитанных уведомлений пользователя, меняется в одной транзакции с самими уведомлениями.
+ * Здесь же хранится отметка «прочитано до»: уведомления с id не больше неё прочитаны,
+ * выше неё прочитанными считаются только строки с is_read = true.
+ */
+@Entity
+@Table(name = "notification_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationCounter {
+    @Id
+    @Column(name = "owner_id")
+    private String ownerId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    // Растёт при каждом изменении, чтобы кэш и клиент не откатывались к устаревшему значению
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // «Отметить все» сдвигает только это поле, строки уведомлений не переписываются
+    @Column(name = "read_up_to_id", nullable = false, columnDefinition = "bigint default 0")
+    private long readUpToId;
+
+    // Когда отметка сдвигалась последний раз; синхронизация по более старому курсору отдаёт снимок
+    @Column(name = "read_up_to_at")
+    private LocalDateTime readUpToAt;
+}
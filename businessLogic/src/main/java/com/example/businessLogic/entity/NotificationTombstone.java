@@ -0,0 +1,42 @@
+package com.example.businessLogic.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись об удалении уведомления для дельта-синхронизации. id берётся из той же последовательности,
+ * что и notifications.change_seq, поэтому изменения и удаления пользователя упорядочены одним курсором.
+ * notificationId = null - удалён весь список или сдвинута отметка «прочитано до», клиенту нужен снимок.
+ */
+@Entity
+@Table(name = "notification_tombstones", indexes = {
+        @Index(name = "idx_notification_tombstones_owner_id", columnList = "owner_id, id"),
+        @Index(name = "idx_notification_tombstones_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationTombstone {
+
+    public static final String CHANGE_SEQUENCE = "notification_changes_seq";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_changes")
+    @SequenceGenerator(name = "notification_changes", sequenceName = CHANGE_SEQUENCE, allocationSize = 1)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private String ownerId;
+
+    @Column(name = "notification_id")
+    private Long notificationId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
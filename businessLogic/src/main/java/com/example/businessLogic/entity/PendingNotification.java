@@ -0,0 +1,58 @@
+package com.example.businessLogic.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Уведомление, ожидающее объединения с уведомлениями той же группы (получатель, тип, отправитель).
+ * Пишется в транзакции вызывающего кода и удаляется вместе с созданием итогового уведомления,
+ * поэтому перезапуск узла посреди окна группу не теряет.
+ */
+@Entity
+@Table(name = "notification_pending", indexes = {
+        @Index(name = "idx_notification_pending_group", columnList = "owner_id, type, sender_id, id"),
+        @Index(name = "idx_notification_pending_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private String ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private NotificationType type;
+
+    @Column(name = "sender_id")
+    private String senderId;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "message")
+    private String message;
+
+    @Column(name = "reference_id")
+    private String referenceId;
+
+    // Сводное уведомление на случай, если в окне группы окажется больше одного; {count} - их число
+    @Column(name = "digest_title")
+    private String digestTitle;
+
+    @Column(name = "digest_message")
+    private String digestMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,16 +1,21 @@
 package com.example.businessLogic.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Data
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Проект в процессе удаления скрыт из всех выборок сущности, см. ProjectDeletionService
+@SQLRestriction("deleted_at is null")
 @Table(name="projects", indexes = {
         @Index(name = "idx_projects_created_at", columnList = "created_at DESC"),
         @Index(name = "idx_projects_auto_delete", columnList = "auto_delete_days")
@@ -27,6 +32,10 @@ public class Project {
     private LocalDate createdAt;
     private Integer autoDeleteDays;
 
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
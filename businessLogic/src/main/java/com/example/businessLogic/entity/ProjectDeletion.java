@@ -0,0 +1,65 @@
+package com.example.businessLogic.entity;
+
+import com.example.businessLogic.dto.ProjectDeletionStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Задание фонового удаления проекта. Узел захватывает его арендой (lease_owner, lease_until) и продлевает её
+ * после каждой пачки; задание с истёкшей арендой подхватывает любой узел, поэтому оно не выполняется дважды
+ * и не теряется при остановке узла. Одна строка на проект: повторы после ошибки продолжают её же.
+ */
+@Entity
+@Table(name = "project_deletions", indexes = {
+        @Index(name = "idx_project_deletions_state_lease", columnList = "state, lease_until")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_project_deletions_project", columnNames = "project_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectDeletion {
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private String id;
+
+    @Column(name = "project_id", nullable = false)
+    private String projectId;
+
+    @Column(name = "project_name")
+    private String projectName;
+
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false)
+    private ProjectDeletionStatus.State state;
+
+    @Column(name = "total_tasks", nullable = false)
+    private long totalTasks;
+
+    @Column(name = "deleted_tasks", nullable = false)
+    private long deletedTasks;
+
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+}
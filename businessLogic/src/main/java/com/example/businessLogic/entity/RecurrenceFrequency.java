@@ -0,0 +1,8 @@
+package com.example.businessLogic.entity;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    CRON
+}
@@ -0,0 +1,60 @@
+package com.example.businessLogic.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "task_recurrence_rules", indexes = {
+        @Index(name = "idx_recurrence_rules_active_materialized", columnList = "active, materialized_until, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_recurrence_rules_template_task", columnNames = {"template_task_id"})
+})
+public class RecurrenceRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_task_id", nullable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    private Task templateTask;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false)
+    private RecurrenceFrequency frequency;
+
+    // Шаг повторения: каждые N дней/недель/месяцев
+    @Column(name = "interval_value", nullable = false)
+    @Builder.Default
+    private Integer interval = 1;
+
+    @Column(name = "cron_expression")
+    private String cronExpression;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "until_date")
+    private LocalDate untilDate;
+
+    // Дата, до которой (включительно) экземпляры уже созданы
+    @Column(name = "materialized_until", nullable = false)
+    private LocalDate materializedUntil;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
@@ -16,6 +17,9 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Задачи проекта, который сейчас удаляется, скрыты вместе с ним, см. ProjectDeletionService
+@SQLRestriction("project_id is null or not exists " +
+        "(select 1 from projects p where p.id = project_id and p.deleted_at is not null)")
 @Table(name = "tasks", indexes={
         @Index(name = "idx_tasks_title", columnList = "task_title"),
         @Index(name = "idx_tasks_creator_id", columnList = "creator_id"),
@@ -27,6 +31,8 @@ import java.util.Set;
         @Index(name = "idx_tasks_priority_id", columnList = "priority_id"),
         @Index(name = "idx_tasks_project_completion", columnList = "project_id, completion_date")
 
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tasks_recurrence_occurrence", columnNames = {"recurrence_rule_id", "occurrence_date"})
 })
 public class Task {
 
@@ -78,6 +84,13 @@ public class Task {
     @JoinColumn(name = "status_id")
     private Status status;
 
+    // Заполняются только у экземпляров повторяющейся задачи
+    @Column(name = "recurrence_rule_id")
+    private Long recurrenceRuleId;
+
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
     // PrePersist для автоматической установки даты создания
     @PrePersist
     protected void onCreate() {
@@ -0,0 +1,7 @@
+package com.example.businessLogic.entity;
+
+public enum TaskChangeAction {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,36 @@
+package com.example.businessLogic.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "task_dependencies", indexes = {
+        @Index(name = "idx_task_dependencies_project_id", columnList = "project_id"),
+        @Index(name = "idx_task_dependencies_blocked", columnList = "blocked_task_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_dependencies_blocker_blocked", columnNames = {"blocker_task_id", "blocked_task_id"})
+})
+public class TaskDependency {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Задача, которая блокирует
+    @Column(name = "blocker_task_id", nullable = false)
+    private String blockerTaskId;
+
+    // Задача, которая ждёт завершения blocker
+    @Column(name = "blocked_task_id", nullable = false)
+    private String blockedTaskId;
+
+    @Column(name = "project_id", nullable = false)
+    private String projectId;
+}
@@ -0,0 +1,44 @@
+package com.example.businessLogic.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Журнал изменений задач проекта. id выдаёт БД, он же - номер события, по которому клиент догоняет пропущенное
+ * после переподключения к любому узлу.
+ */
+@Entity
+@Table(name = "task_events", indexes = {
+        @Index(name = "idx_task_events_project_id", columnList = "project_id, id"),
+        @Index(name = "idx_task_events_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private String projectId;
+
+    @Column(name = "task_id", nullable = false)
+    private String taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", nullable = false, length = 16)
+    private TaskChangeAction action;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -2,6 +2,9 @@ package com.example.businessLogic.repository;
 
 import com.example.businessLogic.entity.Note;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +13,14 @@ import java.util.List;
 public interface NotesRepository extends JpaRepository<Note, Long> {
     List<Note> findByObjectIdAndIsProjectTrue(String objectId);
     List<Note> findByObjectIdAndIsProjectFalse(String objectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM notes WHERE is_project = false AND object_id = ANY(CAST(:taskIds AS varchar[]))",
+            nativeQuery = true)
+    int deleteTaskNotes(@Param("taskIds") String[] taskIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM notes WHERE id IN (SELECT id FROM notes " +
+            "WHERE is_project = true AND object_id = :projectId LIMIT :limit)", nativeQuery = true)
+    int deleteProjectNotesBatch(@Param("projectId") String projectId, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.example.businessLogic.repository;
+
+import com.example.businessLogic.entity.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, String> {
+
+    /**
+     * Прибавляет delta к счётчику и возвращает новое значение.
+     * Если счётчика ещё нет, он создаётся подсчётом уведомлений - в этот подсчёт изменение текущей
+     * транзакции уже входит, а конкурирующая транзакция дождётся вставки и прибавит свою delta.
+     */
+    @Query(value = "INSERT INTO notification_counters (owner_id, unread_count, version, read_up_to_id) " +
+            "SELECT :owner, COUNT(*), 1, 0 FROM notifications WHERE owner_id = :owner AND is_read = false " +
+            "ON CONFLICT (owner_id) DO UPDATE SET " +
+            "unread_count = GREATEST(0, notification_counters.unread_count + :delta), " +
+            "version = notification_counters.version + 1 " +
+            "RETURNING unread_count AS unreadCount, version AS version, " +
+            "read_up_to_id AS readUpToId, read_up_to_at AS readUpToAt", nativeQuery = true)
+    CounterValue applyDelta(@Param("owner") String owner, @Param("delta") long delta);
+
+    @Query(value = "SELECT COUNT(*) FROM notifications WHERE owner_id = :owner AND is_read = false", nativeQuery = true)
+    long countUnread(@Param("owner") String owner);
+
+    /**
+     * То же, что applyDelta, для многих владельцев одним запросом. Владельцы должны быть различны;
+     * строки блокируются в порядке owner_id, поэтому конкурирующие массовые изменения не дают взаимных блокировок.
+     */
+    @Query(value = "INSERT INTO notification_counters (owner_id, unread_count, version, read_up_to_id) " +
+            "SELECT o.owner_id, (SELECT COUNT(*) FROM notifications n WHERE n.owner_id = o.owner_id AND n.is_read = false), 1, 0 " +
+            "FROM unnest(CAST(:owners AS varchar[])) AS o(owner_id) ORDER BY o.owner_id " +
+            "ON CONFLICT (owner_id) DO UPDATE SET " +
+            "unread_count = GREATEST(0, notification_counters.unread_count + :delta), " +
+            "version = notification_counters.version + 1 " +
+            "RETURNING owner_id AS ownerId, unread_count AS unreadCount, version AS version, " +
+            "read_up_to_id AS readUpToId, read_up_to_at AS readUpToAt", nativeQuery = true)
+    List<OwnerCounterValue> applyDeltaToAll(@Param("owners") String[] owners, @Param("delta") long delta);
+
+    /**
+     * Создаёт недостающие счётчики подсчётом уведомлений; существующие строки не трогает и не пересчитывает.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (owner_id, unread_count, version, read_up_to_id) " +
+            "SELECT o.owner_id, (SELECT COUNT(*) FROM notifications n WHERE n.owner_id = o.owner_id AND n.is_read = false), 1, 0 " +
+            "FROM unnest(CAST(:owners AS varchar[])) AS o(owner_id) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM notification_counters c WHERE c.owner_id = o.owner_id) " +
+            "ORDER BY o.owner_id ON CONFLICT (owner_id) DO NOTHING", nativeQuery = true)
+    int createMissing(@Param("owners") String[] owners);
+
+    // Блокировка в порядке owner_id, как и в applyDeltaToAll
+    @Query(value = "SELECT owner_id AS ownerId, read_up_to_id AS readUpToId FROM notification_counters " +
+            "WHERE owner_id = ANY(CAST(:owners AS varchar[])) ORDER BY owner_id FOR UPDATE", nativeQuery = true)
+    List<OwnerReadState> lockAll(@Param("owners") String[] owners);
+
+    /**
+     * Сдвигает отметку «прочитано до» на последнее уведомление владельца и обнуляет счётчик - одна строка
+     * вместо UPDATE всех уведомлений. Строка счётчика должна быть уже заблокирована в этой транзакции:
+     * тогда все вставки, идущие параллельно, ждут её и получат id выше новой отметки.
+     */
+    @Query(value = "UPDATE notification_counters SET " +
+            "read_up_to_id = GREATEST(read_up_to_id, " +
+            "(SELECT COALESCE(MAX(n.id), 0) FROM notifications n WHERE n.owner_id = :owner)), " +
+            "read_up_to_at = :now, unread_count = 0, version = version + 1 " +
+            "WHERE owner_id = :owner " +
+            "RETURNING unread_count AS unreadCount, version AS version, " +
+            "read_up_to_id AS readUpToId, read_up_to_at AS readUpToAt", nativeQuery = true)
+    CounterValue markAllRead(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    interface OwnerReadState {
+        String getOwnerId();
+
+        long getReadUpToId();
+    }
+
+    interface OwnerCounterValue extends CounterValue {
+        String getOwnerId();
+    }
+
+    interface CounterValue {
+        long getUnreadCount();
+
+        long getVersion();
+
+        long getReadUpToId();
+
+        LocalDateTime getReadUpToAt();
+    }
+}
@@ -2,7 +2,7 @@ package com.example.businessLogic.repository;
 
 import com.example.businessLogic.entity.Notification;
 import com.example.businessLogic.entity.NotificationType;
-import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,8 +10,15 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * Массовые UPDATE/DELETE выполняются одним запросом, возвращают число затронутых строк
+ * и сбрасывают контекст persistence, чтобы загруженные ранее сущности не оставались устаревшими.
+ * Счётчики непрочитанных они не трогают - это делает вызывающий сервис по возвращённому числу строк.
+ * UPDATE пишутся нативно: каждая изменённая строка получает новый change_seq для дельта-синхронизации.
+ */
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     // Поиск уведомлений по владельцу (id)
@@ -20,11 +27,16 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Поиск непрочитанных уведомлений
     List<Notification> findByOwnerIdAndIsReadFalseOrderByDateDesc(String ownerId);
 
+    // Непрочитанные - только выше отметки «прочитано до», диапазон по (owner_id, id)
+    @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner AND n.id > :readUpTo AND n.isRead = false " +
+            "ORDER BY n.date DESC")
+    List<Notification> findUnreadAbove(@Param("owner") String owner, @Param("readUpTo") long readUpTo);
+
     // Поиск уведомлений по типу
     List<Notification> findByOwnerIdAndTypeOrderByDateDesc(String ownerId, NotificationType type);
 
     // Поиск уведомлений по типу и отправителю
-    List<Notification> findByOwnerIdAndTypeAndSenderIdOrderByDateDesc(String owner, String type, String senderId);
+    List<Notification> findByOwnerIdAndTypeAndSenderIdOrderByDateDesc(String owner, NotificationType type, String senderId);
 
     // Поиск уведомлений по типу без учета отправителя
     List<Notification> findByOwnerIdAndType(String owner, NotificationType type);
@@ -36,77 +48,92 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     long countByOwnerIdAndIsReadFalse(String ownerId);
 
     // Подсчет непрочитанных уведомлений по типу
-    long countByOwnerIdAndTypeAndIsReadFalse(String owner, String type);
-
-    // Отметить уведомление как прочитанное
-    @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.ownerId = :ownerId")
-    void markAsRead(@Param("id") Long id, @Param("ownerId") String ownerId);
+    long countByOwnerIdAndTypeAndIsReadFalse(String owner, NotificationType type);
 
-    // Отметить все уведомления как прочитанные
-    @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.ownerId = :ownerId")
-    void markAllAsRead(@Param("owner") String ownerId);
+    // Отметить уведомление как прочитанное; ниже отметки «прочитано до» строка уже прочитана и не меняется
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE notifications SET is_read = true, updated_at = :now, " +
+            "change_seq = nextval('notification_changes_seq') " +
+            "WHERE id = :id AND owner_id = :ownerId AND id > :readUpTo AND is_read = false", nativeQuery = true)
+    int markAsRead(@Param("id") Long id, @Param("ownerId") String ownerId, @Param("readUpTo") long readUpTo,
+                   @Param("now") LocalDateTime now);
 
-    @Modifying
-    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("DELETE FROM Notification n WHERE n.ownerId = :ownerId AND n.id = :id")
-    void deleteByOwnerIdAndId(@Param("ownerId") String ownerId, @Param("id") Long id);
-
-    // Отметить уведомления определенного типа как прочитанные
-    @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.ownerId = :owner AND n.type = :type")
-    void markAllAsReadByType(@Param("owner") String owner, @Param("type") String type);
+    int deleteByOwnerIdAndId(@Param("ownerId") String ownerId, @Param("id") Long id);
+
+    // Удаление непрочитанного уведомления; 0 - уведомления нет или оно уже прочитано
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.ownerId = :ownerId AND n.id = :id " +
+            "AND n.id > :readUpTo AND n.isRead = false")
+    int deleteUnreadByOwnerIdAndId(@Param("ownerId") String ownerId, @Param("id") Long id,
+                                   @Param("readUpTo") long readUpTo);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.ownerId = :ownerId AND n.id > :readUpTo AND n.isRead = false")
+    int deleteUnreadByOwnerId(@Param("ownerId") String ownerId, @Param("readUpTo") long readUpTo);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.ownerId = :ownerId AND n.id > :readUpTo AND n.isRead = false " +
+            "AND n.date < :date")
+    int deleteOldUnreadNotifications(@Param("ownerId") String ownerId, @Param("readUpTo") long readUpTo,
+                                     @Param("date") LocalDateTime date);
+
+    // Отметить уведомления определенного типа как прочитанные; возвращает число изменённых строк для счётчика
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE notifications SET is_read = true, updated_at = :now, " +
+            "change_seq = nextval('notification_changes_seq') " +
+            "WHERE owner_id = :owner AND type = :#{#type.name()} AND id > :readUpTo AND is_read = false", nativeQuery = true)
+    int markAllAsReadByType(@Param("owner") String owner, @Param("type") NotificationType type,
+                            @Param("readUpTo") long readUpTo, @Param("now") LocalDateTime now);
 
     // Удаление уведомлений по владельцу
-    @Modifying
-    @Transactional
-    void deleteAllByOwnerId(String ownerId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.ownerId = :owner")
+    int deleteAllByOwnerId(@Param("owner") String ownerId);
 
     // Удаление уведомлений по типу
-    void deleteByOwnerIdAndType(String owner, String type);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.ownerId = :owner AND n.type = :type")
+    int deleteByOwnerIdAndType(@Param("owner") String owner, @Param("type") NotificationType type);
 
     // Удаление уведомлений по типу и отправителю
-    void deleteByOwnerIdAndTypeAndSenderId(String owner, String type, String senderId);
-
-    // Удаление конкретного уведомления по ID и владельцу
-    void deleteByIdAndOwnerId(Long id, String owner);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.ownerId = :owner AND n.type = :type AND n.senderId = :senderId")
+    int deleteByOwnerIdAndTypeAndSenderId(@Param("owner") String owner, @Param("type") NotificationType type,
+                                          @Param("senderId") String senderId);
 
-    // Удаление всех прочитанных уведомлений
-    void deleteByOwnerIdAndIsReadTrue(String owner);
-
-    // Удаление всех непрочитанных уведомлений
-    void deleteByOwnerIdAndIsReadFalse(String owner);
+    // Удаление всех прочитанных уведомлений, включая прочитанные через отметку «прочитано до»
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.ownerId = :owner AND (n.id <= :readUpTo OR n.isRead = true)")
+    int deleteReadByOwnerId(@Param("owner") String owner, @Param("readUpTo") long readUpTo);
 
     // Удаление старых уведомлений
-    @Modifying
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("DELETE FROM Notification n WHERE n.ownerId = :ownerId AND n.date < :date")
-    void deleteOldNotifications(@Param("owner") String ownerId, @Param("date") LocalDateTime date);
+    int deleteOldNotifications(@Param("ownerId") String ownerId, @Param("date") LocalDateTime date);
 
     // Удаление уведомлений старше определенной даты по типу
-    @Modifying
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("DELETE FROM Notification n WHERE n.ownerId = :owner AND n.type = :type AND n.date < :date")
-    void deleteOldNotificationsByType(@Param("owner") String owner, @Param("type") String type, @Param("date") String date);
+    int deleteOldNotificationsByType(@Param("owner") String owner, @Param("type") NotificationType type,
+                                     @Param("date") LocalDateTime date);
 
     // Проверка существования уведомления
-    boolean existsByOwnerIdAndTypeAndSenderIdAndIsReadFalse(String owner, String type, String senderId);
+    boolean existsByOwnerIdAndTypeAndSenderIdAndIsReadFalse(String owner, NotificationType type, String senderId);
 
     // Поиск уведомлений по нескольким типам
     @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner AND n.type IN :types ORDER BY n.date DESC")
-    List<Notification> findByOwnerAndTypeIn(@Param("owner") String owner, @Param("types") List<String> types);
-
-    // Поиск уведомлений с пагинацией
-    @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner ORDER BY n.date DESC")
-    List<Notification> findLatestNotifications(@Param("owner") String owner, org.springframework.data.domain.Pageable pageable);
-
-    // Поиск непрочитанных уведомлений с пагинацией
-    @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner AND n.isRead = false ORDER BY n.date DESC")
-    List<Notification> findLatestUnreadNotifications(@Param("owner") String owner, org.springframework.data.domain.Pageable pageable);
+    List<Notification> findByOwnerAndTypeIn(@Param("owner") String owner,
+                                            @Param("types") Collection<NotificationType> types);
 
     // Обновление содержимого уведомления
-    @Modifying
-    @Query("UPDATE Notification n SET n.title = :title, n.message = :message WHERE n.id = :id AND n.ownerId = :owner")
-    void updateNotificationContent(@Param("id") Long id, @Param("owner") String owner, @Param("title") String title, @Param("message") String message);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE notifications SET title = :title, message = :message, updated_at = :now, " +
+            "change_seq = nextval('notification_changes_seq') WHERE id = :id AND owner_id = :owner",
+            nativeQuery = true)
+    int updateNotificationContent(@Param("id") Long id, @Param("owner") String owner, @Param("title") String title,
+                                  @Param("message") String message, @Param("now") LocalDateTime now);
 
     // Поиск уведомлений по отправителю
     List<Notification> findBySenderIdOrderByDateDesc(String senderId);
@@ -115,13 +142,17 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByOwnerIdAndSenderIdOrderByDateDesc(String owner, String senderId);
 
     // Удаление всех уведомлений от определенного отправителя
-    void deleteBySenderId(String senderId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.senderId = :senderId")
+    int deleteBySenderId(@Param("senderId") String senderId);
 
     // Удаление уведомлений по владельцу и отправителю
-    void deleteByOwnerIdAndSenderId(String owner, String senderId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.ownerId = :owner AND n.senderId = :senderId")
+    int deleteByOwnerIdAndSenderId(@Param("owner") String owner, @Param("senderId") String senderId);
 
     // Получение количества уведомлений по типу
-    long countByOwnerIdAndType(String owner, String type);
+    long countByOwnerIdAndType(String owner, NotificationType type);
 
     // Проверка наличия непрочитанных уведомлений
     boolean existsByOwnerIdAndIsReadFalse(String owner);
@@ -134,8 +165,104 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     Notification findFirstByOwnerIdOrderByDateDesc(String owner);
 
     // Получение последнего уведомления по типу
-    Notification findFirstByOwnerIdAndTypeOrderByDateDesc(String owner, String type);
+    Notification findFirstByOwnerIdAndTypeOrderByDateDesc(String owner, NotificationType type);
+
+    // Первая страница по (date, id) от новых к старым
+    @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner ORDER BY n.date DESC, n.id DESC")
+    List<Notification> findFirstPage(@Param("owner") String owner, Pageable pageable);
+
+    // Keyset-страница: уведомления старше (date, id)
+    @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner " +
+            "AND (n.date < :date OR (n.date = :date AND n.id < :id)) ORDER BY n.date DESC, n.id DESC")
+    List<Notification> findPageBefore(@Param("owner") String owner,
+                                      @Param("date") LocalDateTime date,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner AND n.id > :readUpTo AND n.isRead = false " +
+            "ORDER BY n.date DESC, n.id DESC")
+    List<Notification> findFirstUnreadPage(@Param("owner") String owner, @Param("readUpTo") long readUpTo,
+                                           Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner AND n.id > :readUpTo AND n.isRead = false " +
+            "AND (n.date < :date OR (n.date = :date AND n.id < :id)) ORDER BY n.date DESC, n.id DESC")
+    List<Notification> findUnreadPageBefore(@Param("owner") String owner,
+                                            @Param("readUpTo") long readUpTo,
+                                            @Param("date") LocalDateTime date,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    // Пачка просроченных уведомлений после (afterDate, afterId); строки, которые чистит другой узел, пропускаются.
+    // Прочитанным считается и уведомление ниже отметки «прочитано до», даже если is_read = false
+    @Query(value = "SELECT n.id AS id, n.owner_id AS ownerId, n.date AS date FROM notifications n " +
+            "LEFT JOIN notification_counters c ON c.owner_id = n.owner_id " +
+            "WHERE n.type = :#{#type.name()} AND (n.is_read = true OR n.id <= COALESCE(c.read_up_to_id, 0)) = :read " +
+            "AND n.date < :before " +
+            "AND (n.date > :afterDate OR (n.date = :afterDate AND n.id > :afterId)) " +
+            "ORDER BY n.date, n.id LIMIT :limit FOR UPDATE OF n SKIP LOCKED", nativeQuery = true)
+    List<ExpiredNotification> lockExpiredBatch(@Param("type") NotificationType type,
+                                               @Param("read") boolean read,
+                                               @Param("before") LocalDateTime before,
+                                               @Param("afterDate") LocalDateTime afterDate,
+                                               @Param("afterId") Long afterId,
+                                               @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Уведомления, созданные или изменённые после курсора синхронизации
+    @Query("SELECT n FROM Notification n WHERE n.ownerId = :owner AND n.changeSeq > :after ORDER BY n.changeSeq")
+    List<Notification> findChangedAfter(@Param("owner") String owner, @Param("after") long after, Pageable pageable);
+
+    // Номер последнего изменения пользователя - вместе с журналом удалений даёт начальный курсор синхронизации
+    @Query("SELECT COALESCE(MAX(n.changeSeq), 0) FROM Notification n WHERE n.ownerId = :owner")
+    long findLastChangeSeq(@Param("owner") String owner);
+
+    long countByOwnerId(String owner);
 
     @Query("select n.id from Notification n WHERE n.invitationId = :invitationId")
     Long findIdByInvitationId(Long invitationId);
-}
\ No newline at end of file
+
+    List<Notification> findByInvitationIdIn(Collection<Long> invitationIds);
+
+    // Одно и то же уведомление для многих получателей одной многострочной вставкой
+    @Query(value = "INSERT INTO notifications (owner_id, type, title, date, is_read, message, sender_id, updated_at) " +
+            "SELECT o.owner_id, :#{#type.name()}, :title, :now, false, :message, :sender, :now " +
+            "FROM unnest(CAST(:owners AS varchar[])) AS o(owner_id) " +
+            "RETURNING id AS id, owner_id AS ownerId", nativeQuery = true)
+    List<CreatedNotification> insertForOwners(@Param("owners") String[] owners,
+                                              @Param("type") NotificationType type,
+                                              @Param("title") String title,
+                                              @Param("message") String message,
+                                              @Param("sender") String sender,
+                                              @Param("now") LocalDateTime now);
+
+    // Как insertForOwners, но у каждого получателя своё приглашение; owners и invitations - парные массивы
+    @Query(value = "INSERT INTO notifications (owner_id, type, title, date, is_read, message, sender_id, updated_at, " +
+            "invitation_id) " +
+            "SELECT o.owner_id, :#{#type.name()}, :title, :now, false, :message, :sender, :now, o.invitation_id " +
+            "FROM unnest(CAST(:owners AS varchar[]), CAST(:invitations AS bigint[])) AS o(owner_id, invitation_id) " +
+            "RETURNING id AS id, owner_id AS ownerId", nativeQuery = true)
+    List<CreatedNotification> insertInvitationsForOwners(@Param("owners") String[] owners,
+                                                         @Param("invitations") Long[] invitations,
+                                                         @Param("type") NotificationType type,
+                                                         @Param("title") String title,
+                                                         @Param("message") String message,
+                                                         @Param("sender") String sender,
+                                                         @Param("now") LocalDateTime now);
+
+    interface CreatedNotification {
+        Long getId();
+
+        String getOwnerId();
+    }
+
+    interface ExpiredNotification {
+        Long getId();
+
+        String getOwnerId();
+
+        LocalDateTime getDate();
+    }
+}
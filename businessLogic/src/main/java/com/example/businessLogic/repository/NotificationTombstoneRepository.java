@@ -0,0 +1,40 @@
+package com.example.businessLogic.repository;
+
+import com.example.businessLogic.entity.NotificationTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationTombstoneRepository extends JpaRepository<NotificationTombstone, Long> {
+
+    @Query("SELECT t FROM NotificationTombstone t WHERE t.ownerId = :owner AND t.id > :after ORDER BY t.id")
+    List<NotificationTombstone> findAfter(@Param("owner") String owner, @Param("after") long after, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM NotificationTombstone t WHERE t.ownerId = :owner")
+    long findLastId(@Param("owner") String owner);
+
+    // Номера общие для всех пользователей: всё, что ниже самого старого оставшегося номера, могло быть удалено
+    @Query("SELECT COALESCE(MIN(t.id), 0) FROM NotificationTombstone t")
+    long findOldestId();
+
+    // Удалённые уведомления разных владельцев одной вставкой; owners и ids - парные массивы
+    @Modifying
+    @Query(value = "INSERT INTO notification_tombstones (id, owner_id, notification_id, created_at) " +
+            "SELECT nextval('notification_changes_seq'), t.owner_id, t.notification_id, :now " +
+            "FROM unnest(CAST(:owners AS varchar[]), CAST(:ids AS bigint[])) AS t(owner_id, notification_id)",
+            nativeQuery = true)
+    int insertAll(@Param("owners") String[] owners, @Param("ids") Long[] ids, @Param("now") LocalDateTime now);
+
+    // Самая новая запись остаётся всегда: по ней findOldestId отличает очищенный журнал от пустого
+    @Modifying
+    @Query("DELETE FROM NotificationTombstone t WHERE t.createdAt < :cutoff " +
+            "AND t.id < (SELECT MAX(l.id) FROM NotificationTombstone l)")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,39 @@
+package com.example.businessLogic.repository;
+
+import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.entity.PendingNotification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingNotificationRepository extends JpaRepository<PendingNotification, Long> {
+
+    // Группу, которую уже сбрасывает другой узел, пропускаем (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select p from PendingNotification p where p.ownerId = :owner and p.type = :type " +
+            "and (p.senderId = :sender or (p.senderId is null and :sender is null)) order by p.id")
+    List<PendingNotification> lockGroup(@Param("owner") String owner,
+                                        @Param("type") NotificationType type,
+                                        @Param("sender") String sender);
+
+    // Группы, окно которых давно истекло: узел, на котором они накопились, остановился до сброса
+    @Query("select distinct p.ownerId, p.type, p.senderId from PendingNotification p where p.createdAt < :before")
+    List<Object[]> findGroupsCreatedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("delete from PendingNotification p where p.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
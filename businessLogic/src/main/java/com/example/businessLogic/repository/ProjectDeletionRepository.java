@@ -0,0 +1,66 @@
+package com.example.businessLogic.repository;
+
+import com.example.businessLogic.dto.ProjectDeletionStatus;
+import com.example.businessLogic.entity.ProjectDeletion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProjectDeletionRepository extends JpaRepository<ProjectDeletion, String> {
+
+    // Незавершённые задания без действующей аренды; строки, которые сейчас захватывает другой узел, пропускаются
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select d from ProjectDeletion d where d.state <> :completed " +
+            "and (d.leaseUntil is null or d.leaseUntil < :now) order by d.requestedAt")
+    List<ProjectDeletion> lockClaimable(@Param("completed") ProjectDeletionStatus.State completed,
+                                        @Param("now") LocalDateTime now,
+                                        Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select d from ProjectDeletion d where d.id = :id and d.state <> :completed " +
+            "and (d.leaseUntil is null or d.leaseUntil < :now)")
+    List<ProjectDeletion> lockClaimableById(@Param("id") String id,
+                                            @Param("completed") ProjectDeletionStatus.State completed,
+                                            @Param("now") LocalDateTime now);
+
+    /**
+     * Продлевает аренду и сохраняет прогресс. 0 - аренду перехватил другой узел, продолжать нельзя.
+     */
+    @Modifying
+    @Query("update ProjectDeletion d set d.state = :state, d.leaseUntil = :leaseUntil, " +
+            "d.totalTasks = :totalTasks, d.deletedTasks = :deletedTasks where d.id = :id and d.leaseOwner = :owner")
+    int renewLease(@Param("id") String id,
+                   @Param("owner") String owner,
+                   @Param("state") ProjectDeletionStatus.State state,
+                   @Param("leaseUntil") LocalDateTime leaseUntil,
+                   @Param("totalTasks") long totalTasks,
+                   @Param("deletedTasks") long deletedTasks);
+
+    // Аренда не снимается: после ошибки lease_until служит паузой перед повтором
+    @Modifying
+    @Query("update ProjectDeletion d set d.state = :state, d.finishedAt = :finishedAt, d.error = :error, " +
+            "d.deletedTasks = :deletedTasks, d.leaseOwner = null where d.id = :id and d.leaseOwner = :owner")
+    int finish(@Param("id") String id,
+               @Param("owner") String owner,
+               @Param("state") ProjectDeletionStatus.State state,
+               @Param("finishedAt") LocalDateTime finishedAt,
+               @Param("error") String error,
+               @Param("deletedTasks") long deletedTasks);
+
+    @Modifying
+    @Query("delete from ProjectDeletion d where d.state = :state and d.finishedAt < :before")
+    int deleteFinishedBefore(@Param("state") ProjectDeletionStatus.State state, @Param("before") LocalDateTime before);
+}
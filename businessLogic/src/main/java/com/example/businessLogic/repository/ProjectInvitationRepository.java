@@ -3,8 +3,13 @@ package com.example.businessLogic.repository;
 import com.example.businessLogic.entity.InvitationStatus;
 import com.example.businessLogic.entity.ProjectInvitation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +25,33 @@ public interface ProjectInvitationRepository extends JpaRepository<ProjectInvita
     boolean existsByProjectIdAndInvitedUserIdAndStatus(String projectId,
                                                        String invitedUserId,
                                                        InvitationStatus status);
-}
+
+    @Query(value = "SELECT id FROM project_invitations WHERE project_id = :projectId LIMIT :limit", nativeQuery = true)
+    List<Long> findIdBatchByProjectId(@Param("projectId") String projectId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from project_invitations i where i.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select i.invitedUserId from project_invitations i where i.projectId = :projectId " +
+            "and i.status = :status and i.invitedUserId in :userIds")
+    List<String> findInvitedUserIds(@Param("projectId") String projectId,
+                                    @Param("userIds") Collection<String> userIds,
+                                    @Param("status") InvitationStatus status);
+
+    // Приглашения многим пользователям одной многострочной вставкой
+    @Query(value = "INSERT INTO project_invitations (project_id, invited_user_id, inviter_user_id, status, created_at) " +
+            "SELECT :projectId, i.user_id, :inviter, 'PENDING', :now " +
+            "FROM unnest(CAST(:invited AS varchar[])) AS i(user_id) " +
+            "RETURNING id AS id, invited_user_id AS invitedUserId", nativeQuery = true)
+    List<CreatedInvitation> insertPending(@Param("projectId") String projectId,
+                                          @Param("invited") String[] invited,
+                                          @Param("inviter") String inviter,
+                                          @Param("now") LocalDateTime now);
+
+    interface CreatedInvitation {
+        Long getId();
+
+        String getInvitedUserId();
+    }
+}
\ No newline at end of file
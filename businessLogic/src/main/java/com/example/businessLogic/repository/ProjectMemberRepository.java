@@ -1,9 +1,14 @@
 package com.example.businessLogic.repository;
 
 import com.example.businessLogic.entity.ProjectMember;
+import com.example.businessLogic.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +21,45 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, St
     boolean existsByProjectIdAndUserId(String projectId, String userId);
 
     Optional<ProjectMember> findByProjectIdAndUserId(String projectId, String userId);
+
+    @Query("select pm.id.user from ProjectMember pm where pm.id.project = :projectId")
+    List<String> findUserIdsByProjectId(@Param("projectId") String projectId);
+
+    /**
+     * Все проекты пользователя с его ролью в каждом - одна выборка по индексу user_id без загрузки сущностей.
+     */
+    @Query("select pm.id.project as projectId, pm.role as role from ProjectMember pm " +
+            "where pm.id.user = :userId and pm.project.deletedAt is null")
+    List<ProjectRole> findRolesByUserId(@Param("userId") String userId);
+
+    /**
+     * Участники сразу нескольких проектов с именами пользователей, одним запросом.
+     * Проекция, а не join fetch: User загружает роли EAGER, и каждая сущность добавила бы ещё запрос.
+     */
+    @Query("select pm.id.project as projectId, u.id as userId, u.username as username, pm.role as role " +
+            "from ProjectMember pm join pm.user u where pm.id.project in :projectIds")
+    List<MemberView> findMemberViewsByProjectIdIn(@Param("projectIds") Collection<String> projectIds);
+
+    @Query("select pm.id.user from ProjectMember pm where pm.id.project = :projectId and pm.id.user in :userIds")
+    List<String> findMemberUserIds(@Param("projectId") String projectId, @Param("userIds") Collection<String> userIds);
+
+    @Modifying
+    @Query("delete from ProjectMember pm where pm.id.project = :projectId")
+    int deleteAllByProjectId(@Param("projectId") String projectId);
+
+    interface ProjectRole {
+        String getProjectId();
+
+        Role getRole();
+    }
+
+    interface MemberView {
+        String getProjectId();
+
+        String getUserId();
+
+        String getUsername();
+
+        Role getRole();
+    }
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package com.example.businessLogic.repository;
 
 import com.example.businessLogic.entity.Project;
+import jakarta.persistence.LockModeType;
 import lombok.NonNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, String> {
@@ -15,4 +20,24 @@ public interface ProjectRepository extends JpaRepository<Project, String> {
 
     @Query("select distinct p from Project p join ProjectMember pm on p.id = pm.project.id where pm.user.id = :userId")
     List<Project> findAllByUserId(@Param("userId") String userId);
-}
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Project p where p.id = :id")
+    Optional<Project> findByIdForUpdate(@Param("id") String id);
+
+    /**
+     * Мягкое удаление: проект сразу пропадает из всех выборок сущности (см. @SQLRestriction у Project),
+     * а данные удаляет ProjectDeletionService. Возвращает 0, если проекта нет или он уже удаляется.
+     */
+    @Modifying
+    @Query(value = "UPDATE projects SET deleted_at = :now WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int markDeleted(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT id FROM projects WHERE deleted_at IS NOT NULL AND deleted_at < :before", nativeQuery = true)
+    List<String> findDeletedBefore(@Param("before") LocalDateTime before);
+
+    // Нативный запрос: JPQL не видит помеченные проекты
+    @Modifying
+    @Query(value = "DELETE FROM projects WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("id") String id);
+}
\ No newline at end of file
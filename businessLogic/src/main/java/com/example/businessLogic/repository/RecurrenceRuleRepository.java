@@ -0,0 +1,48 @@
+package com.example.businessLogic.repository;
+
+import com.example.businessLogic.entity.RecurrenceRule;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurrenceRuleRepository extends JpaRepository<RecurrenceRule, Long> {
+
+    Optional<RecurrenceRule> findByTemplateTaskId(String taskId);
+
+    // Та же блокировка строки, что и у планировщика, но с ожиданием: правка правила не пересекается с его проходом
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RecurrenceRule r where r.templateTask.id = :taskId")
+    Optional<RecurrenceRule> lockByTemplateTaskId(@Param("taskId") String taskId);
+
+    // Keyset-пагинация по id; строки, заблокированные другим узлом, пропускаются (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    // Project скрывает удаляемые проекты (@SQLRestriction): их правила не создают новых задач
+    @Query("select r from RecurrenceRule r join fetch r.templateTask t " +
+            "where r.id > :afterId and r.active = true and r.materializedUntil < :horizon " +
+            "and (t.project is null or exists (select p.id from Project p where p = t.project)) order by r.id")
+    List<RecurrenceRule> lockDueBatch(@Param("afterId") Long afterId,
+                                      @Param("horizon") LocalDate horizon,
+                                      Pageable pageable);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("delete from RecurrenceRule r where r.templateTask.id = :taskId")
+    int deleteByTemplateTaskId(@Param("taskId") String taskId);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_recurrence_rules WHERE template_task_id = ANY(CAST(:taskIds AS varchar[]))",
+            nativeQuery = true)
+    int deleteByTemplateTaskIdIn(@Param("taskIds") String[] taskIds);
+}
\ No newline at end of file
@@ -4,7 +4,10 @@ import com.example.businessLogic.entity.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface StatusRepository extends JpaRepository<Status, Integer> {
 
+    Optional<Status> findByNameIgnoreCase(String name);
 }
@@ -0,0 +1,41 @@
+package com.example.businessLogic.repository;
+
+import com.example.businessLogic.entity.TaskDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, Long> {
+
+    List<TaskDependency> findByBlockedTaskId(String blockedTaskId);
+
+    List<TaskDependency> findByBlockerTaskId(String blockerTaskId);
+
+    boolean existsByBlockerTaskIdAndBlockedTaskId(String blockerTaskId, String blockedTaskId);
+
+    // Только пары id, без загрузки сущностей: из них строится граф проекта
+    @Query("select d.blockerTaskId, d.blockedTaskId from TaskDependency d where d.projectId = :projectId")
+    List<Object[]> findEdgesByProjectId(@Param("projectId") String projectId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("delete from TaskDependency d where d.blockerTaskId = :taskId or d.blockedTaskId = :taskId")
+    int deleteByTaskId(@Param("taskId") String taskId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("delete from TaskDependency d where d.blockerTaskId = :blockerId and d.blockedTaskId = :blockedId")
+    int deleteByBlockerAndBlocked(@Param("blockerId") String blockerId, @Param("blockedId") String blockedId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("delete from TaskDependency d where d.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") String projectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_dependencies WHERE blocker_task_id = ANY(CAST(:taskIds AS varchar[])) " +
+            "OR blocked_task_id = ANY(CAST(:taskIds AS varchar[]))", nativeQuery = true)
+    int deleteByTaskIdIn(@Param("taskIds") String[] taskIds);
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.businessLogic.repository;
+
+import com.example.businessLogic.entity.TaskEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskEventRepository extends JpaRepository<TaskEvent, Long> {
+
+    @Query("select e from TaskEvent e where e.projectId = :projectId and e.id > :afterId order by e.id")
+    List<TaskEvent> findAfter(@Param("projectId") String projectId, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select coalesce(max(e.id), 0) from TaskEvent e where e.projectId = :projectId")
+    long findLastId(@Param("projectId") String projectId);
+
+    // id общие для всех проектов, поэтому всё, что старше минимального оставшегося id, уже удалено
+    @Query("select coalesce(min(e.id), 0) from TaskEvent e")
+    long findOldestId();
+
+    @Modifying
+    @Query("delete from TaskEvent e where e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,12 +1,18 @@
 package com.example.businessLogic.repository;
 import com.example.businessLogic.entity.Project;
 import com.example.businessLogic.entity.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, String> {
@@ -39,9 +45,52 @@ public interface TaskRepository extends JpaRepository<Task, String> {
 
     List<Task> getTasksByProject(Project project);
 
-    void deleteByProjectId(String projectId);
-
     @Query("select t from Task t where t.project = :projectId and t.completionDate is not null and t.completionDate < :cutoff")
     List<Task> findCompletedTasksByProjectAndCompletedBefore(@Param("projectId") String projectId,
                                                              @Param("cutoff") LocalDate cutoff);
+
+    @Query("select t.occurrenceDate from Task t where t.recurrenceRuleId = :ruleId " +
+            "and t.occurrenceDate > :from and t.occurrenceDate <= :to")
+    Set<LocalDate> findOccurrenceDates(@Param("ruleId") Long ruleId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    // Нативный запрос: задача удаляемого проекта скрыта от JPQL, а доступ к ней должен получить отказ
+    @Query(value = "SELECT project_id FROM tasks WHERE task_id = :taskId", nativeQuery = true)
+    String findProjectIdById(@Param("taskId") String taskId);
+
+    @Query("select t.id, t.startDate, t.deadlineDate, t.createDate from Task t where t.project.id = :projectId")
+    List<Object[]> findScheduleRowsByProjectId(@Param("projectId") String projectId);
+
+    // Потоковое чтение курсором: вызывать только внутри read-only транзакции и закрывать Stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t left join fetch t.priority left join fetch t.status " +
+            "where t.project.id = :projectId order by t.createDate, t.id")
+    Stream<Task> streamByProjectId(@Param("projectId") String projectId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t left join fetch t.priority left join fetch t.status " +
+            "where t.creator.id = :userId and t.project is null order by t.createDate, t.id")
+    Stream<Task> streamPersonalByCreatorId(@Param("userId") String userId);
+
+    @Query(value = "SELECT count(*) FROM tasks WHERE project_id = :projectId", nativeQuery = true)
+    long countTasksInProject(@Param("projectId") String projectId);
+
+    // Очередная пачка задач удаляемого проекта
+    @Query(value = "SELECT task_id FROM tasks WHERE project_id = :projectId LIMIT :limit", nativeQuery = true)
+    List<String> findIdBatchByProjectId(@Param("projectId") String projectId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_assignees WHERE task_id = ANY(CAST(:taskIds AS varchar[]))", nativeQuery = true)
+    int deleteAssigneesByTaskIdIn(@Param("taskIds") String[] taskIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE task_id = ANY(CAST(:taskIds AS varchar[]))", nativeQuery = true)
+    int deleteByTaskIdIn(@Param("taskIds") String[] taskIds);
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package com.example.businessLogic.repository;
 import com.example.businessLogic.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByFriendshipKeyAndUsername(String friendshipKey, String name);
     Optional<User> findByUsername(String username);
     Optional<User> findById(String id);
+
+    @Query("select u.id from User u where u.id in :ids")
+    Set<String> findExistingIds(@Param("ids") Collection<String> ids);
 }
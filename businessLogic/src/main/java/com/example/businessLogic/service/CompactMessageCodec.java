@@ -0,0 +1,121 @@
+package com.example.businessLogic.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компактная бинарная кодировка исходящих сообщений для клиентов с подпротоколом {@link #PROTOCOL}.
+ * Кадр: первый байт — номер типа сообщения (0, если тип не из реестра и поле type осталось в теле),
+ * дальше CBOR-объект, где известные имена полей заменены целыми тегами.
+ * Номера типов и тегов — часть протокола v1: новые значения только дописываются в конец списков.
+ */
+@Component
+@RequiredArgsConstructor
+public class CompactMessageCodec {
+
+    public static final String PROTOCOL = "taskmanager.compact.v1";
+
+    private static final List<String> MESSAGE_TYPES = List.of(
+            "NEW_NOTIFICATION", "NOTIFICATION_READ", "ALL_NOTIFICATIONS_READ", "NOTIFICATION_DELETED",
+            "NOTIFICATIONS_LIST", "NOTIFICATIONS_DELTA", "NOTIFICATIONS_PAGE", "UNREAD_COUNT",
+            "TASK_CHANGES", "TASK_RESYNC_REQUIRED", "PONG");
+
+    private static final List<String> FIELDS = List.of(
+            "messageId", "notification", "notificationId", "isRead", "data", "hasMore", "cursor",
+            "unreadCount", "totalCount", "count", "version", "events", "projectId", "lastEventId",
+            "id", "title", "message", "senderId", "type", "date", "invitationId", "referenceIds",
+            "eventId", "taskId", "action", "deletedIds");
+
+    // Номера типов начинаются с 1, тегов — с 0
+    private static final Map<String, Integer> TYPE_IDS = index(MESSAGE_TYPES, 1);
+    private static final Map<String, Integer> FIELD_TAGS = index(FIELDS, 0);
+
+    private final ObjectMapper objectMapper;
+    private final CBORFactory cborFactory = new CBORFactory();
+
+    public static boolean isCompact(WebSocketSession session) {
+        return PROTOCOL.equals(session.getAcceptedProtocol());
+    }
+
+    /**
+     * Перекодирует JSON-сообщение, уже сериализованное для шины, в компактный кадр.
+     */
+    public byte[] encode(String json) {
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            Integer typeId = TYPE_IDS.get(root.path("type").asText());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length() / 2 + 16);
+            out.write(typeId != null ? typeId : 0);
+            try (JsonGenerator generator = cborFactory.createGenerator(out)) {
+                writeNode(generator, root, typeId != null);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось закодировать сообщение WebSocket", e);
+        }
+    }
+
+    private void writeNode(JsonGenerator generator, JsonNode node, boolean skipType) throws IOException {
+        if (node.isObject()) {
+            generator.writeStartObject();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (skipType && "type".equals(field.getKey())) {
+                    continue;
+                }
+                Integer tag = FIELD_TAGS.get(field.getKey());
+                if (tag != null) {
+                    generator.writeFieldId(tag);
+                } else {
+                    generator.writeFieldName(field.getKey());
+                }
+                writeNode(generator, field.getValue(), false);
+            }
+            generator.writeEndObject();
+        } else if (node.isArray()) {
+            generator.writeStartArray();
+            for (JsonNode item : node) {
+                writeNode(generator, item, false);
+            }
+            generator.writeEndArray();
+        } else if (node.isTextual()) {
+            generator.writeString(node.textValue());
+        } else if (node.isIntegralNumber()) {
+            if (node.canConvertToLong()) {
+                generator.writeNumber(node.longValue());
+            } else {
+                generator.writeNumber(node.bigIntegerValue());
+            }
+        } else if (node.isNumber()) {
+            generator.writeNumber(node.doubleValue());
+        } else if (node.isBoolean()) {
+            generator.writeBoolean(node.booleanValue());
+        } else if (node.isNull()) {
+            generator.writeNull();
+        } else {
+            generator.writeString(node.asText());
+        }
+    }
+
+    private static Map<String, Integer> index(List<String> names, int first) {
+        Map<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            result.put(names.get(i), first + i);
+        }
+        return Map.copyOf(result);
+    }
+}
@@ -93,7 +93,7 @@ public class ContactRequestService {
             List<Notification> contactRequestNotifications = notificationRepository
                     .findByOwnerIdAndTypeAndSenderId(recipientId, NotificationType.CONTACT_REQUEST, senderId);
 
-            notificationRepository.deleteAll(contactRequestNotifications);
+            notificationService.discard(contactRequestNotifications);
 
             log.info("Deleted contact request notifications for recipient: {}, sender: {}", recipientId, senderId);
 
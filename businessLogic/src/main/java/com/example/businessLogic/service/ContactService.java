@@ -33,6 +33,7 @@ public class ContactService {
         return result;
     }
 
+    @Transactional(readOnly = true)
     public List<ContactResponse> getUserContacts(User user) {
         List<Contact> contacts = contactRepository.findByOwner(user);
 
@@ -0,0 +1,87 @@
+package com.example.businessLogic.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковый разбор CSV (RFC 4180): читает по одной записи, поддерживает кавычки и переводы строк в полях.
+ * Длина записи ограничена: незакрытая кавычка иначе превратила бы весь остаток файла в одно поле в памяти.
+ */
+public final class CsvReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+
+    public CsvReader(Reader reader) {
+        this(reader, Integer.MAX_VALUE);
+    }
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Следующая запись или null, если поток закончился.
+     *
+     * @throws RecordTooLongException если запись длиннее maxRecordLength символов; границу следующей записи
+     *                                после этого найти нельзя, поэтому дальше поток читать не следует
+     */
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean read = false;
+        int length = 0;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (++length > maxRecordLength) {
+                throw new RecordTooLongException(maxRecordLength);
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public static class RecordTooLongException extends IOException {
+
+        public RecordTooLongException(int maxRecordLength) {
+            super("Запись CSV длиннее " + maxRecordLength + " символов");
+        }
+    }
+}
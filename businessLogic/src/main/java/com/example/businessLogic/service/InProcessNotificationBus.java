@@ -0,0 +1,47 @@
+package com.example.businessLogic.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Шина для одного узла: сообщение сразу уходит локальным слушателям.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.bus.type", havingValue = "in-process", matchIfMissing = true)
+public class InProcessNotificationBus implements NotificationBus {
+
+    private final List<BiConsumer<Collection<String>, String>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<String>>> topicListeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(Collection<String> userIds, String payload) {
+        for (BiConsumer<Collection<String>, String> listener : listeners) {
+            listener.accept(userIds, payload);
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<Collection<String>, String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void broadcast(String topic, String message) {
+        for (Consumer<String> listener : topicListeners.getOrDefault(topic, List.of())) {
+            listener.accept(message);
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+        topicListeners.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.businessLogic.service;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
 @Service
 public class MetricsService {
 
@@ -18,6 +25,12 @@ public class MetricsService {
 
     private final Timer sessionDurationTimer;
 
+    private final AtomicLong webSocketQueuedMessages = new AtomicLong();
+
+    private final AtomicLong webSocketQueuedBytes = new AtomicLong();
+
+    private final Counter webSocketDroppedCounter;
+
     public MetricsService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
 
@@ -42,6 +55,18 @@ public class MetricsService {
                 .publishPercentiles(0.5, 0.95, 0.99)
                 .tag("application", "business-logic")
                 .register(this.meterRegistry);
+
+        Gauge.builder("websocket.outbound.queue.messages", webSocketQueuedMessages, AtomicLong::get)
+                .description("Сообщения в очередях отправки WebSocket")
+                .register(this.meterRegistry);
+
+        Gauge.builder("websocket.outbound.queue.bytes", webSocketQueuedBytes, AtomicLong::get)
+                .description("Объём очередей отправки WebSocket в байтах")
+                .register(this.meterRegistry);
+
+        this.webSocketDroppedCounter = Counter.builder("websocket.outbound.dropped")
+                .description("Сообщения WebSocket, отброшенные из-за переполнения очереди или закрытия сессии")
+                .register(this.meterRegistry);
     }
 
     public void recordTaskCreated() {
@@ -59,4 +84,91 @@ public class MetricsService {
     public void recordSessionDuration(long durationMs) {
         sessionDurationTimer.record(java.time.Duration.ofMillis(durationMs));
     }
-}
\ No newline at end of file
+
+    public void recordWebSocketMessageQueued(int bytes) {
+        webSocketQueuedMessages.incrementAndGet();
+        webSocketQueuedBytes.addAndGet(bytes);
+    }
+
+    public void recordWebSocketMessageDequeued(int bytes) {
+        webSocketQueuedMessages.decrementAndGet();
+        webSocketQueuedBytes.addAndGet(-bytes);
+    }
+
+    public void recordWebSocketMessageDropped() {
+        webSocketDroppedCounter.increment();
+    }
+
+    public void recordWebSocketSessionTerminated(String reason) {
+        meterRegistry.counter("websocket.sessions.terminated", "reason", reason).increment();
+    }
+
+    public void recordNotificationsExpired(String type, boolean read, int count) {
+        meterRegistry.counter("notifications.retention.deleted", "type", type, "state", read ? "read" : "unread")
+                .increment(count);
+    }
+
+    public void recordNotificationsCoalesced(String type, int merged) {
+        meterRegistry.counter("notifications.coalesced", "type", type).increment(merged);
+    }
+
+    public void recordWebSocketConnectionOpened(String encoding, boolean deflate) {
+        meterRegistry.counter("websocket.connections.opened",
+                "encoding", encoding, "deflate", String.valueOf(deflate)).increment();
+    }
+
+    public void recordWebSocketFrameEncoded(String encoding, int bytes, long durationNanos) {
+        DistributionSummary.builder("websocket.frame.bytes")
+                .description("Размер кадра до сжатия permessage-deflate")
+                .baseUnit("bytes")
+                .tag("encoding", encoding)
+                .register(meterRegistry)
+                .record(bytes);
+        Timer.builder("websocket.frame.encode")
+                .description("Время кодирования одного кадра")
+                .tag("encoding", encoding)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordProjectDeletion(String outcome, long tasks, long durationMs) {
+        meterRegistry.counter("project.deleted", "outcome", outcome).increment();
+        meterRegistry.counter("project.deleted.tasks").increment(tasks);
+        Timer.builder("project.deletion.duration")
+                .description("Длительность фонового удаления проекта")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(durationMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordWebSocketConnectionClosed(int closeCode) {
+        meterRegistry.counter("websocket.connections.closed", "code", String.valueOf(closeCode)).increment();
+    }
+
+    public void monitorWebSocketSessions(IntSupplier sessions, IntSupplier users) {
+        Gauge.builder("websocket.sessions.active", sessions, IntSupplier::getAsInt)
+                .description("Открытые WebSocket-сессии узла")
+                .strongReference(true)
+                .register(this.meterRegistry);
+
+        Gauge.builder("websocket.users.connected", users, IntSupplier::getAsInt)
+                .description("Пользователи хотя бы с одной WebSocket-сессией на узле")
+                .strongReference(true)
+                .register(this.meterRegistry);
+    }
+
+    public void monitorReplicaLag(LongSupplier lagMs) {
+        Gauge.builder("db.replica.lag", lagMs, supplier -> {
+                    long lag = supplier.getAsLong();
+                    return lag < 0 ? Double.NaN : lag;
+                })
+                .description("Отставание реплики чтения, NaN - реплика недоступна")
+                .baseUnit("milliseconds")
+                .strongReference(true)
+                .register(this.meterRegistry);
+    }
+
+    public void recordReadRouting(String target) {
+        meterRegistry.counter("db.read.routing", "target", target).increment();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.businessLogic.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Шина рассылки WebSocket-сообщений между узлами businessLogic.
+ * Сообщение уже сериализовано в JSON и доставляется сессиям пользователей на всех узлах, включая текущий.
+ * Через неё же узлы обмениваются служебными сообщениями по темам (сброс локальных кэшей), которые в сессии не попадают.
+ */
+public interface NotificationBus {
+
+    /**
+     * Одно и то же сообщение нескольким пользователям: сериализуется и передаётся один раз.
+     */
+    void publish(Collection<String> userIds, String payload);
+
+    default void publish(String userId, String payload) {
+        publish(List.of(userId), payload);
+    }
+
+    /**
+     * Слушатель получает (userIds, payload) и отправляет его в локальные сессии узла.
+     */
+    void subscribe(BiConsumer<Collection<String>, String> listener);
+
+    /**
+     * Служебное сообщение слушателям темы на всех узлах, включая текущий.
+     */
+    void broadcast(String topic, String message);
+
+    void subscribe(String topic, Consumer<String> listener);
+}
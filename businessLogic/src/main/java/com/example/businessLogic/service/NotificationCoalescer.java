@@ -0,0 +1,194 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.NotificationRequest;
+import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.entity.PendingNotification;
+import com.example.businessLogic.repository.PendingNotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Объединяет уведомления одного типа от одного отправителя одному получателю, пришедшие в пределах окна,
+ * в одно сгруппированное уведомление со счётчиком и списком объектов. Стоит перед
+ * {@link NotificationService#sendNotification}: массовое назначение задач даёт одну строку и один кадр вместо сотен.
+ * Ожидающие уведомления хранятся в notification_pending и пишутся в транзакции вызывающего кода;
+ * окна отслеживаются колесом таймеров с одним потоком, а группы, оставшиеся после остановки узла,
+ * подбирает периодический проход.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationCoalescer {
+
+    // Подставляется в заголовок и текст сводного уведомления
+    public static final String COUNT_PLACEHOLDER = "{count}";
+
+    private final NotificationService notificationService;
+    private final PendingNotificationRepository pendingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricsService metricsService;
+
+    @Value("${notifications.coalesce.window-ms:2000}")
+    private long windowMs;
+
+    @Value("${notifications.coalesce.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${notifications.coalesce.max-references:50}")
+    private int maxReferences;
+
+    @Value("${notifications.coalesce.types:TASK_ASSIGMENT}")
+    private Set<NotificationType> coalescedTypes;
+
+    @Value("${notifications.coalesce.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    // Группы, уже поставленные в колесо этим узлом
+    private final Set<GroupKey> scheduled = ConcurrentHashMap.newKeySet();
+
+    private TimingWheel<GroupKey> wheel;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    public void start() {
+        wheel = new TimingWheel<>(tickMs, (int) ((windowMs + tickMs - 1) / tickMs) + 1, this::flush);
+        ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("notification-coalescer-"));
+        ticker.scheduleAtFixedRate(wheel::advance, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        // Группы и так сохранены в БД, но ждать их до прохода другого узла незачем
+        wheel.fireAll();
+    }
+
+    /**
+     * Ставит уведомление в группу. referenceId - объект, на который ссылается уведомление;
+     * digest - итоговое уведомление на случай, если в окне их окажется больше одного,
+     * {@link #COUNT_PLACEHOLDER} в его заголовке и тексте заменяется числом объединённых.
+     * Строка группы пишется в транзакции вызывающего кода, окно отсчитывается после её фиксации.
+     */
+    @Transactional
+    public void submit(String ownerId, NotificationRequest request, String referenceId, NotificationRequest digest) {
+        if (ownerId == null || ownerId.isEmpty()) {
+            throw new NullPointerException("OwnerId не может быть пустым");
+        }
+
+        if (!coalescedTypes.contains(request.getType())) {
+            notificationService.sendNotification(ownerId, request);
+            return;
+        }
+
+        pendingRepository.save(PendingNotification.builder()
+                .ownerId(ownerId)
+                .type(request.getType())
+                .senderId(request.getSenderId())
+                .title(request.getTitle())
+                .message(request.getMessage())
+                .referenceId(referenceId)
+                .digestTitle(digest != null ? digest.getTitle() : null)
+                .digestMessage(digest != null ? digest.getMessage() : null)
+                .createdAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new PendingNotificationEvent(ownerId, request.getType(), request.getSenderId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSubmitted(PendingNotificationEvent event) {
+        GroupKey key = new GroupKey(event.ownerId(), event.type(), event.senderId());
+        // Окно отсчитывается от первого уведомления группы, задержка не растёт при потоке новых
+        if (scheduled.add(key)) {
+            wheel.schedule(key, windowMs);
+        }
+    }
+
+    /**
+     * Сбрасывает группы, чьё окно истекло давно: их узел остановился, не успев создать итоговое уведомление.
+     */
+    @Scheduled(fixedDelayString = "${notifications.coalesce.sweep-ms:10000}")
+    public void flushAbandoned() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(windowMs * 2 * 1_000_000);
+        for (Object[] group : pendingRepository.findGroupsCreatedBefore(before, PageRequest.of(0, sweepBatchSize))) {
+            flush(new GroupKey((String) group[0], (NotificationType) group[1], (String) group[2]));
+        }
+    }
+
+    void flush(GroupKey key) {
+        scheduled.remove(key);
+        try {
+            Integer count = transactionTemplate.execute(status -> flushGroup(key));
+            if (count != null && count > 1) {
+                metricsService.recordNotificationsCoalesced(key.type().name(), count - 1);
+                log.info("Объединено уведомлений: ownerId={}, type={}, count={}", key.ownerId(), key.type(), count);
+            }
+        } catch (Exception e) {
+            // Строки группы остались в БД, их подберёт периодический проход
+            log.error("Ошибка отправки сгруппированного уведомления: ownerId={}, type={}", key.ownerId(), key.type(), e);
+        }
+    }
+
+    private int flushGroup(GroupKey key) {
+        List<PendingNotification> group = pendingRepository.lockGroup(key.ownerId(), key.type(), key.senderId());
+        if (group.isEmpty()) {
+            return 0;
+        }
+
+        // Счётчик точный, а список объектов ограничен, чтобы не раздувать строку уведомления
+        List<String> referenceIds = new ArrayList<>();
+        for (PendingNotification pending : group) {
+            if (pending.getReferenceId() != null && referenceIds.size() < maxReferences) {
+                referenceIds.add(pending.getReferenceId());
+            }
+        }
+
+        PendingNotification first = group.get(0);
+        PendingNotification last = group.get(group.size() - 1);
+        NotificationRequest request = NotificationRequest.builder()
+                .senderId(key.senderId())
+                .type(key.type())
+                .referenceIds(referenceIds.isEmpty() ? null : referenceIds)
+                .build();
+        if (group.size() == 1 || last.getDigestMessage() == null) {
+            request.setTitle(first.getTitle());
+            request.setMessage(first.getMessage());
+        } else {
+            String count = String.valueOf(group.size());
+            request.setTitle(last.getDigestTitle() != null
+                    ? last.getDigestTitle().replace(COUNT_PLACEHOLDER, count) : first.getTitle());
+            request.setMessage(last.getDigestMessage().replace(COUNT_PLACEHOLDER, count));
+        }
+        if (group.size() > 1) {
+            request.setCount(group.size());
+        }
+
+        notificationService.sendNotification(key.ownerId(), request);
+        pendingRepository.deleteByIdIn(group.stream().map(PendingNotification::getId).toList());
+        return group.size();
+    }
+
+    record GroupKey(String ownerId, NotificationType type, String senderId) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.NotificationResponse;
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.example.businessLogic.entity.NotificationOutboxMessage;
+import com.example.businessLogic.repository.NotificationOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Transactional outbox для WebSocket-уведомлений.
+ * Сообщение пишется в notification_outbox в транзакции вызывающего кода и отправляется только после коммита.
+ * Если узел не успел отправить или удалить строку, её повторно доставит периодический проход,
+ * поэтому доставка "хотя бы один раз", а клиент отбрасывает дубли по messageId.
+ * Через outbox идут одиночные уведомления и приглашения в проект. Массовые объявления
+ * ({@link NotificationService#sendBulkNotification}) отправляются после коммита без outbox и без повторов:
+ * получатель, пропустивший сообщение, увидит уведомление при следующей синхронизации.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationSender notificationSender;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notifications.outbox.grace-ms:5000}")
+    private long graceMs;
+
+    @Value("${notifications.outbox.batch-size:200}")
+    private int batchSize;
+
+    // id строк, уже доставленных после коммита; удаляются пачками из планировщика
+    private final Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+
+    @Transactional
+    public void enqueue(String ownerId, NotificationResponse notification) {
+        NotificationOutboxMessage saved = outboxRepository.save(toMessage(ownerId, notification, LocalDateTime.now()));
+        eventPublisher.publishEvent(new NotificationQueuedEvent(saved.getId(), ownerId, saved.getPayload()));
+    }
+
+    /**
+     * Ставит в outbox по уведомлению на каждого получателя одним saveAll.
+     */
+    @Transactional
+    public void enqueueAll(Map<String, NotificationResponse> notificationByOwner) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutboxMessage> messages = new ArrayList<>(notificationByOwner.size());
+        notificationByOwner.forEach((ownerId, notification) -> messages.add(toMessage(ownerId, notification, now)));
+
+        for (NotificationOutboxMessage saved : outboxRepository.saveAll(messages)) {
+            eventPublisher.publishEvent(new NotificationQueuedEvent(saved.getId(), saved.getOwnerId(), saved.getPayload()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQueued(NotificationQueuedEvent event) {
+        notificationSender.sendSerialized(event.ownerId(), event.payload());
+        delivered.add(event.outboxId());
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-ms:1000}")
+    public void relayPending() {
+        purgeDelivered();
+
+        // Свежие строки почти наверняка уже отправлены после коммита и ждут удаления
+        LocalDateTime before = LocalDateTime.now().minusNanos(graceMs * 1_000_000);
+        int total = 0;
+        while (true) {
+            Integer relayed = transactionTemplate.execute(status -> relayBatch(before));
+            if (relayed == null || relayed == 0) {
+                break;
+            }
+            total += relayed;
+            if (relayed < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Повторно доставлено уведомлений из outbox: {}", total);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purgeDelivered();
+    }
+
+    private NotificationOutboxMessage toMessage(String ownerId, NotificationResponse notification, LocalDateTime now) {
+        String messageId = UUID.randomUUID().toString();
+        return NotificationOutboxMessage.builder()
+                .messageId(messageId)
+                .ownerId(ownerId)
+                .payload(notificationSender.serialize(new WebSocketMessage.NewNotification(messageId, notification)))
+                .createdAt(now)
+                .build();
+    }
+
+    private int relayBatch(LocalDateTime before) {
+        List<NotificationOutboxMessage> batch = outboxRepository.lockPending(before, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (NotificationOutboxMessage message : batch) {
+            notificationSender.sendSerialized(message.getOwnerId(), message.getPayload());
+            ids.add(message.getId());
+        }
+        outboxRepository.deleteByIdIn(ids);
+        return batch.size();
+    }
+
+    private void purgeDelivered() {
+        while (!delivered.isEmpty()) {
+            List<Long> ids = new ArrayList<>(batchSize);
+            Long id;
+            while (ids.size() < batchSize && (id = delivered.poll()) != null) {
+                ids.add(id);
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.execute(status -> outboxRepository.deleteByIdIn(ids));
+            } catch (Exception e) {
+                // Строки останутся в outbox и будут доставлены повторно
+                log.error("Ошибка удаления доставленных сообщений outbox", e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.businessLogic.service;
+
+public record NotificationQueuedEvent(Long outboxId, String ownerId, String payload) {
+}
@@ -0,0 +1,193 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.config.NotificationRetentionProperties;
+import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.repository.NotificationRepository;
+import com.example.businessLogic.repository.NotificationRepository.ExpiredNotification;
+import com.example.businessLogic.repository.NotificationTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Удаление просроченных уведомлений всех пользователей.
+ * Каждая пачка удаляется в своей короткой транзакции; строки блокируются с SKIP LOCKED,
+ * поэтому несколько узлов могут чистить таблицу одновременно, не мешая друг другу.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationRetentionService {
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationTombstoneRepository tombstoneRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationRetentionProperties properties;
+    private final MetricsService metricsService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public long purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        for (NotificationType type : NotificationType.values()) {
+            total += purge(type, true, now);
+            total += purge(type, false, now);
+        }
+
+        if (properties.isPartitioned()) {
+            maintainPartitions(now);
+        }
+        return total;
+    }
+
+    long purge(NotificationType type, boolean read, LocalDateTime now) {
+        int ttlDays = properties.ttlDays(type, read);
+        if (ttlDays <= 0) {
+            return 0;
+        }
+
+        LocalDateTime before = now.minusDays(ttlDays);
+        LocalDateTime afterDate = KEYSET_START;
+        long afterId = 0;
+        long deleted = 0;
+
+        while (true) {
+            LocalDateTime fromDate = afterDate;
+            long fromId = afterId;
+            List<ExpiredNotification> batch = transactionTemplate.execute(
+                    status -> deleteBatch(type, read, before, fromDate, fromId));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+
+            deleted += batch.size();
+            metricsService.recordNotificationsExpired(type.name(), read, batch.size());
+
+            ExpiredNotification last = batch.get(batch.size() - 1);
+            afterDate = last.getDate();
+            afterId = last.getId();
+            if (batch.size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("Удалено просроченных уведомлений: type={}, read={}, count={}", type, read, deleted);
+        }
+        return deleted;
+    }
+
+    private List<ExpiredNotification> deleteBatch(NotificationType type, boolean read, LocalDateTime before,
+                                                  LocalDateTime afterDate, long afterId) {
+        List<ExpiredNotification> batch = notificationRepository.lockExpiredBatch(type, read, before,
+                afterDate, afterId, properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return batch;
+        }
+
+        // Счётчики владельцев блокируются до записи в журнал удалений, как и при любом другом изменении:
+        // иначе номер удаления мог бы закоммититься позже большего номера и пропасть из дельты клиента
+        Map<String, Long> readUpTo = unreadCounterService.lockReadState(
+                batch.stream().map(ExpiredNotification::getOwnerId).toList());
+        notificationRepository.deleteByIdIn(batch.stream().map(ExpiredNotification::getId).toList());
+        tombstoneRepository.insertAll(batch.stream().map(ExpiredNotification::getOwnerId).toArray(String[]::new),
+                batch.stream().map(ExpiredNotification::getId).toArray(Long[]::new), LocalDateTime.now());
+
+        if (!read) {
+            Map<String, Long> unreadByOwner = new HashMap<>();
+            for (ExpiredNotification notification : batch) {
+                // Отметка могла сдвинуться после выборки пачки - под блокировкой счётчика она точная
+                if (notification.getId() > readUpTo.getOrDefault(notification.getOwnerId(), 0L)) {
+                    unreadByOwner.merge(notification.getOwnerId(), 1L, Long::sum);
+                }
+            }
+            unreadByOwner.forEach((ownerId, count) -> unreadCounterService.adjust(ownerId, -count));
+        }
+        return batch;
+    }
+
+    /**
+     * Для секционированной таблицы: заранее создаёт месячные секции и удаляет целиком те,
+     * что старше максимального срока хранения - к этому моменту построчная очистка их уже опустошила.
+     */
+    private void maintainPartitions(LocalDateTime now) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // DDL по секциям выполняет только один узел
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(hashtext('notifications_partitions'))", Boolean.class);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+
+            YearMonth current = YearMonth.from(now);
+            for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+                YearMonth month = current.plusMonths(i);
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF notifications FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            }
+
+            int maxTtlDays = maxTtlDays();
+            if (maxTtlDays <= 0) {
+                return;
+            }
+            LocalDate dropBefore = now.toLocalDate().minusDays(maxTtlDays);
+
+            List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                    "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'notifications'::regclass", String.class);
+            for (String partition : partitions) {
+                YearMonth month = partitionMonth(partition);
+                if (month != null && !month.plusMonths(1).atDay(1).isAfter(dropBefore)) {
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                    log.info("Удалена секция уведомлений {}", partition);
+                }
+            }
+        });
+    }
+
+    // Секция содержит уведомления всех типов, поэтому удалять её можно только по самому долгому сроку
+    private int maxTtlDays() {
+        int max = 0;
+        for (NotificationType type : NotificationType.values()) {
+            for (boolean read : new boolean[]{true, false}) {
+                int ttl = properties.ttlDays(type, read);
+                if (ttl <= 0) {
+                    return 0;
+                }
+                max = Math.max(max, ttl);
+            }
+        }
+        return max;
+    }
+
+    private String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private YearMonth partitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
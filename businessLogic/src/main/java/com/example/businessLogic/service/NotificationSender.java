@@ -1,61 +1,258 @@
 package com.example.businessLogic.service;
 
+import com.example.businessLogic.config.ReadYourWrites;
+import com.example.businessLogic.dto.BulkNotificationResult;
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.AbstractWebSocketMessage;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class NotificationSender {
 
+    private static final String OUTBOUND_ATTRIBUTE = OutboundWebSocketSession.class.getName();
+
     private final ObjectMapper objectMapper;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final NotificationBus notificationBus;
+    private final MetricsService metricsService;
+    private final CompactMessageCodec compactCodec;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${notifications.ws.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
+    @Value("${notifications.ws.buffer-size-limit:524288}")
+    private int bufferSizeLimit;
+
+    @Value("${notifications.ws.overflow-policy:DROP_OLDEST}")
+    private OutboundWebSocketSession.OverflowPolicy overflowPolicy;
+
+    @Value("${notifications.ws.sender-threads:8}")
+    private int senderThreads;
+
+    private ExecutorService senderExecutor;
+    private ObjectWriter messageWriter;
+
+    @PostConstruct
+    public void start() {
+        messageWriter = objectMapper.writer();
+
+        // Очередь задач ограничена числом сессий: у каждой не больше одной задачи отправки
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("ws-sender-"));
+        executor.allowCoreThreadTimeOut(true);
+        senderExecutor = executor;
 
-    private static final Map<String, WebSocketSession> userSessions = new ConcurrentHashMap<>();
+        notificationBus.subscribe(this::deliverLocally);
+    }
+
+    @PreDestroy
+    public void stop() {
+        senderExecutor.shutdown();
+    }
 
     public void registerSession(String userId, WebSocketSession session) {
-        userSessions.put(userId, session);
+        OutboundWebSocketSession outbound = new OutboundWebSocketSession(session, senderExecutor, metricsService,
+                sendTimeLimitMs, bufferSizeLimit, overflowPolicy);
+        session.getAttributes().put(OUTBOUND_ATTRIBUTE, outbound);
+        sessionRegistry.register(userId, outbound);
+    }
+
+    /**
+     * Снимает сессию и возвращает её владельца или null, если сессия не была зарегистрирована.
+     */
+    public String removeSession(WebSocketSession session) {
+        OutboundWebSocketSession outbound = outbound(session);
+        if (outbound != null) {
+            outbound.release();
+        }
+        return sessionRegistry.unregister(session);
+    }
+
+    /**
+     * Сериализует сообщение общим ObjectWriter; одна строка JSON может уйти многим получателям.
+     */
+    public String serialize(WebSocketMessage message) {
+        try {
+            return messageWriter.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать сообщение WebSocket " + message.type(), e);
+        }
     }
 
-    public void removeSession(String userId) {
-        userSessions.remove(userId);
+    /**
+     * Отправляет сообщение во все сессии пользователя на всех узлах.
+     * Внутри транзакции и локальные сессии, и другие узлы получают его только после коммита.
+     */
+    public void sendMessage(String userId, WebSocketMessage message) {
+        sendToUsers(List.of(userId), message);
     }
 
-    public void sendNotificationToUser(String userId, Map<String, Object> notification) {
+    /**
+     * Отправляет одно сообщение многим пользователям: JSON и кадр WebSocket создаются один раз на всех.
+     */
+    public void sendToUsers(Collection<String> userIds, WebSocketMessage message) {
+        if (userIds.isEmpty()) {
+            return;
+        }
         try {
-            Map<String, Object> message = new HashMap<>();
-            message.put("type", "NEW_NOTIFICATION");
-            message.put("notification", notification);
-            sendMessage(userId, message);
+            publish(userIds, serialize(message));
         } catch (Exception e) {
-            log.error("Ошибка отправки уведомления пользователю: ", e);
+            log.error("Ошибка отправки сообщения WebSocket", e);
         }
     }
 
-    public void sendMessage(String userId, Map<String, Object> message) {
+    /**
+     * Отправляет уже сериализованное сообщение во все сессии пользователя на всех узлах.
+     */
+    public void sendSerialized(String userId, String payload) {
         try {
-            WebSocketSession session = userSessions.get(userId);
-            if (session != null && session.isOpen()) {
-                String jsonMessage = objectMapper.writeValueAsString(message);
-                session.sendMessage(new TextMessage(jsonMessage));
-            }
+            publish(List.of(userId), payload);
+        } catch (Exception e) {
+            log.error("Ошибка отправки сообщения WebSocket", e);
+        }
+    }
+
+    /**
+     * Отправляет сообщение пользователю на всех узлах и сообщает, была ли у него открытая сессия на этом узле.
+     * Отправка в сессию только ставит кадр в её очередь, поэтому цикл по получателям не ждёт медленных клиентов.
+     */
+    public BulkNotificationResult.DeliveryStatus deliver(String userId, WebSocketMessage message) {
+        boolean connected = sessionRegistry.getSessions(userId).stream().anyMatch(WebSocketSession::isOpen);
+        try {
+            publish(List.of(userId), serialize(message));
+        } catch (Exception e) {
+            log.error("Ошибка отправки сообщения WebSocket пользователю {}", userId, e);
+            return BulkNotificationResult.DeliveryStatus.FAILED;
+        }
+        return connected ? BulkNotificationResult.DeliveryStatus.DELIVERED : BulkNotificationResult.DeliveryStatus.STORED;
+    }
+
+    /**
+     * Отправляет сообщение только в указанную сессию текущего узла.
+     */
+    public void sendToSession(WebSocketSession session, WebSocketMessage message) {
+        try {
+            WebSocketSession outbound = outbound(session);
+            send(outbound != null ? outbound : session, new Frames(serialize(message)).forSession(session));
         } catch (Exception e) {
             log.error("Ошибка отправки сообщения WebSocket", e);
         }
     }
 
+    /**
+     * Отмечает, что от клиента пришёл кадр: сессия жива и не будет закрыта по таймауту.
+     */
+    public void markAlive(WebSocketSession session) {
+        OutboundWebSocketSession outbound = outbound(session);
+        if (outbound != null) {
+            outbound.markAlive();
+        }
+    }
+
     public String findUserIdBySession(WebSocketSession session) {
-        return userSessions.entrySet().stream()
-                .filter(e -> e.getValue().equals(session))
-                .map(Map.Entry::getKey)
-                .findFirst()
-                .orElse(null);
+        return sessionRegistry.getUserId(session);
+    }
+
+    /**
+     * Локальная доставка и NOTIFY другим узлам выполняются вместе и только после коммита:
+     * при откате сообщение не увидит никто, а не только другие узлы.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPublish(WebSocketPublishEvent event) {
+        try {
+            notificationBus.publish(event.userIds(), event.payload());
+        } catch (Exception e) {
+            log.error("Ошибка отправки сообщения WebSocket: users={}", event.userIds().size(), e);
+        }
+    }
+
+    private void publish(Collection<String> userIds, String payload) {
+        eventPublisher.publishEvent(new WebSocketPublishEvent(userIds, payload));
+    }
+
+    private void deliverLocally(Collection<String> userIds, String payload) {
+        // Один кадр каждой кодировки на все сессии всех получателей: байты кадра не копируются
+        Frames frames = new Frames(payload);
+        for (String userId : userIds) {
+            for (WebSocketSession session : sessionRegistry.getSessions(userId)) {
+                // Сообщение шины - результат записи, возможно сделанной другим узлом или слушателем:
+                // следующие чтения этой сессии идут в основную БД, пока реплика её не получит
+                ReadYourWrites.markSession(session.getAttributes());
+                send(session, frames.forSession(session));
+            }
+        }
+    }
+
+    private OutboundWebSocketSession outbound(WebSocketSession session) {
+        return (OutboundWebSocketSession) session.getAttributes().get(OUTBOUND_ATTRIBUTE);
+    }
+
+    private void send(WebSocketSession session, AbstractWebSocketMessage<?> message) {
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            session.sendMessage(message);
+        } catch (Exception e) {
+            log.error("Ошибка отправки сообщения в сессию {}", session.getId(), e);
+        }
+    }
+
+    /**
+     * Кадры одного сообщения в обеих кодировках, каждый создаётся при первой сессии, которой он нужен.
+     */
+    private final class Frames {
+
+        private final String payload;
+        private TextMessage text;
+        private BinaryMessage binary;
+
+        private Frames(String payload) {
+            this.payload = payload;
+        }
+
+        private AbstractWebSocketMessage<?> forSession(WebSocketSession session) {
+            if (CompactMessageCodec.isCompact(session)) {
+                if (binary == null) {
+                    long started = System.nanoTime();
+                    byte[] bytes = compactCodec.encode(payload);
+                    metricsService.recordWebSocketFrameEncoded("compact", bytes.length, System.nanoTime() - started);
+                    binary = new BinaryMessage(bytes);
+                }
+                return binary;
+            }
+            if (text == null) {
+                long started = System.nanoTime();
+                text = new TextMessage(payload);
+                int bytes = text.getPayloadLength();
+                metricsService.recordWebSocketFrameEncoded("json", bytes, System.nanoTime() - started);
+            }
+            return text;
+        }
     }
 }
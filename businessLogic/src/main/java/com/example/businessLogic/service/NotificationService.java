@@ -1,17 +1,34 @@
 package com.example.businessLogic.service;
 
+import com.example.businessLogic.dto.BulkNotificationResult;
+import com.example.businessLogic.dto.NotificationPage;
 import com.example.businessLogic.dto.NotificationRequest;
 import com.example.businessLogic.dto.NotificationResponse;
+import com.example.businessLogic.dto.NotificationSyncResponse;
+import com.example.businessLogic.dto.WebSocketMessage;
 import com.example.businessLogic.entity.Notification;
-import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.entity.NotificationTombstone;
 import com.example.businessLogic.repository.NotificationRepository;
+import com.example.businessLogic.repository.NotificationTombstoneRepository;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,41 +38,202 @@ import java.util.Map;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationTombstoneRepository tombstoneRepository;
     private final NotificationSender notificationSender;
+    private final NotificationOutboxService notificationOutboxService;
+    private final UnreadCounterService unreadCounterService;
+    private final TransactionTemplate transactionTemplate;
 
+    @Value("${notifications.sync.page-size:50}")
+    private int syncPageSize;
+
+    @Value("${notifications.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${notifications.bulk.batch-size:1000}")
+    private int bulkBatchSize;
+
+    @Value("${notifications.sync.tombstone-retention-hours:72}")
+    private int tombstoneRetentionHours;
+
+    @Transactional(readOnly = true)
     public List<NotificationResponse> getUserNotifications(String ownerId) {
         if (ownerId == null || ownerId.isEmpty()) {
             throw new NullPointerException("OwnerId не может быть пустым");
         }
 
         List<Notification> notifications = notificationRepository.findByOwnerIdOrderByDateDesc(ownerId);
+        long readUpTo = unreadCounterService.getReadUpToId(ownerId);
 
         return notifications.stream()
-                .map(this::convertToResponse)
+                .map(notification -> convertToResponse(notification, readUpTo))
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<NotificationResponse> getUnreadNotifications(String ownerId) {
         if (ownerId == null || ownerId.isEmpty()) {
             throw new NullPointerException("OwnerId не может быть пустым");
         }
 
-        List<Notification> notifications = notificationRepository.findByOwnerIdAndIsReadFalseOrderByDateDesc(ownerId);
+        List<Notification> notifications = notificationRepository.findUnreadAbove(ownerId,
+                unreadCounterService.getReadUpToId(ownerId));
 
         return notifications.stream()
                 .map(this::convertToResponse)
                 .toList();
     }
 
-    @Transactional(readOnly = true)
     public long getUnreadCount(String ownerId) {
         if (ownerId == null || ownerId.isEmpty()) {
             throw new NullPointerException("OwnerId не может быть пустым");
         }
 
-        return notificationRepository.countByOwnerIdAndIsReadFalse(ownerId);
+        return unreadCounterService.getUnreadCount(ownerId);
     }
 
+    /**
+     * Keyset-страница уведомлений от новых к старым по (date, id).
+     * cursor - nextCursor предыдущей страницы или null для первой; limit ограничивается сверху.
+     */
+    @Transactional(readOnly = true)
+    public NotificationPage getNotificationsPage(String ownerId, String cursor, int limit, boolean unreadOnly) {
+        if (ownerId == null || ownerId.isEmpty()) {
+            throw new NullPointerException("OwnerId не может быть пустым");
+        }
+
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        PageRequest pageable = PageRequest.of(0, size + 1);
+        PageCursor from = PageCursor.decode(cursor);
+        long readUpTo = unreadCounterService.getReadUpToId(ownerId);
+
+        List<Notification> rows;
+        if (from == null) {
+            rows = unreadOnly
+                    ? notificationRepository.findFirstUnreadPage(ownerId, readUpTo, pageable)
+                    : notificationRepository.findFirstPage(ownerId, pageable);
+        } else {
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadPageBefore(ownerId, readUpTo, from.date(), from.id(), pageable)
+                    : notificationRepository.findPageBefore(ownerId, from.date(), from.id(), pageable);
+        }
+
+        // Лишняя строка только показывает, что страница не последняя
+        boolean hasMore = rows.size() > size;
+        List<Notification> page = hasMore ? rows.subList(0, size) : rows;
+        Notification last = hasMore ? page.get(size - 1) : null;
+
+        return NotificationPage.builder()
+                .items(page.stream().map(notification -> convertToResponse(notification, readUpTo)).toList())
+                .nextCursor(last != null ? new PageCursor(last.getDate(), last.getId()).encode() : null)
+                .build();
+    }
+
+    /**
+     * Синхронизация при подключении: по курсору отдаёт изменившиеся и удалённые уведомления,
+     * без курсора, при слишком большом отставании или после «удалить все»/«отметить все» - первую страницу.
+     * Курсор - номер из notification_changes_seq. Все изменения уведомлений владельца идут под блокировкой
+     * его счётчика (lockReadState), поэтому номера одного владельца коммитятся в порядке возрастания.
+     */
+    @Transactional
+    public NotificationSyncResponse sync(String ownerId, String cursor) {
+        if (ownerId == null || ownerId.isEmpty()) {
+            throw new NullPointerException("OwnerId не может быть пустым");
+        }
+
+        Long from = parseSyncCursor(cursor);
+        if (from != null) {
+            NotificationSyncResponse delta = delta(ownerId, from);
+            if (delta != null) {
+                return delta;
+            }
+        }
+
+        // Курсор снимка читается до страницы: изменение между ними клиент получит ещё раз, но не потеряет
+        long latest = Math.max(notificationRepository.findLastChangeSeq(ownerId),
+                tombstoneRepository.findLastId(ownerId));
+        List<Notification> page = notificationRepository.findFirstPage(ownerId, PageRequest.of(0, syncPageSize + 1));
+        boolean hasMore = page.size() > syncPageSize;
+
+        return syncResponse(ownerId, true, hasMore ? page.subList(0, syncPageSize) : page, List.of(), hasMore,
+                latest > 0 ? latest : null);
+    }
+
+    // null - дельту отдать нельзя, клиенту нужен снимок
+    private NotificationSyncResponse delta(String ownerId, long from) {
+        PageRequest limit = PageRequest.of(0, syncPageSize + 1);
+        List<NotificationTombstone> removed = tombstoneRepository.findAfter(ownerId, from, limit);
+        // Журнал удалений за курсором клиента уже очищен - удаления могли потеряться
+        if (removed.size() > syncPageSize || from + 1 < tombstoneRepository.findOldestId()
+                || removed.stream().anyMatch(tombstone -> tombstone.getNotificationId() == null)) {
+            return null;
+        }
+        List<Notification> changed = notificationRepository.findChangedAfter(ownerId, from, limit);
+        if (changed.size() > syncPageSize) {
+            return null;
+        }
+
+        long next = from;
+        if (!changed.isEmpty()) {
+            next = Math.max(next, changed.get(changed.size() - 1).getChangeSeq());
+        }
+        if (!removed.isEmpty()) {
+            next = Math.max(next, removed.get(removed.size() - 1).getId());
+        }
+        return syncResponse(ownerId, false, changed,
+                removed.stream().map(NotificationTombstone::getNotificationId).toList(), false, next);
+    }
+
+    /**
+     * Страница уведомлений, более старых чем уведомление beforeId.
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getOlderNotifications(String ownerId, Long beforeId) {
+        if (ownerId == null || ownerId.isEmpty() || beforeId == null) {
+            throw new NullPointerException("ownerId и beforeId не могут быть null");
+        }
+
+        Notification anchor = notificationRepository.findById(beforeId)
+                .filter(notification -> ownerId.equals(notification.getOwnerId()))
+                .orElseThrow(() -> new EntityNotFoundException("Notification not found with id: " + beforeId));
+
+        long readUpTo = unreadCounterService.getReadUpToId(ownerId);
+        return notificationRepository.findPageBefore(ownerId, anchor.getDate(), anchor.getId(),
+                        PageRequest.of(0, syncPageSize))
+                .stream()
+                .map(notification -> convertToResponse(notification, readUpTo))
+                .toList();
+    }
+
+    /**
+     * Удаляет уведомления, найденные другими сервисами (приглашения, заявки в контакты), с поправкой счётчиков.
+     */
+    @Transactional
+    public void discard(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Map<String, Long> readUpTo = unreadCounterService.lockReadState(
+                notifications.stream().map(Notification::getOwnerId).toList());
+        // Один DELETE вместо загрузки и удаления каждой сущности
+        notificationRepository.deleteByIdIn(notifications.stream().map(Notification::getId).toList());
+        tombstoneRepository.insertAll(notifications.stream().map(Notification::getOwnerId).toArray(String[]::new),
+                notifications.stream().map(Notification::getId).toArray(Long[]::new), LocalDateTime.now());
+
+        Map<String, Long> unreadByOwner = new HashMap<>();
+        for (Notification notification : notifications) {
+            if (!isRead(notification, readUpTo.getOrDefault(notification.getOwnerId(), 0L))) {
+                unreadByOwner.merge(notification.getOwnerId(), 1L, Long::sum);
+            }
+        }
+        unreadByOwner.forEach((ownerId, unread) -> unreadCounterService.adjust(ownerId, -unread));
+    }
+
+    public WebSocketMessage toSyncMessage(NotificationSyncResponse sync) {
+        return WebSocketMessage.NotificationsSync.of(sync);
+    }
+
+    @Transactional
     public void sendNotification(String ownerId, NotificationRequest request) {
         if (ownerId == null || ownerId.isEmpty()) {
             throw new NullPointerException("OwnerId не может быть пустым");
@@ -69,13 +247,104 @@ public class NotificationService {
                 .type(request.getType())
                 .isRead(false)
                 .invitationId(request.getInvitationId())
+                .groupCount(request.getCount())
+                .referenceIds(request.getReferenceIds() != null && !request.getReferenceIds().isEmpty()
+                        ? String.join(",", request.getReferenceIds()) : null)
                 .build();
 
+        // Блокировка счётчика до вставки: «отметить все» не сдвинет отметку за ещё не закоммиченную строку
+        unreadCounterService.lockReadState(ownerId);
         Notification saved = notificationRepository.save(notification);
         log.info("Уведомление создано: id={}, ownerId={}, type={}", saved.getId(), saved.getOwnerId(), saved.getType());
+        unreadCounterService.adjust(ownerId, 1);
+
+        notificationOutboxService.enqueue(ownerId, convertToResponse(saved));
+    }
+
+    /**
+     * Одно уведомление многим получателям: строки пишутся многострочными вставками по bulkBatchSize,
+     * счётчики меняются одним запросом на пачку, после коммита сообщения расходятся по сессиям получателей.
+     * Outbox не используется, доставка без повторов: получатель, не получивший сообщение,
+     * увидит уведомление при синхронизации.
+     */
+    public BulkNotificationResult sendBulkNotification(Collection<String> ownerIds, NotificationRequest request) {
+        List<String> owners = ownerIds.stream()
+                .filter(ownerId -> ownerId != null && !ownerId.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+        if (owners.isEmpty()) {
+            return BulkNotificationResult.of(Map.of());
+        }
 
-        Map<String, Object> wsNotification = convertToWebSocketMessage(saved);
-        notificationSender.sendNotificationToUser(ownerId, wsNotification);
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> created = transactionTemplate.execute(status -> {
+            List<Notification> rows = new ArrayList<>(owners.size());
+            for (int from = 0; from < owners.size(); from += bulkBatchSize) {
+                List<String> batch = owners.subList(from, Math.min(from + bulkBatchSize, owners.size()));
+                unreadCounterService.lockReadState(batch);
+                for (NotificationRepository.CreatedNotification row : notificationRepository.insertForOwners(
+                        batch.toArray(String[]::new), request.getType(), request.getTitle(),
+                        request.getMessage(), request.getSenderId(), now)) {
+                    rows.add(Notification.builder()
+                            .id(row.getId())
+                            .ownerId(row.getOwnerId())
+                            .type(request.getType())
+                            .title(request.getTitle())
+                            .message(request.getMessage())
+                            .senderId(request.getSenderId())
+                            .isRead(false)
+                            .date(now)
+                            .updatedAt(now)
+                            .build());
+                }
+                unreadCounterService.adjustAll(batch, 1);
+            }
+            return rows;
+        });
+        log.info("Массовое уведомление создано: recipients={}, type={}", created.size(), request.getType());
+
+        Map<String, BulkNotificationResult.DeliveryStatus> statuses = new LinkedHashMap<>();
+        for (Notification notification : created) {
+            statuses.put(notification.getOwnerId(), notificationSender.deliver(notification.getOwnerId(),
+                    new WebSocketMessage.NewNotification(null, convertToResponse(notification))));
+        }
+        return BulkNotificationResult.of(statuses);
+    }
+
+    /**
+     * Уведомления о приглашениях, у каждого получателя своё: одна вставка в транзакции вызывающего кода
+     * (ключи invitationByOwner различны). Сообщения пишутся в outbox и расходятся по сессиям только после коммита.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendInvitationNotifications(Map<String, Long> invitationByOwner, NotificationRequest request) {
+        if (invitationByOwner.isEmpty()) {
+            return;
+        }
+
+        List<String> owners = invitationByOwner.keySet().stream().sorted().toList();
+        LocalDateTime now = LocalDateTime.now();
+        unreadCounterService.lockReadState(owners);
+        Map<String, NotificationResponse> created = new LinkedHashMap<>();
+        for (NotificationRepository.CreatedNotification row : notificationRepository.insertInvitationsForOwners(
+                owners.toArray(String[]::new), owners.stream().map(invitationByOwner::get).toArray(Long[]::new),
+                request.getType(), request.getTitle(), request.getMessage(), request.getSenderId(), now)) {
+            created.put(row.getOwnerId(), convertToResponse(Notification.builder()
+                    .id(row.getId())
+                    .ownerId(row.getOwnerId())
+                    .type(request.getType())
+                    .title(request.getTitle())
+                    .message(request.getMessage())
+                    .senderId(request.getSenderId())
+                    .invitationId(invitationByOwner.get(row.getOwnerId()))
+                    .isRead(false)
+                    .date(now)
+                    .updatedAt(now)
+                    .build()));
+        }
+        unreadCounterService.adjustAll(owners, 1);
+
+        notificationOutboxService.enqueueAll(created);
     }
 
     @Transactional
@@ -84,14 +353,12 @@ public class NotificationService {
             throw new NullPointerException("ownerId и notificationId не могут быть null");
         }
 
-        notificationRepository.markAsRead(notificationId, ownerId);
+        long readUpTo = unreadCounterService.lockReadState(ownerId);
+        int updated = notificationRepository.markAsRead(notificationId, ownerId, readUpTo, LocalDateTime.now());
+        unreadCounterService.adjust(ownerId, -updated);
         log.info("Уведомление {} отмечено как прочитанное пользователем {}", notificationId, ownerId);
 
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", NotificationType.NOTIFICATION_READ);
-        message.put("notificationId", notificationId);
-        message.put("isRead", true);
-        notificationSender.sendMessage(ownerId, message);
+        notificationSender.sendMessage(ownerId, new WebSocketMessage.NotificationRead(notificationId, true));
     }
 
     @Transactional
@@ -100,14 +367,14 @@ public class NotificationService {
             throw new NullPointerException("ownerId не может быть null");
         }
 
-        notificationRepository.markAllAsRead(ownerId);
+        // Одна строка счётчика вместо UPDATE всех уведомлений пользователя; строки не меняются,
+        // поэтому синхронизация по отметке сброса отдаст клиенту снимок
+        unreadCounterService.markAllRead(ownerId);
+        recordReset(ownerId);
         log.info("Все уведомления отмечены как прочитанные пользователем {}", ownerId);
 
-        List<NotificationResponse> notifications = getUserNotifications(ownerId);
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", NotificationType.NOTIFICATIONS_LIST);
-        message.put("notifications", notifications);
-        notificationSender.sendMessage(ownerId, message);
+        // Клиенту достаточно пометить свой список, перечитывать его не нужно
+        notificationSender.sendMessage(ownerId, new WebSocketMessage.AllNotificationsRead());
     }
 
     @Transactional
@@ -116,13 +383,16 @@ public class NotificationService {
             throw new NullPointerException("ownerId и notificationId не могут быть null");
         }
 
-        notificationRepository.deleteByOwnerIdAndId(ownerId, notificationId);
+        long readUpTo = unreadCounterService.lockReadState(ownerId);
+        int unread = notificationRepository.deleteUnreadByOwnerIdAndId(ownerId, notificationId, readUpTo);
+        int deleted = unread > 0 ? unread : notificationRepository.deleteByOwnerIdAndId(ownerId, notificationId);
+        if (deleted > 0) {
+            tombstoneRepository.save(tombstone(ownerId, notificationId));
+        }
+        unreadCounterService.adjust(ownerId, -unread);
         log.info("Уведомление {} удалено пользователем {}", notificationId, ownerId);
 
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", NotificationType.NOTIFICATION_DELETED);
-        message.put("notificationId", notificationId);
-        notificationSender.sendMessage(ownerId, message);
+        notificationSender.sendMessage(ownerId, new WebSocketMessage.NotificationDeleted(notificationId));
     }
 
     @Transactional
@@ -131,13 +401,15 @@ public class NotificationService {
             throw new NullPointerException("ownerId не может быть null");
         }
 
+        int unread = notificationRepository.deleteUnreadByOwnerId(ownerId, unreadCounterService.lockReadState(ownerId));
         notificationRepository.deleteAllByOwnerId(ownerId);
+        recordReset(ownerId);
+        unreadCounterService.adjust(ownerId, -unread);
         log.info("Все уведомления удалены для пользователя {}", ownerId);
 
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", NotificationType.NOTIFICATIONS_LIST);
-        message.put("notifications", List.of());
-        notificationSender.sendMessage(ownerId, message);
+        // Пустой снимок: клиент очищает список и сбрасывает курсор синхронизации
+        notificationSender.sendMessage(ownerId,
+                new WebSocketMessage.NotificationsSync("NOTIFICATIONS_LIST", List.of(), List.of(), false, null, 0, 0));
     }
 
     @Transactional
@@ -147,40 +419,120 @@ public class NotificationService {
         }
 
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        int unread = notificationRepository.deleteOldUnreadNotifications(ownerId,
+                unreadCounterService.lockReadState(ownerId), thirtyDaysAgo);
         notificationRepository.deleteOldNotifications(ownerId, thirtyDaysAgo);
+        recordReset(ownerId);
+        unreadCounterService.adjust(ownerId, -unread);
         log.info("Старые уведомления очищены для пользователя {}", ownerId);
 
-        List<NotificationResponse> notifications = getUserNotifications(ownerId);
+        notificationSender.sendMessage(ownerId, toSyncMessage(sync(ownerId, null)));
+    }
+
+    /**
+     * Очистка журнала удалений: клиент, отставший больше срока хранения, получит снимок.
+     */
+    @Scheduled(cron = "${notifications.sync.tombstone-cleanup-cron:0 40 * * * *}")
+    @Transactional
+    public void cleanupTombstones() {
+        int deleted = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusHours(tombstoneRetentionHours));
+        if (deleted > 0) {
+            log.info("Удалено записей журнала удалений уведомлений: {}", deleted);
+        }
+    }
+
+    // Отметка сброса: всё, что клиент знал до неё, недействительно
+    private void recordReset(String ownerId) {
+        tombstoneRepository.save(tombstone(ownerId, null));
+    }
 
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", NotificationType.NOTIFICATIONS_LIST);
-        message.put("notifications", notifications);
-        notificationSender.sendMessage(ownerId, message);
+    private NotificationTombstone tombstone(String ownerId, Long notificationId) {
+        return NotificationTombstone.builder()
+                .ownerId(ownerId)
+                .notificationId(notificationId)
+                .createdAt(LocalDateTime.now())
+                .build();
     }
 
+    private NotificationSyncResponse syncResponse(String ownerId, boolean snapshot, List<Notification> notifications,
+                                                  List<Long> deletedIds, boolean hasMore, Long cursor) {
+        long readUpTo = unreadCounterService.getReadUpToId(ownerId);
+        return NotificationSyncResponse.builder()
+                .snapshot(snapshot)
+                .notifications(notifications.stream()
+                        .map(notification -> convertToResponse(notification, readUpTo))
+                        .toList())
+                .deletedIds(deletedIds)
+                .hasMore(hasMore)
+                .cursor(cursor != null ? cursor.toString() : null)
+                .unreadCount(unreadCounterService.getUnreadCount(ownerId))
+                .totalCount(notificationRepository.countByOwnerId(ownerId))
+                .build();
+    }
+
+    // Для только что созданных уведомлений: их id выше любой отметки «прочитано до»
     private NotificationResponse convertToResponse(Notification notification) {
+        return convertToResponse(notification, 0L);
+    }
+
+    private NotificationResponse convertToResponse(Notification notification, long readUpTo) {
         return NotificationResponse.builder()
                 .id(notification.getId())
                 .title(notification.getTitle())
                 .message(notification.getMessage())
                 .senderId(notification.getSenderId())
                 .type(notification.getType())
-                .isRead(notification.getIsRead())
+                .isRead(isRead(notification, readUpTo))
                 .date(notification.getDate())
                 .invitationId(notification.getInvitationId())
+                .count(notification.getGroupCount())
+                .referenceIds(splitReferenceIds(notification.getReferenceIds()))
                 .build();
     }
 
-    private Map<String, Object> convertToWebSocketMessage(Notification notification) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("id", notification.getId());
-        message.put("title", notification.getTitle());
-        message.put("message", notification.getMessage());
-        message.put("senderId", notification.getSenderId());
-        message.put("type", notification.getType());
-        message.put("isRead", notification.getIsRead());
-        message.put("date", notification.getDate());
-        message.put("invitationId", notification.getInvitationId());
-        return message;
+    private boolean isRead(Notification notification, long readUpTo) {
+        return Boolean.TRUE.equals(notification.getIsRead())
+                || (notification.getId() != null && notification.getId() <= readUpTo);
+    }
+
+    private List<String> splitReferenceIds(String referenceIds) {
+        return referenceIds == null || referenceIds.isEmpty() ? null : List.of(referenceIds.split(","));
+    }
+
+    // Испорченный курсор или курсор старого формата - клиент получит снимок
+    private static Long parseSyncCursor(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Позиция в выдаче страниц: (date, id) последнего элемента, для клиента - непрозрачный токен.
+     */
+    record PageCursor(LocalDateTime date, long id) {
+
+        static PageCursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = value.lastIndexOf('_');
+                return new PageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Некорректный курсор страницы");
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((date + "_" + id).getBytes(StandardCharsets.UTF_8));
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,67 +1,119 @@
 package com.example.businessLogic.service;
 
+import com.example.businessLogic.config.ReadYourWrites;
+import com.example.businessLogic.config.WebSocketAuthInterceptor;
+import com.example.businessLogic.dto.WebSocketMessage;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Component
 public class NotificationWebSocketHandler extends TextWebSocketHandler {
 
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+    private static final Set<String> WRITE_TYPES = Set.of(
+            "MARK_AS_READ", "MARK_ALL_AS_READ", "DELETE_NOTIFICATION", "DELETE_ALL_NOTIFICATIONS");
+    // Снимок или дельта уже отправлены при подключении, повторный запрос без курсора не нужен
+    private static final String CONNECT_SYNC_ATTRIBUTE = "notifications.connectSync";
+
     private final ObjectMapper objectMapper;
     private final NotificationService notificationService;
     private final NotificationSender notificationSender;
+    private final TaskEventPublisher taskEventPublisher;
+    private final MetricsService metricsService;
 
-    public NotificationWebSocketHandler(NotificationService service, NotificationSender sender) {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+    public NotificationWebSocketHandler(ObjectMapper objectMapper, NotificationService service,
+                                        NotificationSender sender, TaskEventPublisher taskEventPublisher,
+                                        MetricsService metricsService) {
+        this.objectMapper = objectMapper;
         this.notificationService = service;
         this.notificationSender = sender;
+        this.taskEventPublisher = taskEventPublisher;
+        this.metricsService = metricsService;
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws IOException {
-        String userId = session.getUri().getQuery().split("=")[1];
+        // Пользователя привязал WebSocketAuthInterceptor при рукопожатии, userId из URI больше не читается
+        String userId = boundUserId(session);
 
         if (userId != null) {
             notificationSender.registerSession(userId, session);
-
-            Map<String, Object> notification = createMessage("NOTIFICATIONS_LIST",
-                    notificationService.getUserNotifications(userId));
-
-            notificationSender.sendMessage(userId, notification);
+            metricsService.recordWebSocketConnectionOpened(
+                    CompactMessageCodec.isCompact(session) ? "compact" : "json",
+                    session.getExtensions().stream().anyMatch(e -> PERMESSAGE_DEFLATE.equals(e.getName())));
+
+            // Клиент с курсором получает только изменения с прошлого подключения
+            MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+            ReadYourWrites.bind(ReadYourWrites.sessionMark(session.getAttributes()));
+            try {
+                notificationSender.sendToSession(session, notificationService.toSyncMessage(
+                        notificationService.sync(userId, queryParam(params, "cursor"))));
+                session.getAttributes().put(CONNECT_SYNC_ATTRIBUTE, Boolean.TRUE);
+            } finally {
+                ReadYourWrites.clear();
+            }
         } else {
-            log.warn("userId не найден в URI для сессии: {}", session.getId());
-            session.close();
+            log.warn("Пользователь не привязан к WebSocket-сессии: {}", session.getId());
+            session.close(CloseStatus.POLICY_VIOLATION);
         }
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        notificationSender.markAlive(session);
         try {
             Map<String, Object> data = objectMapper.readValue(message.getPayload(), new TypeReference<>() {});
 
             String type = (String) data.get("type");
-            String userId = (String) data.get("userId");
+            String userId = boundUserId(session);
+            Object claimedUserId = data.get("userId");
 
-            if (userId == null || userId.isEmpty()) {
-                log.warn("userId отсутствует в сообщении типа {}", type);
+            if (userId == null) {
+                log.warn("Сообщение типа {} из непривязанной сессии {}", type, session.getId());
                 return;
             }
+            // Старые клиенты ещё присылают userId в кадре: чужой id означает подмену, кадр отбрасывается
+            if (claimedUserId != null && !userId.equals(claimedUserId)) {
+                log.warn("userId в сообщении типа {} не совпадает с пользователем сессии {}", type, session.getId());
+                return;
+            }
+
+            // Метка записи живёт в сессии: её чтения после собственных изменений не уходят на отстающую реплику
+            if (WRITE_TYPES.contains(type)) {
+                ReadYourWrites.markSession(session.getAttributes());
+            }
+            ReadYourWrites.bind(ReadYourWrites.sessionMark(session.getAttributes()));
 
             switch (type) {
                 case "GET_NOTIFICATIONS":
-                    notificationService.getUserNotifications(userId);
+                    // Клиенты без курсора шлют GET_NOTIFICATIONS на каждом открытии сокета: первый такой запрос
+                    // повторил бы полный снимок подключения, поэтому пропускается
+                    if (data.get("cursor") == null && session.getAttributes().remove(CONNECT_SYNC_ATTRIBUTE) != null) {
+                        break;
+                    }
+                case "SYNC_NOTIFICATIONS":
+                    notificationSender.sendToSession(session,
+                            notificationService.toSyncMessage(notificationService.sync(userId, (String) data.get("cursor"))));
+                    break;
+                case "GET_OLDER_NOTIFICATIONS":
+                    notificationSender.sendToSession(session, new WebSocketMessage.NotificationsPage(
+                            notificationService.getOlderNotifications(userId, ((Number) data.get("beforeId")).longValue())));
                     break;
                 case "MARK_AS_READ":
                     notificationService.markAsRead(((Number) data.get("notificationId")).longValue(), userId);
@@ -75,38 +127,46 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
                 case "DELETE_ALL_NOTIFICATIONS":
                     notificationService.deleteAllNotifications(userId);
                     break;
+                case "RESUME_TASK_EVENTS":
+                    Number lastEventId = (Number) data.get("lastEventId");
+                    taskEventPublisher.resume(userId, (String) data.get("projectId"),
+                            lastEventId != null ? lastEventId.longValue() : 0L);
+                    break;
                 case "PING":
-                    notificationSender.sendMessage(userId, createMessage("PONG", null));
+                    notificationSender.sendToSession(session, new WebSocketMessage.Pong());
                     break;
                 default:
                     log.warn("Неизвестный тип сообщения: {}", type);
             }
         } catch (Exception e) {
             log.error("Ошибка обработки сообщения WebSocket", e);
+        } finally {
+            ReadYourWrites.clear();
         }
     }
 
+    @Override
+    protected void handlePongMessage(WebSocketSession session, PongMessage message) {
+        notificationSender.markAlive(session);
+    }
+
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        String userId = notificationSender.findUserIdBySession(session);
+        // Сессию мог уже снять reaper, но закрытие контейнер сообщает один раз, поэтому метрика считается здесь
+        String userId = notificationSender.removeSession(session);
+        metricsService.recordWebSocketConnectionClosed(status.getCode());
 
         if (userId != null) {
-            notificationSender.removeSession(userId);
             log.info("Пользователь отключился: userId={}", userId);
         }
     }
 
-    private Map<String, Object> createMessage(String type, Object data) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", type);
-        if (data != null) {
-            if (type.equals("NEW_NOTIFICATION")) {
-                message.put("notification", data);
-            } else {
-                message.put("data", data);
-            }
-        }
+    private String boundUserId(WebSocketSession session) {
+        return (String) session.getAttributes().get(WebSocketAuthInterceptor.USER_ID_ATTRIBUTE);
+    }
 
-        return message;
+    private String queryParam(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        return value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : null;
     }
-}
\ No newline at end of file
+}
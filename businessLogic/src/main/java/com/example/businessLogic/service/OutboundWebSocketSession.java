@@ -0,0 +1,181 @@
+package com.example.businessLogic.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Сессия с ограниченной очередью исходящих сообщений.
+ * sendMessage только ставит сообщение в очередь, запись в сокет выполняет поток отправки,
+ * поэтому медленный клиент не задерживает вызывающий поток, а в сессию пишет не больше одного потока сразу.
+ */
+@Slf4j
+public class OutboundWebSocketSession extends WebSocketSessionDecorator {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DISCONNECT
+    }
+
+    private final Executor executor;
+    private final MetricsService metricsService;
+    private final long sendTimeLimitMs;
+    private final int bufferSizeLimit;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Deque<WebSocketMessage<?>> queue = new ArrayDeque<>();
+    private int queuedBytes;
+    private boolean draining;
+    private boolean released;
+    private volatile long sendStartedAt;
+    // Время последнего кадра от клиента (сообщение или pong), по нему находятся мёртвые сессии
+    private volatile long lastSeenAt = System.currentTimeMillis();
+
+    public OutboundWebSocketSession(WebSocketSession delegate, Executor executor, MetricsService metricsService,
+                                    long sendTimeLimitMs, int bufferSizeLimit, OverflowPolicy overflowPolicy) {
+        super(delegate);
+        this.executor = executor;
+        this.metricsService = metricsService;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        String terminateReason = null;
+        boolean startDrain = false;
+
+        synchronized (queue) {
+            if (released) {
+                return;
+            }
+            long started = sendStartedAt;
+            if (started != 0 && System.currentTimeMillis() - started > sendTimeLimitMs) {
+                terminateReason = "send_timeout";
+            } else {
+                enqueue(message);
+                if (queuedBytes > bufferSizeLimit) {
+                    if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                        terminateReason = "buffer_overflow";
+                    } else {
+                        // Самое свежее сообщение оставляем, даже если оно одно больше лимита
+                        while (queuedBytes > bufferSizeLimit && queue.size() > 1) {
+                            dequeue();
+                            metricsService.recordWebSocketMessageDropped();
+                        }
+                    }
+                }
+            }
+            if (terminateReason == null && !draining) {
+                draining = true;
+                startDrain = true;
+            }
+        }
+
+        if (terminateReason != null) {
+            terminate(terminateReason);
+        } else if (startDrain) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                terminate("rejected");
+            }
+        }
+    }
+
+    public int getQueuedBytes() {
+        synchronized (queue) {
+            return queuedBytes;
+        }
+    }
+
+    public void markAlive() {
+        lastSeenAt = System.currentTimeMillis();
+    }
+
+    public long getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    /**
+     * Освобождает очередь закрытой сессии без попытки отправки.
+     */
+    public void release() {
+        releaseQueue();
+    }
+
+    private void drain() {
+        while (true) {
+            WebSocketMessage<?> message;
+            synchronized (queue) {
+                message = queue.isEmpty() || released ? null : dequeue();
+                if (message == null) {
+                    draining = false;
+                    return;
+                }
+            }
+
+            sendStartedAt = System.currentTimeMillis();
+            try {
+                getDelegate().sendMessage(message);
+            } catch (Exception e) {
+                log.warn("Ошибка записи в WebSocket-сессию {}: {}", getId(), e.getMessage());
+                terminate("send_error");
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+    }
+
+    private void enqueue(WebSocketMessage<?> message) {
+        queue.addLast(message);
+        queuedBytes += message.getPayloadLength();
+        metricsService.recordWebSocketMessageQueued(message.getPayloadLength());
+    }
+
+    private WebSocketMessage<?> dequeue() {
+        WebSocketMessage<?> message = queue.pollFirst();
+        queuedBytes -= message.getPayloadLength();
+        metricsService.recordWebSocketMessageDequeued(message.getPayloadLength());
+        return message;
+    }
+
+    private boolean releaseQueue() {
+        synchronized (queue) {
+            if (released) {
+                return false;
+            }
+            released = true;
+            while (!queue.isEmpty()) {
+                dequeue();
+                metricsService.recordWebSocketMessageDropped();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Сбрасывает очередь и закрывает сессию как ненадёжную; повторный вызов ничего не делает.
+     */
+    void terminate(String reason) {
+        if (!releaseQueue()) {
+            return;
+        }
+        metricsService.recordWebSocketSessionTerminated(reason);
+        log.warn("WebSocket-сессия {} закрыта: {}", getId(), reason);
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Ошибка закрытия WebSocket-сессии {}", getId(), e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.entity.NotificationType;
+
+public record PendingNotificationEvent(String ownerId, NotificationType type, String senderId) {
+}
@@ -0,0 +1,302 @@
+package com.example.businessLogic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Межузловая шина на Postgres LISTEN/NOTIFY.
+ * Локальные сессии получают сообщение сразу, остальные узлы - через NOTIFY; собственные уведомления узел пропускает.
+ * NotificationSender публикует в шину уже после коммита, поэтому NOTIFY отправляется вне транзакции вызывающего кода.
+ * Служебные сообщения тем идут тем же каналом с пустым списком получателей и полем topic.
+ * Payload NOTIFY ограничен 8000 байтами, поэтому получатели делятся на группы, а крупные сообщения
+ * режутся на части и собираются на приёмнике.
+ * Уведомления, пришедшие пока узел переподключается к базе, теряются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notifications.bus.type", havingValue = "postgres")
+public class PostgresNotificationBus implements NotificationBus {
+
+    static final int MAX_NOTIFY_BYTES = 7900;
+    static final int FRAGMENT_BYTES = 4000;
+    // Бюджет на список получателей в одном NOTIFY; вместе с частью сообщения укладывается в MAX_NOTIFY_BYTES
+    static final int USERS_BYTES = 2000;
+    private static final long FRAGMENT_TTL_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${notifications.bus.channel:ws_notifications}")
+    private String channel;
+
+    @Value("${notifications.bus.poll-ms:500}")
+    private int pollMs;
+
+    @Value("${notifications.bus.reconnect-ms:5000}")
+    private long reconnectMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<BiConsumer<Collection<String>, String>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<String>>> topicListeners = new ConcurrentHashMap<>();
+    // Используется только потоком слушателя
+    private final Map<String, Fragments> partialMessages = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+    private TransactionTemplate notifyTemplate;
+
+    @PostConstruct
+    public void start() {
+        // После коммита соединение завершённой транзакции ещё привязано к потоку: NOTIFY на нём не был бы закоммичен
+        notifyTemplate = new TransactionTemplate(transactionManager);
+        notifyTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Некорректное имя канала шины уведомлений: " + channel);
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "notification-bus-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(Collection<String> userIds, String payload) {
+        deliver(userIds, payload);
+
+        for (List<String> users : groupUsers(userIds)) {
+            try {
+                send(users, null, payload);
+            } catch (Exception e) {
+                log.error("Ошибка публикации сообщения в шину уведомлений: users={}", users.size(), e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<Collection<String>, String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void broadcast(String topic, String message) {
+        deliverTopic(topic, message);
+        try {
+            send(List.of(), topic, message);
+        } catch (Exception e) {
+            log.error("Ошибка публикации служебного сообщения в шину уведомлений: topic={}", topic, e);
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+        topicListeners.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    private void send(List<String> users, String topic, String payload) throws Exception {
+        String single = objectMapper.writeValueAsString(new Envelope(nodeId, users, null, 0, 1, payload, topic));
+        if (single.getBytes(StandardCharsets.UTF_8).length <= MAX_NOTIFY_BYTES) {
+            sendNotify(single);
+            return;
+        }
+
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        int parts = (bytes.length + FRAGMENT_BYTES - 1) / FRAGMENT_BYTES;
+        String messageId = UUID.randomUUID().toString();
+        for (int part = 0; part < parts; part++) {
+            byte[] chunk = Arrays.copyOfRange(bytes, part * FRAGMENT_BYTES,
+                    Math.min(bytes.length, (part + 1) * FRAGMENT_BYTES));
+            sendNotify(objectMapper.writeValueAsString(new Envelope(nodeId, users, messageId, part, parts,
+                    Base64.getEncoder().encodeToString(chunk), topic)));
+        }
+    }
+
+    private List<List<String>> groupUsers(Collection<String> userIds) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int bytes = 0;
+        for (String userId : userIds) {
+            int size = userId.getBytes(StandardCharsets.UTF_8).length + 3;
+            if (!current.isEmpty() && bytes + size > USERS_BYTES) {
+                groups.add(current);
+                current = new ArrayList<>();
+                bytes = 0;
+            }
+            current.add(userId);
+            bytes += size;
+        }
+        if (!current.isEmpty()) {
+            groups.add(current);
+        }
+        return groups;
+    }
+
+    private void sendNotify(String text) {
+        notifyTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channel, text));
+    }
+
+    private void listen() {
+        while (running) {
+            // Отдельное соединение вне пула: LISTEN держит его всё время работы узла
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Шина уведомлений подписана на канал {}, узел {}", channel, nodeId);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            onNotification(notification.getParameter());
+                        }
+                    }
+                    evictStaleFragments();
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Соединение шины уведомлений потеряно, переподключение через {} мс", reconnectMs, e);
+                try {
+                    Thread.sleep(reconnectMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void onNotification(String text) {
+        try {
+            Envelope envelope = objectMapper.readValue(text, Envelope.class);
+            if (nodeId.equals(envelope.node())) {
+                return;
+            }
+            if (envelope.parts() == 1) {
+                dispatch(envelope, envelope.data());
+                return;
+            }
+
+            Fragments fragments = partialMessages.computeIfAbsent(envelope.id(), id -> new Fragments(envelope.parts()));
+            if (fragments.add(envelope.part(), Base64.getDecoder().decode(envelope.data()))) {
+                partialMessages.remove(envelope.id());
+                dispatch(envelope, fragments.join());
+            }
+        } catch (Exception e) {
+            log.error("Ошибка обработки сообщения шины уведомлений", e);
+        }
+    }
+
+    private void evictStaleFragments() {
+        if (!partialMessages.isEmpty()) {
+            long threshold = System.currentTimeMillis() - FRAGMENT_TTL_MS;
+            partialMessages.values().removeIf(fragments -> fragments.createdAt < threshold);
+        }
+    }
+
+    private void dispatch(Envelope envelope, String payload) {
+        if (envelope.topic() != null) {
+            deliverTopic(envelope.topic(), payload);
+        } else {
+            deliver(envelope.users(), payload);
+        }
+    }
+
+    private void deliverTopic(String topic, String message) {
+        for (Consumer<String> listener : topicListeners.getOrDefault(topic, List.of())) {
+            try {
+                listener.accept(message);
+            } catch (Exception e) {
+                log.error("Ошибка обработки служебного сообщения шины: topic={}", topic, e);
+            }
+        }
+    }
+
+    private void deliver(Collection<String> userIds, String payload) {
+        for (BiConsumer<Collection<String>, String> listener : listeners) {
+            listener.accept(userIds, payload);
+        }
+    }
+
+    record Envelope(String node, List<String> users, String id, int part, int parts, String data, String topic) {
+    }
+
+    private static final class Fragments {
+        private final byte[][] chunks;
+        private final long createdAt = System.currentTimeMillis();
+        private int received;
+
+        Fragments(int parts) {
+            this.chunks = new byte[parts][];
+        }
+
+        boolean add(int part, byte[] chunk) {
+            if (chunks[part] == null) {
+                chunks[part] = chunk;
+                received++;
+            }
+            return received == chunks.length;
+        }
+
+        String join() {
+            int length = 0;
+            for (byte[] chunk : chunks) {
+                length += chunk.length;
+            }
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            for (byte[] chunk : chunks) {
+                System.arraycopy(chunk, 0, bytes, offset, chunk.length);
+                offset += chunk.length;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
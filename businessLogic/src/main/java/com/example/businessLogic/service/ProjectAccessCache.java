@@ -0,0 +1,109 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.entity.Role;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Роли пользователя во всех его проектах: projectId -> Role, загружается одним запросом при первом обращении.
+ * После коммита любого изменения членства (ProjectMembershipChangedEvent) запись пользователя сбрасывается
+ * на всех узлах через NotificationBus; если сообщение шины потеряно, запись всё равно устаревает через ttl-ms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectAccessCache {
+
+    static final String INVALIDATION_TOPIC = "project-access";
+
+    private final ProjectMemberRepository projectMemberRepository;
+    private final NotificationBus notificationBus;
+
+    @Value("${projects.access-cache.max-users:50000}")
+    private int maxUsers;
+
+    @Value("${projects.access-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private final Map<String, CachedRoles> roles = new ConcurrentHashMap<>();
+    // Растёт при каждом сбросе: снимок, загруженный во время сброса, в кэше не остаётся
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void subscribe() {
+        notificationBus.subscribe(INVALIDATION_TOPIC, this::onInvalidation);
+    }
+
+    /**
+     * Роль пользователя в проекте или null, если он не участник (или проекта нет).
+     */
+    public Role roleOf(String userId, String projectId) {
+        return rolesOf(userId).get(projectId);
+    }
+
+    public Map<String, Role> rolesOf(String userId) {
+        long now = System.currentTimeMillis();
+        CachedRoles cached = roles.get(userId);
+        if (cached != null && now - cached.loadedAt() < ttlMs) {
+            return cached.roles();
+        }
+
+        // Запрос идёт вне computeIfAbsent, чтобы медленная БД не держала блокировку корзины карты
+        // и не останавливала обращения к другим пользователям
+        long epoch = invalidations.get();
+        Map<String, Role> loaded = load(userId);
+        if (roles.size() >= maxUsers) {
+            // Редкий случай: проще начать заново, чем вести LRU - загрузка стоит один запрос
+            log.info("Кэш ролей в проектах достиг {} пользователей и очищен", maxUsers);
+            roles.clear();
+        }
+        CachedRoles entry = new CachedRoles(loaded, now);
+        roles.put(userId, entry);
+        // Сброс, начавшийся после чтения epoch, мог не застать эту запись - убираем её сами
+        if (invalidations.get() != epoch) {
+            roles.remove(userId, entry);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String userId) {
+        invalidations.incrementAndGet();
+        roles.remove(userId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(ProjectMembershipChangedEvent event) {
+        if (!event.userIds().isEmpty()) {
+            // Шина доставляет сообщение и текущему узлу
+            notificationBus.broadcast(INVALIDATION_TOPIC, String.join("\n", event.userIds()));
+        }
+    }
+
+    private void onInvalidation(String message) {
+        for (String userId : message.split("\n")) {
+            invalidate(userId);
+        }
+    }
+
+    private Map<String, Role> load(String userId) {
+        Map<String, Role> result = new HashMap<>();
+        for (ProjectMemberRepository.ProjectRole role : projectMemberRepository.findRolesByUserId(userId)) {
+            result.put(role.getProjectId(), role.getRole());
+        }
+        return Map.copyOf(result);
+    }
+
+    private record CachedRoles(Map<String, Role> roles, long loadedAt) {
+    }
+}
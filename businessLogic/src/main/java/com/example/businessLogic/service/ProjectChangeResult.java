@@ -0,0 +1,10 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.InvitationBatchResult;
+import com.example.businessLogic.entity.Project;
+
+/**
+ * Сохранённый проект и итог приглашения новых участников по каждому пользователю.
+ */
+public record ProjectChangeResult(Project project, InvitationBatchResult invitations) {
+}
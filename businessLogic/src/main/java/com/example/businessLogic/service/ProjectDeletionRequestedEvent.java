@@ -0,0 +1,7 @@
+package com.example.businessLogic.service;
+
+/**
+ * Проект помечен удалённым; удаление его данных запускается после коммита.
+ */
+public record ProjectDeletionRequestedEvent(String deletionId) {
+}
@@ -0,0 +1,321 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.NotificationRequest;
+import com.example.businessLogic.dto.ProjectDeletionStatus;
+import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.entity.Project;
+import com.example.businessLogic.entity.ProjectDeletion;
+import com.example.businessLogic.entity.TaskChangeAction;
+import com.example.businessLogic.repository.NotesRepository;
+import com.example.businessLogic.repository.NotificationRepository;
+import com.example.businessLogic.repository.ProjectDeletionRepository;
+import com.example.businessLogic.repository.ProjectInvitationRepository;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import com.example.businessLogic.repository.ProjectRepository;
+import com.example.businessLogic.repository.RecurrenceRuleRepository;
+import com.example.businessLogic.repository.TaskDependencyRepository;
+import com.example.businessLogic.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Фоновое удаление проекта. Запрос только помечает проект удалённым (deleted_at) - он и его задачи сразу исчезают
+ * из выборок, - а задачи с исполнителями, зависимостями, правилами повторения и заметками, заметки проекта,
+ * приглашения с их уведомлениями и участники удаляются пачками, каждая в своей короткой транзакции.
+ * Задание и его прогресс хранятся в project_deletions: узел захватывает его арендой (SKIP LOCKED) и продлевает
+ * её в каждой пачке, поэтому два узла не удаляют один проект одновременно, а прерванное удаление
+ * (перезапуск узла) подхватывает периодическая проверка после истечения аренды.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectDeletionService {
+
+    // Размер колонки project_deletions.error
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ProjectRepository projectRepository;
+    private final ProjectDeletionRepository deletionRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final TaskRepository taskRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final RecurrenceRuleRepository recurrenceRuleRepository;
+    private final NotesRepository notesRepository;
+    private final ProjectInvitationRepository invitationRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final MetricsService metricsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${projects.deletion.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${projects.deletion.threads:1}")
+    private int threads;
+
+    // Срок аренды: задание, не продлённое за это время, считается брошенным
+    @Value("${projects.deletion.resume-after-minutes:10}")
+    private int resumeAfterMinutes;
+
+    @Value("${projects.deletion.status-ttl-minutes:60}")
+    private int statusTtlMinutes;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("project-deletion-"));
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Скрывает проект и ставит удаление его данных в очередь; само удаление начнётся после коммита.
+     */
+    @Transactional
+    public ProjectDeletionStatus requestDeletion(String projectId, String requestedBy) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new EntityNotFoundException("Проект не найден: " + projectId));
+
+        if (projectRepository.markDeleted(projectId, LocalDateTime.now()) == 0) {
+            throw new EntityNotFoundException("Проект не найден: " + projectId);
+        }
+        // Участники теряют доступ сразу, не дожидаясь удаления строк project_member
+        eventPublisher.publishEvent(new ProjectMembershipChangedEvent(
+                projectMemberRepository.findUserIdsByProjectId(projectId)));
+
+        ProjectDeletion deletion = deletionRepository.save(ProjectDeletion.builder()
+                .id(UUID.randomUUID().toString())
+                .projectId(projectId)
+                .projectName(project.getName())
+                .requestedBy(requestedBy)
+                .state(ProjectDeletionStatus.State.QUEUED)
+                .requestedAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new ProjectDeletionRequestedEvent(deletion.getId()));
+
+        log.info("Проект {} помечен удалённым, deletionId={}", projectId, deletion.getId());
+        return toStatus(deletion);
+    }
+
+    /**
+     * Состояние удаления для пользователя, который его запросил.
+     */
+    public ProjectDeletionStatus getStatus(String deletionId, String userId) {
+        return deletionRepository.findById(deletionId)
+                .filter(deletion -> userId.equals(deletion.getRequestedBy()))
+                .map(ProjectDeletionService::toStatus)
+                .orElseThrow(() -> new EntityNotFoundException("Удаление не найдено: " + deletionId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDeletionRequested(ProjectDeletionRequestedEvent event) {
+        List<ProjectDeletion> claimed = transactionTemplate.execute(status -> claim(deletionRepository
+                .lockClaimableById(event.deletionId(), ProjectDeletionStatus.State.COMPLETED, LocalDateTime.now())));
+        if (claimed != null) {
+            claimed.forEach(this::submit);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${projects.deletion.sweep-interval-ms:300000}")
+    public void resumeAbandoned() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProjectDeletion> claimed = transactionTemplate.execute(status -> {
+            deletionRepository.deleteFinishedBefore(ProjectDeletionStatus.State.COMPLETED,
+                    now.minusMinutes(statusTtlMinutes));
+            // Не больше, чем потоков: задание, ждущее в очереди, не продлевает аренду
+            return claim(deletionRepository.lockClaimable(ProjectDeletionStatus.State.COMPLETED, now,
+                    PageRequest.of(0, threads)));
+        });
+        if (claimed != null) {
+            for (ProjectDeletion deletion : claimed) {
+                log.info("Возобновлено прерванное удаление проекта {}", deletion.getProjectId());
+                submit(deletion);
+            }
+        }
+    }
+
+    private List<ProjectDeletion> claim(List<ProjectDeletion> deletions) {
+        LocalDateTime leaseUntil = leaseUntil();
+        for (ProjectDeletion deletion : deletions) {
+            deletion.setLeaseOwner(nodeId);
+            deletion.setLeaseUntil(leaseUntil);
+        }
+        return deletions;
+    }
+
+    private void submit(ProjectDeletion deletion) {
+        executor.execute(() -> run(deletion));
+    }
+
+    void run(ProjectDeletion deletion) {
+        long startedAt = System.currentTimeMillis();
+        // Удалённое до перерыва уже учтено в строке задания
+        long[] deletedTasks = {deletion.getDeletedTasks()};
+        try {
+            long totalTasks = deletedTasks[0] + taskRepository.countTasksInProject(deletion.getProjectId());
+            transactionTemplate.executeWithoutResult(status -> renewLease(deletion, totalTasks, deletedTasks[0]));
+
+            deleteInChunks(() -> {
+                int deleted = deleteTaskBatch(deletion.getProjectId());
+                deletedTasks[0] += deleted;
+                renewLease(deletion, totalTasks, deletedTasks[0]);
+                return deleted;
+            });
+            deleteInChunks(() -> {
+                int deleted = notesRepository.deleteProjectNotesBatch(deletion.getProjectId(), chunkSize);
+                renewLease(deletion, totalTasks, deletedTasks[0]);
+                return deleted;
+            });
+            deleteInChunks(() -> {
+                int deleted = deleteInvitationBatch(deletion.getProjectId());
+                renewLease(deletion, totalTasks, deletedTasks[0]);
+                return deleted;
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                projectMemberRepository.deleteAllByProjectId(deletion.getProjectId());
+                projectRepository.purgeDeleted(deletion.getProjectId());
+                finish(deletion, ProjectDeletionStatus.State.COMPLETED, null, deletedTasks[0]);
+            });
+
+            metricsService.recordProjectDeletion("completed", deletedTasks[0], System.currentTimeMillis() - startedAt);
+            log.info("Проект {} удалён: задач {}, за {} мс", deletion.getProjectId(), deletedTasks[0],
+                    System.currentTimeMillis() - startedAt);
+            notifyRequester(deletion, deletedTasks[0]);
+        } catch (LeaseLostException e) {
+            // Пачка откатилась, задание продолжает узел, перехвативший аренду
+            log.warn("Удаление проекта {} перехвачено другим узлом", deletion.getProjectId());
+        } catch (RuntimeException e) {
+            // Проект остаётся помеченным - resumeAbandoned повторит удаление, когда истечёт аренда
+            String error = e.getMessage() != null && e.getMessage().length() > MAX_ERROR_LENGTH
+                    ? e.getMessage().substring(0, MAX_ERROR_LENGTH) : e.getMessage();
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        finish(deletion, ProjectDeletionStatus.State.FAILED, error, deletedTasks[0]));
+            } catch (RuntimeException statusError) {
+                log.warn("Не удалось сохранить состояние удаления проекта {}", deletion.getProjectId(), statusError);
+            }
+            metricsService.recordProjectDeletion("failed", deletedTasks[0], System.currentTimeMillis() - startedAt);
+            log.error("Ошибка удаления проекта {}", deletion.getProjectId(), e);
+        }
+    }
+
+    private void deleteInChunks(IntSupplier batch) {
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> batch.getAsInt());
+            if (deleted == null || deleted == 0) {
+                return;
+            }
+        }
+    }
+
+    private void renewLease(ProjectDeletion deletion, long totalTasks, long deletedTasks) {
+        if (deletionRepository.renewLease(deletion.getId(), nodeId, ProjectDeletionStatus.State.RUNNING,
+                leaseUntil(), totalTasks, deletedTasks) == 0) {
+            throw new LeaseLostException();
+        }
+    }
+
+    private void finish(ProjectDeletion deletion, ProjectDeletionStatus.State state, String error, long deletedTasks) {
+        if (deletionRepository.finish(deletion.getId(), nodeId, state, LocalDateTime.now(), error, deletedTasks) == 0) {
+            throw new LeaseLostException();
+        }
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plusMinutes(resumeAfterMinutes);
+    }
+
+    private int deleteTaskBatch(String projectId) {
+        List<String> ids = taskRepository.findIdBatchByProjectId(projectId, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String[] taskIds = ids.toArray(String[]::new);
+        taskDependencyRepository.deleteByTaskIdIn(taskIds);
+        recurrenceRuleRepository.deleteByTemplateTaskIdIn(taskIds);
+        taskRepository.deleteAssigneesByTaskIdIn(taskIds);
+        notesRepository.deleteTaskNotes(taskIds);
+        int deleted = taskRepository.deleteByTaskIdIn(taskIds);
+        // В транзакции пачки: журнал событий и сброс отчёта о загрузке видят ровно удалённые задачи
+        for (String taskId : ids) {
+            eventPublisher.publishEvent(new TaskChangedEvent(projectId, taskId, TaskChangeAction.DELETED, null));
+        }
+        return deleted;
+    }
+
+    private int deleteInvitationBatch(String projectId) {
+        List<Long> ids = invitationRepository.findIdBatchByProjectId(projectId, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Через NotificationService, чтобы непрочитанные приглашения ушли и из счётчиков получателей
+        notificationService.discard(notificationRepository.findByInvitationIdIn(ids));
+        return invitationRepository.deleteByIdIn(ids);
+    }
+
+    private void notifyRequester(ProjectDeletion deletion, long deletedTasks) {
+        if (deletion.getRequestedBy() == null) {
+            return;
+        }
+        try {
+            notificationService.sendNotification(deletion.getRequestedBy(), NotificationRequest.builder()
+                    .title("Проект удалён")
+                    .message("Проект \"" + deletion.getProjectName() + "\" удалён, задач: " + deletedTasks)
+                    .senderId(deletion.getRequestedBy())
+                    .type(NotificationType.SYSTEM_ALERT)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось уведомить {} об удалении проекта {}", deletion.getRequestedBy(),
+                    deletion.getProjectId(), e);
+        }
+    }
+
+    private static ProjectDeletionStatus toStatus(ProjectDeletion deletion) {
+        return ProjectDeletionStatus.builder()
+                .deletionId(deletion.getId())
+                .projectId(deletion.getProjectId())
+                .state(deletion.getState())
+                .totalTasks(deletion.getTotalTasks())
+                .deletedTasks(deletion.getDeletedTasks())
+                .requestedAt(deletion.getRequestedAt())
+                .finishedAt(deletion.getFinishedAt())
+                .error(deletion.getError())
+                .build();
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.businessLogic.service;
 
+import com.example.businessLogic.dto.InvitationBatchResult;
 import com.example.businessLogic.dto.NotificationRequest;
 import com.example.businessLogic.entity.*;
 import com.example.businessLogic.id.ProjectMemberId;
@@ -7,11 +8,20 @@ import com.example.businessLogic.repository.*;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+@Slf4j
 @Service
 @AllArgsConstructor
 public class ProjectInvitationService {
@@ -22,6 +32,7 @@ public class ProjectInvitationService {
     private UserRepository userRepository;
     private ProjectMemberRepository projectMemberRepository;
     private NotificationService notificationService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProjectInvitation sendInvitation(String projectId, String invitedUserId, String inviterUserId) {
@@ -56,6 +67,61 @@ public class ProjectInvitationService {
         return saved;
     }
 
+    /**
+     * Приглашает сразу многих пользователей: проверки - по одному IN-запросу на всех, приглашения и уведомления
+     * вставляются одним запросом каждые, рассылка уведомлений - после коммита. Приглашающий пропускается.
+     */
+    @Transactional
+    public InvitationBatchResult sendInvitations(String projectId, Collection<String> invitedUserIds, String inviterUserId) {
+        List<String> candidates = invitedUserIds.stream()
+                .filter(userId -> userId != null && !userId.isEmpty() && !userId.equals(inviterUserId))
+                .distinct()
+                .toList();
+        if (candidates.isEmpty()) {
+            return InvitationBatchResult.of(Map.of());
+        }
+
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+        User inviterUser = userRepository.findById(inviterUserId)
+                .orElseThrow(() -> new EntityNotFoundException("inviter not found"));
+
+        Set<String> existing = userRepository.findExistingIds(candidates);
+        Set<String> members = new HashSet<>(projectMemberRepository.findMemberUserIds(projectId, candidates));
+        Set<String> pending = new HashSet<>(invitationRepository.findInvitedUserIds(projectId, candidates,
+                InvitationStatus.PENDING));
+
+        Map<String, InvitationBatchResult.Outcome> outcomes = new LinkedHashMap<>();
+        for (String userId : candidates) {
+            if (!existing.contains(userId)) {
+                outcomes.put(userId, InvitationBatchResult.Outcome.USER_NOT_FOUND);
+            } else if (members.contains(userId)) {
+                outcomes.put(userId, InvitationBatchResult.Outcome.ALREADY_MEMBER);
+            } else if (pending.contains(userId)) {
+                outcomes.put(userId, InvitationBatchResult.Outcome.ALREADY_INVITED);
+            } else {
+                outcomes.put(userId, InvitationBatchResult.Outcome.INVITED);
+            }
+        }
+
+        String[] invited = outcomes.entrySet().stream()
+                .filter(entry -> entry.getValue() == InvitationBatchResult.Outcome.INVITED)
+                .map(Map.Entry::getKey)
+                .toArray(String[]::new);
+        if (invited.length > 0) {
+            Map<String, Long> invitationByUser = new HashMap<>();
+            for (ProjectInvitationRepository.CreatedInvitation created : invitationRepository.insertPending(
+                    projectId, invited, inviterUserId, LocalDateTime.now())) {
+                invitationByUser.put(created.getInvitedUserId(), created.getId());
+            }
+            notificationService.sendInvitationNotifications(invitationByUser, invitationNotification(project, inviterUser));
+        }
+
+        InvitationBatchResult result = InvitationBatchResult.of(outcomes);
+        log.info("Приглашения в проект {}: отправлено {}, пропущено {}", projectId, result.getInvited(), result.getSkipped());
+        return result;
+    }
+
     @Transactional
     public void acceptInvitation(Long invitationId, String invitedUserId) {
         ProjectInvitation invitation = invitationRepository.findById(invitationId)
@@ -81,6 +147,7 @@ public class ProjectInvitationService {
 
 
         addProjectMember(project, invitedUser);
+        eventPublisher.publishEvent(new ProjectMembershipChangedEvent(List.of(invitedUserId)));
 
         deleteInvitationNotification(invitation.getId());
 
@@ -128,15 +195,19 @@ public class ProjectInvitationService {
     }
 
     private void sendInvitationNotification(Project project, User inviterUser, ProjectInvitation invitation) {
-        NotificationRequest notification = NotificationRequest.builder()
+        NotificationRequest notification = invitationNotification(project, inviterUser);
+        notification.setInvitationId(invitation.getId());
+
+        notificationService.sendNotification(invitation.getInvitedUserId(), notification);
+    }
+
+    private NotificationRequest invitationNotification(Project project, User inviterUser) {
+        return NotificationRequest.builder()
                 .title("Приглашение в проект")
                 .message(inviterUser.getUsername() + " приглашает вас в проект \"" + project.getName() + "\"")
                 .senderId(inviterUser.getId())
                 .type(NotificationType.PROJECT_INVITATION)
-                .invitationId(invitation.getId())
                 .build();
-
-        notificationService.sendNotification(invitation.getInvitedUserId(), notification);
     }
 
     private void notifyInviterAboutResponse(ProjectInvitation invitation, boolean accepted) {
@@ -162,7 +233,8 @@ public class ProjectInvitationService {
     private void deleteInvitationNotification(Long invitationId) {
         Long notificationId = notificationRepository.findIdByInvitationId(invitationId);
         if (notificationId != null) {
-            notificationRepository.deleteById(notificationId);
+            notificationRepository.findById(notificationId)
+                    .ifPresent(notification -> notificationService.discard(List.of(notification)));
         }
     }
 }
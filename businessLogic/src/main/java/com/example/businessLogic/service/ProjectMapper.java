@@ -3,17 +3,23 @@ package com.example.businessLogic.service;
 import com.example.businessLogic.dto.ProjectDto;
 import com.example.businessLogic.dto.ProjectMemberDto;
 import com.example.businessLogic.entity.Project;
-import com.example.businessLogic.entity.ProjectMember;
 import com.example.businessLogic.repository.ProjectMemberRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @AllArgsConstructor
 public class ProjectMapper {
 
+    // Предел параметров одного IN: список проектов пользователя почти всегда укладывается в один запрос
+    static final int IN_BATCH_SIZE = 1000;
+
     private final ProjectMemberRepository projectMemberRepository;
 
     public ProjectDto toDto(Project project) {
@@ -21,30 +27,54 @@ public class ProjectMapper {
             return null;
         }
 
-        List<ProjectMember> members = projectMemberRepository.findByProjectId(project.getId());
+        return toDto(project, findMembers(List.of(project.getId())).getOrDefault(project.getId(), List.of()));
+    }
+
+    /**
+     * Участники всех проектов загружаются пачками по IN_BATCH_SIZE и раскладываются по проектам в памяти.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectDto> toDtoList(List<Project> projects) {
+        if (projects.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<ProjectMemberDto>> members = findMembers(projects.stream()
+                .map(Project::getId)
+                .toList());
+
+        return projects.stream()
+                .map(project -> toDto(project, members.getOrDefault(project.getId(), List.of())))
+                .toList();
+    }
 
+    private ProjectDto toDto(Project project, List<ProjectMemberDto> members) {
         return ProjectDto.builder()
                 .id(project.getId())
                 .name(project.getName())
                 .description(project.getDescription())
                 .createdAt(project.getCreatedAt())
-                .members(members.stream()
-                        .map(this::toMemberDto)
-                        .toList())
+                .members(members)
                 .build();
     }
 
-    public List<ProjectDto> toDtoList(List<Project> projects) {
-        return projects.stream()
-                .map(this::toDto)
-                .toList();
+    private Map<String, List<ProjectMemberDto>> findMembers(List<String> projectIds) {
+        Map<String, List<ProjectMemberDto>> result = new HashMap<>();
+        for (int from = 0; from < projectIds.size(); from += IN_BATCH_SIZE) {
+            List<String> batch = projectIds.subList(from, Math.min(from + IN_BATCH_SIZE, projectIds.size()));
+            for (ProjectMemberRepository.MemberView member : projectMemberRepository.findMemberViewsByProjectIdIn(batch)) {
+                result.computeIfAbsent(member.getProjectId(), id -> new ArrayList<>())
+                        .add(toMemberDto(member));
+            }
+        }
+        return result;
     }
 
-    private ProjectMemberDto toMemberDto(ProjectMember projectMember) {
+    private ProjectMemberDto toMemberDto(ProjectMemberRepository.MemberView member) {
         return ProjectMemberDto.builder()
-                .userId(projectMember.getUser().getId())
-                .username(projectMember.getUser().getUsername())
-                .role(projectMember.getRole().name())
+                .userId(member.getUserId())
+                .username(member.getUsername())
+                .role(member.getRole().name())
                 .build();
     }
 }
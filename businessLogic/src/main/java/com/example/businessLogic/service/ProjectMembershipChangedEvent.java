@@ -0,0 +1,9 @@
+package com.example.businessLogic.service;
+
+import java.util.Collection;
+
+/**
+ * Изменился состав или роли участников проекта; кэш доступа сбрасывает этих пользователей после коммита.
+ */
+public record ProjectMembershipChangedEvent(Collection<String> userIds) {
+}
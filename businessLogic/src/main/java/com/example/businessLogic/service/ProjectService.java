@@ -1,20 +1,25 @@
 package com.example.businessLogic.service;
 
+import com.example.businessLogic.dto.BulkNotificationResult;
 import com.example.businessLogic.dto.CreateProjectRequest;
+import com.example.businessLogic.dto.InvitationBatchResult;
+import com.example.businessLogic.dto.NotificationRequest;
+import com.example.businessLogic.dto.ProjectDeletionStatus;
 import com.example.businessLogic.dto.ProjectMemberDto;
 import com.example.businessLogic.entity.*;
 import com.example.businessLogic.id.ProjectMemberId;
 import com.example.businessLogic.repository.ProjectMemberRepository;
 import com.example.businessLogic.repository.ProjectRepository;
-import com.example.businessLogic.repository.TaskRepository;
 import com.example.businessLogic.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -27,9 +32,12 @@ public class ProjectService {
     private final ProjectRepository projectRepository;
     private final ProjectMemberRepository projectMemberRepository;
     private final UserRepository userRepository;
-    private final TaskRepository taskRepository;
     private final MetricsService metricsService;
     private final ProjectInvitationService projectInvitationService;
+    private final NotificationService notificationService;
+    private final ProjectAccessCache projectAccessCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectDeletionService projectDeletionService;
 
     public Project getProjectById(String projectId) {
         return projectRepository.findById(projectId)
@@ -37,7 +45,7 @@ public class ProjectService {
     }
 
     @Transactional
-    public Project createProject(CreateProjectRequest request, String ownerId) {
+    public ProjectChangeResult createProject(CreateProjectRequest request, String ownerId) {
         User creator = userRepository.findById(ownerId)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден: " + ownerId));
 
@@ -50,37 +58,31 @@ public class ProjectService {
 
         addProjectMember(savedProject, creator, Role.ROLE_OWNER);
 
-        for (String memberId : request.getMemberIds()) {
-            if (!memberId.equals(ownerId)) {
-                projectInvitationService.sendInvitation(savedProject.getId(), memberId, ownerId);
-            }
-        }
+        InvitationBatchResult invitations = projectInvitationService.sendInvitations(savedProject.getId(),
+                request.getMemberIds(), ownerId);
 
         metricsService.recordProjectCreated();
 
-        return savedProject;
+        return new ProjectChangeResult(savedProject, invitations);
     }
 
     @Transactional
-    public Project updateProject(String projectId, CreateProjectRequest request) {
+    public ProjectChangeResult updateProject(String projectId, CreateProjectRequest request) {
         Project project = getProjectById(projectId);
 
         project.setName(request.getName());
         project.setDescription(request.getDescription());
 
-        updateProjectMembers(project, request.getMemberIds());
+        InvitationBatchResult invitations = updateProjectMembers(project, request.getMemberIds());
 
-        return projectRepository.save(project);
+        return new ProjectChangeResult(projectRepository.save(project), invitations);
     }
 
     @Transactional
     public Project updateAutoDeleteSettings(String projectId, Integer days, String userId) {
         Project project = getProjectById(projectId);
 
-        ProjectMember member = projectMemberRepository.findByProjectIdAndUserId(projectId, userId)
-                .orElseThrow(() -> new AccessDeniedException("У вас нет доступа к этому проекту"));
-
-        if (!member.getRole().equals(Role.ROLE_OWNER)) {
+        if (requireRole(projectId, userId) != Role.ROLE_OWNER) {
             throw new AccessDeniedException("У вас недостаточно прав, чтобы изменить настройки");
         }
 
@@ -92,30 +94,52 @@ public class ProjectService {
         return projectRepository.save(project);
     }
 
-    @Transactional
-    public void deleteProject(String projectId) {
+    /**
+     * Объявление всем участникам проекта от владельца или администратора, одной массовой отправкой.
+     */
+    public BulkNotificationResult sendAnnouncement(String projectId, String senderId, NotificationRequest request) {
         Project project = getProjectById(projectId);
 
-        taskRepository.deleteByProjectId(projectId);
+        if (requireRole(projectId, senderId) == Role.ROLE_USER) {
+            throw new AccessDeniedException("Объявления могут отправлять только владелец и администраторы проекта");
+        }
 
-        List<ProjectMember> members = projectMemberRepository.findByProjectId(projectId);
-        if (!members.isEmpty()) {
-            projectMemberRepository.deleteAll(members);
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Заголовок объявления не может быть пустым");
         }
-        projectRepository.delete(project);
+
+        List<String> recipients = projectMemberRepository.findUserIdsByProjectId(project.getId()).stream()
+                .filter(userId -> !userId.equals(senderId))
+                .toList();
+
+        NotificationRequest announcement = NotificationRequest.builder()
+                .title(request.getTitle())
+                .message(request.getMessage())
+                .senderId(senderId)
+                .type(NotificationType.INFO)
+                .build();
+
+        return notificationService.sendBulkNotification(recipients, announcement);
     }
 
+    /**
+     * Проект скрывается сразу, а его данные удаляет фоновое задание ProjectDeletionService.
+     */
+    public ProjectDeletionStatus deleteProject(String projectId, String userId) {
+        return projectDeletionService.requestDeletion(projectId, userId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Project> getUserProjects(String userId) {
         return projectRepository.findAllByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<ProjectMemberDto> getProjectMembers(String projectId) {
-        List<ProjectMember> members = projectMemberRepository.findByProjectId(projectId);
-
-        return members.stream()
+        return projectMemberRepository.findMemberViewsByProjectIdIn(List.of(projectId)).stream()
                 .map(member -> ProjectMemberDto.builder()
-                        .userId(member.getUser().getId())
-                        .username(member.getUser().getUsername())
+                        .userId(member.getUserId())
+                        .username(member.getUsername())
                         .role(member.getRole().name())
                         .build()
                 )
@@ -136,9 +160,10 @@ public class ProjectService {
         projectMember.setRole(role);
 
         projectMemberRepository.save(projectMember);
+        eventPublisher.publishEvent(new ProjectMembershipChangedEvent(List.of(user.getId())));
     }
 
-    private void updateProjectMembers(Project project, List<String> memberIds) {
+    private InvitationBatchResult updateProjectMembers(Project project, List<String> memberIds) {
         Set<String> newMemberSet = new HashSet<>(memberIds);
 
         List<ProjectMember> currentMembers = projectMemberRepository.findByProjectId(project.getId());
@@ -152,22 +177,33 @@ public class ProjectService {
             throw new IllegalArgumentException("Владельца нельзя удалить из проекта");
         }
 
+        List<String> removedMemberIds = new ArrayList<>();
         for (ProjectMember currentMember : currentMembers) {
             if (currentMember.getRole() != Role.ROLE_OWNER &&
                     !newMemberSet.contains(currentMember.getUser().getId())) {
                 projectMemberRepository.delete(currentMember);
+                removedMemberIds.add(currentMember.getUser().getId());
             }
         }
+        if (!removedMemberIds.isEmpty()) {
+            eventPublisher.publishEvent(new ProjectMembershipChangedEvent(removedMemberIds));
+        }
 
         Set<String> existingMemberIds = currentMembers.stream()
                 .map(member -> member.getUser().getId())
                 .collect(Collectors.toSet());
 
-        for (String memberId : memberIds) {
-            if (!existingMemberIds.contains(memberId)) {
-                projectInvitationService.sendInvitation(project.getId(), memberId, owner.getUser().getId());
-            }
-        }
+        List<String> newMemberIds = memberIds.stream()
+                .filter(memberId -> !existingMemberIds.contains(memberId))
+                .toList();
+        return projectInvitationService.sendInvitations(project.getId(), newMemberIds, owner.getUser().getId());
     }
 
+    private Role requireRole(String projectId, String userId) {
+        Role role = projectAccessCache.roleOf(userId, projectId);
+        if (role == null) {
+            throw new AccessDeniedException("У вас нет доступа к этому проекту");
+        }
+        return role;
+    }
 }
\ No newline at end of file
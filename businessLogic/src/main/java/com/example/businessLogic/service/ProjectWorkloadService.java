@@ -0,0 +1,223 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.AssigneeWorkloadDto;
+import com.example.businessLogic.dto.ProjectWorkloadReport;
+import com.example.businessLogic.dto.WeeklyThroughputDto;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Загрузка команды проекта: открытые и просроченные задачи по исполнителям и пропускная способность по неделям.
+ * Всё считается группировкой и оконными функциями в PostgreSQL - приложение получает по строке на исполнителя
+ * и на неделю и обрабатывает их по мере чтения. Отчёт кэшируется на проект и сбрасывается после коммита
+ * изменений задач проекта: на этом узле сразу, на остальных - через NotificationBus пачкой раз в broadcast-ms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectWorkloadService {
+
+    static final int MAX_WEEKS = 104;
+    static final String INVALIDATION_TOPIC = "project-workload";
+
+    // Задачи без исполнителей собираются в строку с user_id = null; ранг и доля считаются только среди исполнителей
+    static final String ASSIGNEE_LOAD_SQL = "WITH load AS (" +
+            "SELECT a.user_id, " +
+            "COUNT(*) FILTER (WHERE t.completion_date IS NULL) AS open_tasks, " +
+            "COUNT(*) FILTER (WHERE t.completion_date IS NULL AND t.deadline_date < ?) AS overdue_tasks, " +
+            "COUNT(*) FILTER (WHERE t.completion_date >= ?) AS completed_tasks " +
+            "FROM tasks t LEFT JOIN task_assignees a ON a.task_id = t.task_id " +
+            "WHERE t.project_id = ? GROUP BY a.user_id) " +
+            "SELECT l.user_id, u.user_name, l.open_tasks, l.overdue_tasks, l.completed_tasks, " +
+            "RANK() OVER (PARTITION BY l.user_id IS NULL ORDER BY l.open_tasks DESC) AS load_rank, " +
+            "CAST(l.open_tasks AS double precision) " +
+            "/ NULLIF(SUM(l.open_tasks) OVER (PARTITION BY l.user_id IS NULL), 0) AS load_share " +
+            "FROM load l LEFT JOIN users u ON u.user_id = l.user_id " +
+            "ORDER BY l.user_id IS NULL, l.open_tasks DESC, l.user_id";
+
+    // Недели без событий порождает рекурсивный CTE, чтобы скользящее среднее шло по календарным неделям.
+    // CTE считает номера недель, а не даты: тип столбца из параметра H2 в рекурсивной части не выводит.
+    // События раскладываются по неделям диапазоном, а не date_trunc: в H2 неделя начинается с воскресенья
+    static final String WEEKLY_THROUGHPUT_SQL = "WITH RECURSIVE weeks (week_no) AS (" +
+            "SELECT 0 " +
+            "UNION ALL " +
+            "SELECT week_no + 1 FROM weeks WHERE week_no < CAST(? AS integer)), " +
+            "week_starts (week_start) AS (" +
+            "SELECT CAST(CAST(? AS date) + week_no * INTERVAL '7' DAY AS date) FROM weeks), " +
+            "events (event_date, created, completed) AS (" +
+            "SELECT t.create_date, 1, 0 FROM tasks t " +
+            "WHERE t.project_id = ? AND t.create_date >= ? " +
+            "UNION ALL " +
+            "SELECT t.completion_date, 0, 1 FROM tasks t " +
+            "WHERE t.project_id = ? AND t.completion_date >= ?), " +
+            "weekly (week_start, created, completed) AS (" +
+            "SELECT w.week_start, COALESCE(SUM(e.created), 0), COALESCE(SUM(e.completed), 0) " +
+            "FROM week_starts w LEFT JOIN events e " +
+            "ON e.event_date >= w.week_start AND e.event_date < w.week_start + INTERVAL '7' DAY " +
+            "GROUP BY w.week_start) " +
+            "SELECT week_start, created, completed, " +
+            "AVG(completed) OVER (ORDER BY week_start ROWS BETWEEN 3 PRECEDING AND CURRENT ROW) AS rolling_completed, " +
+            "SUM(created - completed) OVER (ORDER BY week_start) AS backlog_change " +
+            "FROM weekly ORDER BY week_start";
+
+    /*
+     * Кэш сбрасывается по коммиту в основной БД, поэтому отчёт считается по ней, а не в read-only транзакции:
+     * отстающая реплика могла бы вернуть состояние до изменения, и оно осталось бы в кэше.
+     */
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationBus notificationBus;
+
+    @Value("${projects.workload.cache-ttl-ms:600000}")
+    private long cacheTtlMs;
+
+    @Value("${projects.workload.cache-max-projects:1000}")
+    private int cacheMaxProjects;
+
+    private final Map<String, CachedReport> cache = new ConcurrentHashMap<>();
+    // Номер последнего изменения задач проекта; отчёт, начатый до изменения, в кэш не попадает
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    // Проекты, о сбросе которых ещё не знают другие узлы
+    private final Set<String> pendingBroadcast = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void subscribe() {
+        notificationBus.subscribe(INVALIDATION_TOPIC, message -> {
+            for (String projectId : message.split("\n")) {
+                invalidateLocally(projectId);
+            }
+        });
+    }
+
+    public ProjectWorkloadReport getReport(String projectId, int weeks) {
+        int period = Math.max(1, Math.min(weeks, MAX_WEEKS));
+        LocalDate today = LocalDate.now();
+        long version = versions.getOrDefault(projectId, 0L);
+
+        CachedReport cached = cache.get(projectId);
+        if (cached != null && cached.matches(period, today, version, System.currentTimeMillis() - cacheTtlMs)) {
+            return cached.report();
+        }
+
+        long startedAt = System.currentTimeMillis();
+        ProjectWorkloadReport report = load(projectId, period, today);
+        if (cache.size() >= cacheMaxProjects) {
+            cache.clear();
+        }
+        cache.put(projectId, new CachedReport(period, today, version, startedAt, report));
+
+        log.debug("Отчёт о загрузке проекта {} за {} нед. посчитан за {} мс", projectId, period,
+                System.currentTimeMillis() - startedAt);
+        return report;
+    }
+
+    public void invalidate(String projectId) {
+        invalidateLocally(projectId);
+        pendingBroadcast.add(projectId);
+    }
+
+    /**
+     * Материализация повторов и удаление проекта меняют сотни задач за транзакцию,
+     * поэтому сбросы копятся и уходят другим узлам одним сообщением.
+     */
+    @Scheduled(fixedDelayString = "${projects.workload.broadcast-ms:250}")
+    public void broadcastInvalidations() {
+        if (pendingBroadcast.isEmpty()) {
+            return;
+        }
+        List<String> projectIds = new ArrayList<>();
+        for (Iterator<String> it = pendingBroadcast.iterator(); it.hasNext(); ) {
+            projectIds.add(it.next());
+            it.remove();
+        }
+        notificationBus.broadcast(INVALIDATION_TOPIC, String.join("\n", projectIds));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate(event.projectId());
+    }
+
+    private void invalidateLocally(String projectId) {
+        versions.put(projectId, changes.incrementAndGet());
+        cache.remove(projectId);
+    }
+
+    private ProjectWorkloadReport load(String projectId, int weeks, LocalDate today) {
+        LocalDate lastWeek = today.with(DayOfWeek.MONDAY);
+        LocalDate fromWeek = lastWeek.minusWeeks(weeks - 1L);
+        Date from = Date.valueOf(fromWeek);
+
+        ProjectWorkloadReport report = ProjectWorkloadReport.builder()
+                .projectId(projectId)
+                .generatedAt(LocalDateTime.now())
+                .fromWeek(fromWeek)
+                .weeks(weeks)
+                .assignees(new ArrayList<>())
+                .throughput(new ArrayList<>(weeks))
+                .build();
+
+        jdbcTemplate.query(ASSIGNEE_LOAD_SQL,
+                new ArgumentPreparedStatementSetter(new Object[]{Date.valueOf(today), from, projectId}),
+                rs -> {
+                    String userId = rs.getString("user_id");
+                    if (userId == null) {
+                        report.setUnassignedOpenTasks(rs.getLong("open_tasks"));
+                        report.setUnassignedOverdueTasks(rs.getLong("overdue_tasks"));
+                        return;
+                    }
+                    report.getAssignees().add(AssigneeWorkloadDto.builder()
+                            .userId(userId)
+                            .username(rs.getString("user_name"))
+                            .openTasks(rs.getLong("open_tasks"))
+                            .overdueTasks(rs.getLong("overdue_tasks"))
+                            .completedTasks(rs.getLong("completed_tasks"))
+                            .loadRank(rs.getInt("load_rank"))
+                            .loadShare(rs.getDouble("load_share"))
+                            .build());
+                });
+
+        jdbcTemplate.query(WEEKLY_THROUGHPUT_SQL,
+                new ArgumentPreparedStatementSetter(new Object[]{weeks - 1, from,
+                        projectId, from, projectId, from}),
+                rs -> {
+                    report.getThroughput().add(WeeklyThroughputDto.builder()
+                            .weekStart(rs.getDate("week_start").toLocalDate())
+                            .created(rs.getLong("created"))
+                            .completed(rs.getLong("completed"))
+                            .rollingCompleted(rs.getDouble("rolling_completed"))
+                            .backlogChange(rs.getLong("backlog_change"))
+                            .build());
+                });
+
+        return report;
+    }
+
+    private record CachedReport(int weeks, LocalDate day, long version, long loadedAt, ProjectWorkloadReport report) {
+
+        // Просрочка считается от текущей даты, поэтому отчёт прошлого дня не используется
+        boolean matches(int weeks, LocalDate day, long version, long notBefore) {
+            return this.weeks == weeks && this.day.equals(day) && this.version == version && loadedAt >= notBefore;
+        }
+    }
+}
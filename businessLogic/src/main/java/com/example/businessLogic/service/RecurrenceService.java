@@ -0,0 +1,235 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.RecurrenceRuleDto;
+import com.example.businessLogic.entity.RecurrenceFrequency;
+import com.example.businessLogic.entity.RecurrenceRule;
+import com.example.businessLogic.entity.Status;
+import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.entity.TaskChangeAction;
+import com.example.businessLogic.repository.RecurrenceRuleRepository;
+import com.example.businessLogic.repository.StatusRepository;
+import com.example.businessLogic.repository.TaskRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurrenceService {
+
+    // Не больше года экземпляров за один проход по правилу
+    private static final int MAX_OCCURRENCES_PER_RUN = 366;
+    private static final String ACTIVE_STATUS = "Активная";
+
+    private final RecurrenceRuleRepository recurrenceRuleRepository;
+    private final TaskRepository taskRepository;
+    private final StatusRepository statusRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${tasks.recurrence.horizon-days:14}")
+    private int horizonDays;
+
+    @Transactional
+    public RecurrenceRule setRecurrence(String taskId, RecurrenceRuleDto request) {
+        Task template = taskRepository.findById(taskId)
+                .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + taskId));
+
+        if (template.getRecurrenceRuleId() != null) {
+            throw new IllegalArgumentException("Экземпляр повторяющейся задачи не может иметь своё правило");
+        }
+        validate(request);
+
+        LocalDate startDate = template.getStartDate() != null ? template.getStartDate() : template.getCreateDate();
+
+        RecurrenceRule rule = recurrenceRuleRepository.lockByTemplateTaskId(taskId)
+                .orElseGet(() -> RecurrenceRule.builder()
+                        .templateTask(template)
+                        .materializedUntil(startDate)
+                        .build());
+
+        rule.setFrequency(request.getFrequency());
+        rule.setInterval(request.getInterval() != null ? request.getInterval() : 1);
+        rule.setCronExpression(request.getCronExpression());
+        rule.setStartDate(startDate);
+        rule.setUntilDate(request.getUntilDate());
+        rule.setActive(true);
+
+        RecurrenceRule saved = recurrenceRuleRepository.save(rule);
+        materialize(saved, LocalDate.now().plusDays(horizonDays));
+
+        return saved;
+    }
+
+    @Transactional
+    public void removeRecurrence(String taskId) {
+        recurrenceRuleRepository.deleteByTemplateTaskId(taskId);
+    }
+
+    /**
+     * Создаёт экземпляры для следующей пачки правил, отстающих от горизонта.
+     * Правила блокируются через SKIP LOCKED, поэтому узлы не мешают друг другу.
+     */
+    @Transactional
+    public BatchResult materializeDueBatch(long afterId, LocalDate horizon, int batchSize) {
+        List<RecurrenceRule> rules = recurrenceRuleRepository.lockDueBatch(afterId, horizon, PageRequest.of(0, batchSize));
+        if (rules.isEmpty()) {
+            return new BatchResult(null, 0, 0);
+        }
+
+        int created = 0;
+        for (RecurrenceRule rule : rules) {
+            created += materialize(rule, horizon);
+        }
+
+        return new BatchResult(rules.get(rules.size() - 1).getId(), rules.size(), created);
+    }
+
+    int materialize(RecurrenceRule rule, LocalDate horizon) {
+        LocalDate from = rule.getMaterializedUntil();
+        LocalDate to = rule.getUntilDate() != null && rule.getUntilDate().isBefore(horizon)
+                ? rule.getUntilDate()
+                : horizon;
+
+        if (!from.isBefore(to)) {
+            if (rule.getUntilDate() != null && !rule.getUntilDate().isAfter(from)) {
+                rule.setActive(false);
+            }
+            return 0;
+        }
+
+        List<LocalDate> dates = occurrencesBetween(rule, from, to);
+        Set<LocalDate> existing = dates.isEmpty()
+                ? Set.of()
+                : taskRepository.findOccurrenceDates(rule.getId(), from, to);
+
+        Task template = rule.getTemplateTask();
+        Status activeStatus = null;
+        int created = 0;
+        LocalDate reached = to;
+        for (LocalDate date : dates) {
+            if (!existing.contains(date)) {
+                if (activeStatus == null) {
+                    activeStatus = activeStatus();
+                }
+                Task instance = createInstance(template, rule, date, activeStatus);
+                taskRepository.save(instance);
+                // Как и TaskService: событие для участников проекта и сброса отчёта о загрузке
+                if (template.getProject() != null) {
+                    eventPublisher.publishEvent(new TaskChangedEvent(template.getProject().getId(), instance.getId(),
+                            TaskChangeAction.CREATED, instance.getTitle()));
+                }
+                created++;
+            }
+            reached = date;
+        }
+
+        // Если упёрлись в лимит, продолжим с последней созданной даты на следующем проходе
+        rule.setMaterializedUntil(dates.size() >= MAX_OCCURRENCES_PER_RUN ? reached : to);
+        if (rule.getUntilDate() != null && !rule.getUntilDate().isAfter(rule.getMaterializedUntil())) {
+            rule.setActive(false);
+        }
+
+        if (created > 0) {
+            log.info("Созданы экземпляры повторяющейся задачи: ruleId={}, count={}", rule.getId(), created);
+        }
+        return created;
+    }
+
+    /**
+     * Даты повторений в интервале (from, to].
+     */
+    public List<LocalDate> occurrencesBetween(RecurrenceRule rule, LocalDate from, LocalDate to) {
+        List<LocalDate> result = new ArrayList<>();
+        LocalDate start = rule.getStartDate();
+        int interval = rule.getInterval() != null ? rule.getInterval() : 1;
+
+        if (rule.getFrequency() == RecurrenceFrequency.CRON) {
+            CronExpression cron = CronExpression.parse(rule.getCronExpression());
+            LocalDate cursor = from.isBefore(start) ? start : from;
+            LocalDateTime next = cron.next(cursor.atTime(LocalTime.MAX));
+            while (next != null && !next.toLocalDate().isAfter(to) && result.size() < MAX_OCCURRENCES_PER_RUN) {
+                result.add(next.toLocalDate());
+                next = cron.next(next.toLocalDate().atTime(LocalTime.MAX));
+            }
+            return result;
+        }
+
+        ChronoUnit unit = switch (rule.getFrequency()) {
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            default -> ChronoUnit.MONTHS;
+        };
+
+        // Сразу перескакиваем к первому шагу после from, не перебирая историю правила
+        long step = from.isBefore(start) ? 0 : unit.between(start, from) / interval;
+        while (result.size() < MAX_OCCURRENCES_PER_RUN) {
+            LocalDate date = start.plus(step * interval, unit);
+            if (date.isAfter(to)) {
+                break;
+            }
+            if (date.isAfter(from) && date.isAfter(start)) {
+                result.add(date);
+            }
+            step++;
+        }
+        return result;
+    }
+
+    private Status activeStatus() {
+        return statusRepository.findByNameIgnoreCase(ACTIVE_STATUS)
+                .orElseThrow(() -> new IllegalStateException("Не найден статус \"" + ACTIVE_STATUS + "\""));
+    }
+
+    private Task createInstance(Task template, RecurrenceRule rule, LocalDate date, Status status) {
+        LocalDate deadline = null;
+        if (template.getDeadlineDate() != null && template.getStartDate() != null) {
+            deadline = date.plusDays(ChronoUnit.DAYS.between(template.getStartDate(), template.getDeadlineDate()));
+        }
+
+        return Task.builder()
+                .title(template.getTitle())
+                .project(template.getProject())
+                .creator(template.getCreator())
+                .assignees(new HashSet<>(template.getAssignees()))
+                .priority(template.getPriority())
+                .status(status)
+                .createDate(LocalDate.now())
+                .startDate(date)
+                .deadlineDate(deadline)
+                .recurrenceRuleId(rule.getId())
+                .occurrenceDate(date)
+                .build();
+    }
+
+    private void validate(RecurrenceRuleDto request) {
+        if (request.getFrequency() == null) {
+            throw new IllegalArgumentException("Не указана частота повторения");
+        }
+        if (request.getInterval() != null && request.getInterval() < 1) {
+            throw new IllegalArgumentException("Интервал повторения должен быть положительным");
+        }
+        if (request.getFrequency() == RecurrenceFrequency.CRON
+                && (request.getCronExpression() == null || !CronExpression.isValidExpression(request.getCronExpression()))) {
+            throw new IllegalArgumentException("Некорректное cron-выражение");
+        }
+    }
+
+    public record BatchResult(Long lastId, int rules, int created) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.entity.TaskChangeAction;
+
+/**
+ * Событие изменения задачи проекта; рассылается участникам после коммита.
+ */
+public record TaskChangedEvent(String projectId, String taskId, TaskChangeAction action, String title) {
+}
@@ -0,0 +1,148 @@
+package com.example.businessLogic.service;
+
+import java.util.Arrays;
+
+/**
+ * Граф зависимостей задач проекта на примитивных массивах (CSR).
+ * Вершины - индексы 0..n-1, ребро u -> v означает "u блокирует v".
+ */
+public final class TaskDependencyGraph {
+
+    private final int nodeCount;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+
+    private TaskDependencyGraph(int nodeCount, int[] outOffsets, int[] outTargets) {
+        this.nodeCount = nodeCount;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+    }
+
+    public static TaskDependencyGraph of(int nodeCount, int[] from, int[] to, int edgeCount) {
+        int[] offsets = new int[nodeCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] cursor = Arrays.copyOf(offsets, nodeCount);
+        int[] targets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            targets[cursor[from[i]]++] = to[i];
+        }
+
+        return new TaskDependencyGraph(nodeCount, offsets, targets);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Появится ли цикл, если добавить ребро blocker -> blocked.
+     */
+    public boolean wouldCreateCycle(int blocker, int blocked) {
+        return blocker == blocked || reaches(blocked, blocker);
+    }
+
+    public boolean reaches(int source, int target) {
+        long[] visited = new long[(nodeCount + 63) >>> 6];
+        int[] stack = new int[Math.max(16, nodeCount)];
+        int top = 0;
+        stack[top++] = source;
+        visited[source >>> 6] |= 1L << source;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (node == target) {
+                return true;
+            }
+            for (int i = outOffsets[node]; i < outOffsets[node + 1]; i++) {
+                int next = outTargets[i];
+                long bit = 1L << next;
+                if ((visited[next >>> 6] & bit) == 0) {
+                    visited[next >>> 6] |= bit;
+                    stack[top++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Топологический порядок (алгоритм Кана) или null, если в графе есть цикл.
+     */
+    public int[] topologicalOrder() {
+        int[] inDegree = new int[nodeCount];
+        for (int target : outTargets) {
+            inDegree[target]++;
+        }
+
+        int[] order = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (inDegree[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+
+        while (head < tail) {
+            int node = order[head++];
+            for (int i = outOffsets[node]; i < outOffsets[node + 1]; i++) {
+                if (--inDegree[outTargets[i]] == 0) {
+                    order[tail++] = outTargets[i];
+                }
+            }
+        }
+
+        return tail == nodeCount ? order : null;
+    }
+
+    /**
+     * Ранние сроки начала/окончания и критический путь.
+     * Даты в днях от эпохи; finish - первый день после завершения задачи.
+     */
+    public Schedule schedule(int[] start, int[] duration) {
+        int[] order = topologicalOrder();
+        if (order == null) {
+            throw new IllegalStateException("Граф зависимостей содержит цикл");
+        }
+
+        int[] earliestStart = Arrays.copyOf(start, nodeCount);
+        int[] earliestFinish = new int[nodeCount];
+        int[] predecessor = new int[nodeCount];
+        Arrays.fill(predecessor, -1);
+
+        int last = -1;
+        for (int node : order) {
+            earliestFinish[node] = earliestStart[node] + duration[node];
+            if (last == -1 || earliestFinish[node] > earliestFinish[last]) {
+                last = node;
+            }
+            for (int i = outOffsets[node]; i < outOffsets[node + 1]; i++) {
+                int next = outTargets[i];
+                if (earliestFinish[node] > earliestStart[next]) {
+                    earliestStart[next] = earliestFinish[node];
+                    predecessor[next] = node;
+                }
+            }
+        }
+
+        int length = 0;
+        for (int node = last; node != -1; node = predecessor[node]) {
+            length++;
+        }
+        int[] criticalPath = new int[length];
+        for (int node = last; node != -1; node = predecessor[node]) {
+            criticalPath[--length] = node;
+        }
+
+        return new Schedule(earliestStart, earliestFinish, criticalPath);
+    }
+
+    public record Schedule(int[] earliestStart, int[] earliestFinish, int[] criticalPath) {
+    }
+}
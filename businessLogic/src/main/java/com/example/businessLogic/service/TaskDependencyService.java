@@ -0,0 +1,166 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.ProjectScheduleDto;
+import com.example.businessLogic.dto.TaskScheduleDto;
+import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.entity.TaskDependency;
+import com.example.businessLogic.repository.ProjectRepository;
+import com.example.businessLogic.repository.TaskDependencyRepository;
+import com.example.businessLogic.repository.TaskRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskDependencyService {
+
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+
+    @Transactional
+    public TaskDependency addDependency(String blockedTaskId, String blockerTaskId) {
+        Task blocked = taskRepository.findById(blockedTaskId)
+                .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + blockedTaskId));
+        Task blocker = taskRepository.findById(blockerTaskId)
+                .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + blockerTaskId));
+
+        if (blocked.getProject() == null || blocker.getProject() == null
+                || !blocked.getProject().getId().equals(blocker.getProject().getId())) {
+            throw new IllegalArgumentException("Зависимости возможны только между задачами одного проекта");
+        }
+        String projectId = blocked.getProject().getId();
+
+        // Блокировка проекта сериализует вставки, иначе две встречные связи могут пройти проверку одновременно
+        projectRepository.findByIdForUpdate(projectId)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+
+        if (taskDependencyRepository.existsByBlockerTaskIdAndBlockedTaskId(blockerTaskId, blockedTaskId)) {
+            throw new IllegalStateException("Зависимость уже существует");
+        }
+
+        Map<String, Integer> index = new HashMap<>();
+        index.put(blockerTaskId, 0);
+        index.put(blockedTaskId, 1);
+        TaskDependencyGraph graph = buildGraph(taskDependencyRepository.findEdgesByProjectId(projectId), index, true);
+
+        if (graph.wouldCreateCycle(index.get(blockerTaskId), index.get(blockedTaskId))) {
+            throw new IllegalStateException("Зависимость создаёт цикл");
+        }
+
+        TaskDependency dependency = TaskDependency.builder()
+                .blockerTaskId(blockerTaskId)
+                .blockedTaskId(blockedTaskId)
+                .projectId(projectId)
+                .build();
+
+        return taskDependencyRepository.save(dependency);
+    }
+
+    @Transactional
+    public void removeDependency(String blockedTaskId, String blockerTaskId) {
+        taskDependencyRepository.deleteByBlockerAndBlocked(blockerTaskId, blockedTaskId);
+    }
+
+    public List<TaskDependency> getBlockers(String taskId) {
+        return taskDependencyRepository.findByBlockedTaskId(taskId);
+    }
+
+    public List<TaskDependency> getBlockedTasks(String taskId) {
+        return taskDependencyRepository.findByBlockerTaskId(taskId);
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectScheduleDto analyzeProject(String projectId) {
+        List<Object[]> rows = taskRepository.findScheduleRowsByProjectId(projectId);
+
+        int n = rows.size();
+        String[] ids = new String[n];
+        int[] start = new int[n];
+        int[] duration = new int[n];
+        Map<String, Integer> index = new HashMap<>(n * 2);
+
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (String) row[0];
+            LocalDate startDate = row[1] != null ? (LocalDate) row[1] : (LocalDate) row[3];
+            LocalDate deadline = row[2] != null ? (LocalDate) row[2] : startDate;
+
+            start[i] = (int) startDate.toEpochDay();
+            duration[i] = (int) Math.max(1, ChronoUnit.DAYS.between(startDate, deadline) + 1);
+            index.put(ids[i], i);
+        }
+
+        TaskDependencyGraph graph = buildGraph(taskDependencyRepository.findEdgesByProjectId(projectId), index, false);
+        TaskDependencyGraph.Schedule schedule = graph.schedule(start, duration);
+
+        boolean[] critical = new boolean[n];
+        List<String> criticalPath = new ArrayList<>(schedule.criticalPath().length);
+        for (int node : schedule.criticalPath()) {
+            critical[node] = true;
+            criticalPath.add(ids[node]);
+        }
+
+        List<TaskScheduleDto> tasks = new ArrayList<>(n);
+        int projectFinish = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            projectFinish = Math.max(projectFinish, schedule.earliestFinish()[i]);
+            tasks.add(TaskScheduleDto.builder()
+                    .taskId(ids[i])
+                    .earliestStart(LocalDate.ofEpochDay(schedule.earliestStart()[i]))
+                    .earliestFinish(LocalDate.ofEpochDay(schedule.earliestFinish()[i] - 1L))
+                    .critical(critical[i])
+                    .build());
+        }
+
+        return ProjectScheduleDto.builder()
+                .projectId(projectId)
+                .earliestFinish(n == 0 ? null : LocalDate.ofEpochDay(projectFinish - 1L))
+                .criticalPath(criticalPath)
+                .tasks(tasks)
+                .build();
+    }
+
+    /**
+     * Строит граф по парам (blocker, blocked). Если extendIndex, неизвестные id получают новые индексы,
+     * иначе рёбра к задачам вне индекса отбрасываются.
+     */
+    private TaskDependencyGraph buildGraph(List<Object[]> edges, Map<String, Integer> index, boolean extendIndex) {
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        int count = 0;
+
+        for (Object[] edge : edges) {
+            Integer u = resolve(index, (String) edge[0], extendIndex);
+            Integer v = resolve(index, (String) edge[1], extendIndex);
+            if (u == null || v == null) {
+                continue;
+            }
+            from[count] = u;
+            to[count] = v;
+            count++;
+        }
+
+        return TaskDependencyGraph.of(index.size(), from, to, count);
+    }
+
+    private Integer resolve(Map<String, Integer> index, String id, boolean extendIndex) {
+        Integer value = index.get(id);
+        if (value == null && extendIndex) {
+            value = index.size();
+            index.put(id, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.TaskChangeMessage;
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.example.businessLogic.entity.TaskChangeAction;
+import com.example.businessLogic.entity.TaskEvent;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import com.example.businessLogic.repository.TaskEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Рассылает изменения задач участникам проекта через /ws/notifications.
+ * Каждое изменение пишется в task_events в транзакции задачи, и номер события выдаёт БД:
+ * клиент может догнать пропущенное после переподключения к любому узлу и после рестарта.
+ * Быстрые правки одной задачи склеиваются в одно событие на получателя за окно рассылки.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskEventPublisher {
+
+    // Больше событий не досылаем: клиенту дешевле перечитать задачи проекта
+    static final int HISTORY_SIZE = 256;
+
+    private final ProjectMemberRepository projectMemberRepository;
+    private final TaskEventRepository taskEventRepository;
+    private final NotificationSender notificationSender;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${tasks.events.retention-hours:72}")
+    private int retentionHours;
+
+    // userId -> (taskId -> последнее событие), доступ к внутренней карте только через compute
+    private final Map<String, Map<String, TaskChangeMessage>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Синхронно, в транзакции изменения задачи: событие попадает в журнал тогда и только тогда, когда коммитится задача.
+     */
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskEvent saved = taskEventRepository.save(TaskEvent.builder()
+                .projectId(event.projectId())
+                .taskId(event.taskId())
+                .action(event.action())
+                .title(event.title())
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        eventPublisher.publishEvent(new TaskEventRecordedEvent(toMessage(saved)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRecorded(TaskEventRecordedEvent event) {
+        TaskChangeMessage message = event.message();
+        for (String userId : projectMemberRepository.findUserIdsByProjectId(message.getProjectId())) {
+            pending.compute(userId, (id, tasks) -> {
+                Map<String, TaskChangeMessage> result = tasks != null ? tasks : new LinkedHashMap<>();
+                result.merge(message.getTaskId(), message, this::coalesce);
+                return result;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.events.coalesce-ms:250}")
+    public void flush() {
+        // Участники одного проекта обычно получают одинаковый набор событий - он сериализуется один раз на всех
+        Map<List<TaskChangeMessage>, List<String>> recipients = new LinkedHashMap<>();
+        for (String userId : pending.keySet()) {
+            Map<String, TaskChangeMessage> tasks = pending.remove(userId);
+            if (tasks == null || tasks.isEmpty()) {
+                continue;
+            }
+            List<TaskChangeMessage> events = new ArrayList<>(tasks.values());
+            events.sort(Comparator.comparingLong(TaskChangeMessage::getEventId));
+            recipients.computeIfAbsent(events, key -> new ArrayList<>()).add(userId);
+        }
+        recipients.forEach((events, userIds) ->
+                notificationSender.sendToUsers(userIds, new WebSocketMessage.TaskChanges(events)));
+    }
+
+    /**
+     * Досылает события проекта после lastEventId или просит клиента перечитать задачи, если история потеряна.
+     */
+    @Transactional(readOnly = true)
+    public void resume(String userId, String projectId, long lastEventId) {
+        if (projectId == null || !projectMemberRepository.existsByProjectIdAndUserId(projectId, userId)) {
+            log.warn("Попытка подписки на события чужого проекта: userId={}, projectId={}", userId, projectId);
+            return;
+        }
+
+        long lastId = taskEventRepository.findLastId(projectId);
+        if (lastEventId == lastId) {
+            return;
+        }
+
+        List<TaskEvent> missed = lastEventId > lastId || lastEventId + 1 < taskEventRepository.findOldestId()
+                ? List.of()
+                : taskEventRepository.findAfter(projectId, lastEventId, PageRequest.of(0, HISTORY_SIZE + 1));
+
+        // Пусто при lastEventId < lastId значит, что нужная часть журнала уже удалена (или клиент пришёл с чужим номером)
+        if (missed.isEmpty() || missed.size() > HISTORY_SIZE) {
+            notificationSender.sendMessage(userId, new WebSocketMessage.TaskResyncRequired(projectId, lastId));
+        } else {
+            notificationSender.sendMessage(userId, new WebSocketMessage.TaskChanges(
+                    missed.stream().map(this::toMessage).toList()));
+        }
+    }
+
+    @Scheduled(cron = "${tasks.events.cleanup-cron:0 20 * * * *}")
+    @Transactional
+    public void cleanup() {
+        int deleted = taskEventRepository.deleteOlderThan(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("Удалено событий задач из журнала: {}", deleted);
+        }
+    }
+
+    private TaskChangeMessage toMessage(TaskEvent event) {
+        return TaskChangeMessage.builder()
+                .eventId(event.getId())
+                .projectId(event.getProjectId())
+                .taskId(event.getTaskId())
+                .action(event.getAction())
+                .title(event.getTitle())
+                .build();
+    }
+
+    private TaskChangeMessage coalesce(TaskChangeMessage previous, TaskChangeMessage next) {
+        if (previous.getAction() == TaskChangeAction.CREATED) {
+            // Клиент ещё не видел задачу: создание и удаление взаимно уничтожаются
+            return next.getAction() == TaskChangeAction.DELETED
+                    ? null
+                    : next.toBuilder().action(TaskChangeAction.CREATED).build();
+        }
+        return next;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.TaskChangeMessage;
+
+/**
+ * Изменение задачи записано в task_events; рассылается участникам после коммита.
+ */
+public record TaskEventRecordedEvent(TaskChangeMessage message) {
+}
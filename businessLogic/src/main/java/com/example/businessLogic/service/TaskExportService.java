@@ -0,0 +1,202 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import com.example.businessLogic.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskExportService {
+
+    private static final String[] CSV_HEADER = {
+            "id", "title", "projectId", "creatorId", "priority", "status",
+            "createDate", "startDate", "deadlineDate", "completionDate"
+    };
+
+    private final TaskRepository taskRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv; charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            if ("csv".equalsIgnoreCase(value)) {
+                return CSV;
+            }
+            if ("ndjson".equalsIgnoreCase(value) || "json".equalsIgnoreCase(value)) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Неизвестный формат: " + value);
+        }
+    }
+
+    /**
+     * Вызывается до openResponse, чтобы отказ ушёл обычным ответом 403, а не оборванным файлом.
+     */
+    public void checkProjectAccess(String projectId, String userId) {
+        if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, userId)) {
+            throw new AccessDeniedException("У вас нет доступа к этому проекту");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportProjectTasks(String projectId, Format format, OutputStream out) throws IOException {
+        try (Stream<Task> tasks = taskRepository.streamByProjectId(projectId)) {
+            return write(tasks, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportPersonalTasks(String userId, Format format, OutputStream out) throws IOException {
+        try (Stream<Task> tasks = taskRepository.streamPersonalByCreatorId(userId)) {
+            return write(tasks, format, out);
+        }
+    }
+
+    /**
+     * Выставляет заголовки ответа и при необходимости оборачивает поток в gzip.
+     */
+    public OutputStream openResponse(HttpServletResponse response, Format format, String fileName, boolean gzip)
+            throws IOException {
+        response.setContentType(format.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + fileName + "." + format.extension() + "\"");
+        if (!gzip) {
+            return response.getOutputStream();
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return new GZIPOutputStream(response.getOutputStream(), 16 * 1024);
+    }
+
+    private long write(Stream<Task> tasks, Format format, OutputStream out) throws IOException {
+        long rows = format == Format.NDJSON ? writeNdjson(tasks.iterator(), out) : writeCsv(tasks.iterator(), out);
+        log.info("Экспорт задач завершён: format={}, rows={}", format, rows);
+        return rows;
+    }
+
+    private long writeCsv(Iterator<Task> tasks, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write('\n');
+
+        long rows = 0;
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            writeCsvField(writer, task.getId());
+            writer.write(',');
+            writeCsvField(writer, task.getTitle());
+            writer.write(',');
+            writeCsvField(writer, task.getProject() != null ? task.getProject().getId() : null);
+            writer.write(',');
+            writeCsvField(writer, task.getCreator() != null ? task.getCreator().getId() : null);
+            writer.write(',');
+            writeCsvField(writer, task.getPriority() != null ? task.getPriority().getName() : null);
+            writer.write(',');
+            writeCsvField(writer, task.getStatus() != null ? task.getStatus().getName() : null);
+            writer.write(',');
+            writeCsvField(writer, format(task.getCreateDate()));
+            writer.write(',');
+            writeCsvField(writer, format(task.getStartDate()));
+            writer.write(',');
+            writeCsvField(writer, format(task.getDeadlineDate()));
+            writer.write(',');
+            writeCsvField(writer, format(task.getCompletionDate()));
+            writer.write('\n');
+
+            // Не даём контексту персистентности расти вместе с выгрузкой
+            entityManager.detach(task);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<Task> tasks, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long rows = 0;
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            generator.writeStartObject();
+            generator.writeStringField("id", task.getId());
+            generator.writeStringField("title", task.getTitle());
+            generator.writeStringField("projectId", task.getProject() != null ? task.getProject().getId() : null);
+            generator.writeStringField("creatorId", task.getCreator() != null ? task.getCreator().getId() : null);
+            generator.writeStringField("priority", task.getPriority() != null ? task.getPriority().getName() : null);
+            generator.writeStringField("status", task.getStatus() != null ? task.getStatus().getName() : null);
+            generator.writeStringField("createDate", format(task.getCreateDate()));
+            generator.writeStringField("startDate", format(task.getStartDate()));
+            generator.writeStringField("deadlineDate", format(task.getDeadlineDate()));
+            generator.writeStringField("completionDate", format(task.getCompletionDate()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            entityManager.detach(task);
+            rows++;
+        }
+        generator.flush();
+        return rows;
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private String format(LocalDate date) {
+        return date != null ? date.toString() : null;
+    }
+}
@@ -0,0 +1,505 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.TaskImportResult;
+import com.example.businessLogic.entity.Priority;
+import com.example.businessLogic.entity.Status;
+import com.example.businessLogic.repository.PriorityRepository;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import com.example.businessLogic.repository.ProjectRepository;
+import com.example.businessLogic.repository.StatusRepository;
+import com.example.businessLogic.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskImportService {
+
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int USER_CACHE_SIZE = 10_000;
+    private static final int MISSING_USER_CACHE_SIZE = 1_000;
+    private static final String COMPLETED_STATUS = "завершена";
+
+    private static final String INSERT_TASK = "insert into tasks (task_id, task_title, project_id, creator_id, " +
+            "create_date, start_date, deadline_date, completion_date, priority_id, status_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ASSIGNEE = "insert into task_assignees (task_id, user_id) values (?, ?)";
+    private static final int[] TASK_COLUMN_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DATE,
+            Types.DATE, Types.DATE, Types.DATE, Types.INTEGER, Types.INTEGER
+    };
+    private static final int[] ASSIGNEE_COLUMN_TYPES = {Types.VARCHAR, Types.VARCHAR};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PriorityRepository priorityRepository;
+    private final StatusRepository statusRepository;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ObjectMapper objectMapper;
+    private final ProjectWorkloadService projectWorkloadService;
+
+    @Value("${tasks.import.chunk-size:500}")
+    private int chunkSize;
+
+    // Ограничивает строку NDJSON и запись CSV: незакрытая кавычка или файл в одну строку не читаются в память целиком
+    @Value("${tasks.import.max-line-length:65536}")
+    private int maxLineLength;
+
+    @Value("${tasks.import.report-dir:${java.io.tmpdir}/task-imports}")
+    private String reportDir;
+
+    @Value("${tasks.import.report-ttl-hours:24}")
+    private int reportTtlHours;
+
+    public TaskImportResult importTasks(String projectId, String creatorId,
+                                        TaskExportService.Format format, InputStream in) throws IOException {
+        if (projectId != null) {
+            if (!projectRepository.existsById(projectId)) {
+                throw new EntityNotFoundException("Project not found");
+            }
+            if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, creatorId)) {
+                throw new AccessDeniedException("У вас нет доступа к этому проекту");
+            }
+        }
+
+        ImportContext context = new ImportContext(projectId, creatorId, UUID.randomUUID().toString());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 16 * 1024);
+
+        try {
+            if (format == TaskExportService.Format.NDJSON) {
+                readNdjson(reader, context);
+            } else {
+                readCsv(reader, context);
+            }
+            flush(context);
+        } finally {
+            context.closeReport();
+        }
+
+        // Импорт пишет задачи пачками в обход TaskService и TaskChangedEvent
+        if (projectId != null && context.imported > 0) {
+            projectWorkloadService.invalidate(projectId);
+        }
+
+        log.info("Импорт задач завершён: importId={}, rows={}, imported={}, failed={}",
+                context.importId, context.totalRows, context.imported, context.failed);
+
+        return TaskImportResult.builder()
+                .importId(context.importId)
+                .totalRows(context.totalRows)
+                .imported(context.imported)
+                .failed(context.failed)
+                .errorsUrl(context.failed > 0 ? "/tasks/import/" + context.importId + "/errors" : null)
+                .build();
+    }
+
+    /**
+     * Файл с ошибками импорта пользователя или null, если такого нет.
+     */
+    public Path getErrorReport(String userId, String importId) {
+        // importId из пути запроса: всё, что не UUID, не может быть нашим отчётом (и не должно попасть в путь файла)
+        try {
+            UUID.fromString(importId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Path path = reportPath(userId, importId);
+        return Files.exists(path) ? path : null;
+    }
+
+    @Scheduled(cron = "0 30 * * * *")
+    public void cleanupReports() {
+        Path root = Paths.get(reportDir);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofHours(reportTtlHours));
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        try {
+                            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    })
+                    .forEach(file -> {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException e) {
+                            log.warn("Не удалось удалить отчёт импорта {}", file);
+                        }
+                    });
+        } catch (IOException e) {
+            log.error("Ошибка очистки отчётов импорта", e);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportContext context) throws IOException {
+        CsvReader csv = new CsvReader(reader, maxLineLength);
+        List<String> header;
+        try {
+            header = csv.readRecord();
+        } catch (CsvReader.RecordTooLongException e) {
+            context.reject(1, e.getMessage() + ", чтение файла остановлено");
+            return;
+        }
+        if (header == null) {
+            return;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // BOM от Excel в начале файла
+            columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+        }
+
+        List<String> record;
+        while (true) {
+            try {
+                record = csv.readRecord();
+            } catch (CsvReader.RecordTooLongException e) {
+                // Где кончается слишком длинная запись, неизвестно, поэтому остаток файла не разбирается
+                context.reject(++context.totalRows, e.getMessage() + ", чтение файла остановлено");
+                return;
+            }
+            if (record == null) {
+                return;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            List<String> values = record;
+            accept(context, name -> {
+                Integer index = columns.get(name);
+                return index != null && index < values.size() ? values.get(index) : null;
+            });
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportContext context) throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (readLine(reader, line)) {
+            if (line.length() > maxLineLength) {
+                context.totalRows++;
+                context.reject(context.totalRows, "Строка длиннее " + maxLineLength + " символов");
+                continue;
+            }
+            if (line.toString().isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line.toString());
+            } catch (IOException e) {
+                context.totalRows++;
+                context.reject(context.totalRows, "Некорректный JSON");
+                continue;
+            }
+            accept(context, name -> {
+                JsonNode value = node.get(name);
+                if (value == null || value.isNull()) {
+                    return null;
+                }
+                if (value.isArray()) {
+                    List<String> items = new ArrayList<>();
+                    value.forEach(item -> items.add(item.asText()));
+                    return String.join(";", items);
+                }
+                return value.asText();
+            });
+        }
+    }
+
+    /**
+     * Читает строку в line, не накапливая больше maxLineLength + 1 символов: хвост длинной строки
+     * дочитывается и отбрасывается, а по длине line видно, что строку нужно отклонить.
+     * Возвращает false, если поток закончился.
+     */
+    private boolean readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\r' && line.length() <= maxLineLength) {
+                line.append((char) c);
+            }
+        }
+        return read;
+    }
+
+    private void accept(ImportContext context, Function<String, String> field) throws IOException {
+        long rowNumber = ++context.totalRows;
+        try {
+            context.chunk.add(parseRow(rowNumber, field, context));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            context.reject(rowNumber, e.getMessage());
+        }
+
+        if (context.chunk.size() >= chunkSize) {
+            flush(context);
+        }
+    }
+
+    private ImportRow parseRow(long rowNumber, Function<String, String> field, ImportContext context) {
+        String title = trimToNull(field.apply("title"));
+        if (title == null) {
+            throw new IllegalArgumentException("Не указано название задачи");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Название длиннее " + MAX_TITLE_LENGTH + " символов");
+        }
+
+        LocalDate startDate = parseDate(field.apply("startDate"));
+        LocalDate deadlineDate = parseDate(field.apply("deadlineDate"));
+        if (startDate != null && deadlineDate != null && deadlineDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Дедлайн раньше даты начала");
+        }
+
+        Integer priorityId = resolve(context.priorities, trimToNull(field.apply("priority")), "Неизвестный приоритет");
+        Integer statusId = resolve(context.statuses, trimToNull(field.apply("status")), "Неизвестный статус");
+
+        // Повтор исполнителя в строке дал бы дубль первичного ключа task_assignees и сорвал бы всю пачку
+        Set<String> assignees = new LinkedHashSet<>();
+        String assigneeValue = trimToNull(field.apply("assignees"));
+        if (assigneeValue != null) {
+            for (String id : assigneeValue.split(";")) {
+                if (!id.isBlank()) {
+                    assignees.add(id.trim());
+                }
+            }
+        }
+
+        return new ImportRow(rowNumber, title, startDate, deadlineDate, priorityId, statusId,
+                statusId != null && statusId.equals(context.completedStatusId), assignees);
+    }
+
+    private void flush(ImportContext context) throws IOException {
+        if (context.chunk.isEmpty()) {
+            return;
+        }
+
+        // Пропавшие пользователи этой пачки считаются отдельно: LRU может вытеснить их до проверки строк
+        Set<String> missingInChunk = new HashSet<>();
+        Set<String> unknown = new HashSet<>();
+        for (ImportRow row : context.chunk) {
+            for (String id : row.assignees()) {
+                // get, а не containsKey: только он продвигает запись в порядке доступа LRU
+                if (context.knownUsers.get(id) != null) {
+                    continue;
+                }
+                if (context.missingUsers.get(id) != null) {
+                    missingInChunk.add(id);
+                } else {
+                    unknown.add(id);
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            // В задачу проекта можно назначить только его участника
+            Set<String> found = context.projectId != null
+                    ? new HashSet<>(projectMemberRepository.findMemberUserIds(context.projectId, unknown))
+                    : userRepository.findExistingIds(unknown);
+            for (String id : unknown) {
+                if (found.contains(id)) {
+                    context.knownUsers.put(id, Boolean.TRUE);
+                } else {
+                    context.missingUsers.put(id, Boolean.TRUE);
+                    missingInChunk.add(id);
+                }
+            }
+        }
+
+        List<ImportRow> valid = new ArrayList<>(context.chunk.size());
+        for (ImportRow row : context.chunk) {
+            String missing = row.assignees().stream().filter(missingInChunk::contains).findFirst().orElse(null);
+            if (missing != null) {
+                context.reject(row.rowNumber(), context.projectId != null
+                        ? "Пользователь не является участником проекта: " + missing
+                        : "Пользователь не найден: " + missing);
+            } else {
+                valid.add(row);
+            }
+        }
+        context.chunk.clear();
+
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(valid, context));
+            context.imported += valid.size();
+        } catch (RuntimeException e) {
+            log.error("Ошибка сохранения пачки импорта: importId={}", context.importId, e);
+            for (ImportRow row : valid) {
+                context.reject(row.rowNumber(), "Ошибка сохранения");
+            }
+        }
+    }
+
+    private void insert(List<ImportRow> rows, ImportContext context) {
+        Date today = Date.valueOf(LocalDate.now());
+        List<Object[]> tasks = new ArrayList<>(rows.size());
+        List<Object[]> assignees = new ArrayList<>();
+
+        for (ImportRow row : rows) {
+            String taskId = UUID.randomUUID().toString();
+            tasks.add(new Object[]{
+                    taskId, row.title(), context.projectId, context.creatorId, today,
+                    toSqlDate(row.startDate()), toSqlDate(row.deadlineDate()), row.completed() ? today : null,
+                    row.priorityId(), row.statusId()
+            });
+            for (String userId : row.assignees()) {
+                assignees.add(new Object[]{taskId, userId});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_TASK, tasks, TASK_COLUMN_TYPES);
+        if (!assignees.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ASSIGNEE, assignees, ASSIGNEE_COLUMN_TYPES);
+        }
+    }
+
+    private Integer resolve(Map<String, Integer> lookup, String value, String error) {
+        if (value == null) {
+            return null;
+        }
+        Integer id = lookup.get(value.toLowerCase());
+        if (id == null) {
+            throw new IllegalArgumentException(error + ": " + value);
+        }
+        return id;
+    }
+
+    private LocalDate parseDate(String value) {
+        String trimmed = trimToNull(value);
+        return trimmed != null ? LocalDate.parse(trimmed) : null;
+    }
+
+    private String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private Date toSqlDate(LocalDate value) {
+        return value != null ? Date.valueOf(value) : null;
+    }
+
+    private Path reportPath(String userId, String importId) {
+        return Paths.get(reportDir, userId.replaceAll("[^A-Za-z0-9_-]", "_"), importId + ".csv");
+    }
+
+    private static Map<String, Boolean> lruMap(int maxSize) {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private record ImportRow(long rowNumber, String title, LocalDate startDate, LocalDate deadlineDate,
+                             Integer priorityId, Integer statusId, boolean completed, Set<String> assignees) {
+    }
+
+    private class ImportContext {
+        private final String projectId;
+        private final String creatorId;
+        private final String importId;
+        private final List<ImportRow> chunk = new ArrayList<>();
+        // Справочники маленькие, поэтому кешируются целиком на время импорта
+        private final Map<String, Integer> priorities = new HashMap<>();
+        private final Map<String, Integer> statuses = new HashMap<>();
+        // Оба кэша ограничены: файл с миллионом разных id не должен держать их все в памяти
+        private final Map<String, Boolean> knownUsers = lruMap(USER_CACHE_SIZE);
+        private final Map<String, Boolean> missingUsers = lruMap(MISSING_USER_CACHE_SIZE);
+        private Integer completedStatusId;
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private Writer report;
+
+        ImportContext(String projectId, String creatorId, String importId) {
+            this.projectId = projectId;
+            this.creatorId = creatorId;
+            this.importId = importId;
+
+            for (Priority priority : priorityRepository.findAll()) {
+                priorities.put(String.valueOf(priority.getId()), priority.getId());
+                priorities.put(priority.getName().toLowerCase(), priority.getId());
+            }
+            for (Status status : statusRepository.findAll()) {
+                statuses.put(String.valueOf(status.getId()), status.getId());
+                statuses.put(status.getName().toLowerCase(), status.getId());
+                if (COMPLETED_STATUS.equalsIgnoreCase(status.getName())) {
+                    completedStatusId = status.getId();
+                }
+            }
+            knownUsers.put(creatorId, Boolean.TRUE);
+        }
+
+        void reject(long rowNumber, String message) throws IOException {
+            failed++;
+            if (report == null) {
+                Path path = reportPath(creatorId, importId);
+                Files.createDirectories(path.getParent());
+                report = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+                report.write("row,error\n");
+            }
+            report.write(rowNumber + ",\"" + message.replace("\"", "\"\"") + "\"\n");
+        }
+
+        void closeReport() throws IOException {
+            if (report != null) {
+                report.close();
+            }
+        }
+    }
+}
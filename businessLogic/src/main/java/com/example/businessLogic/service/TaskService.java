@@ -4,10 +4,11 @@ import com.example.businessLogic.dto.NotificationRequest;
 import com.example.businessLogic.entity.*;
 import com.example.businessLogic.repository.*;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
@@ -22,9 +23,13 @@ public class TaskService {
     private final StatusRepository statusRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
-    private final NotificationService notificationService;
+    private final NotificationCoalescer notificationCoalescer;
     private final MetricsService metricsService;
+    private final RecurrenceRuleRepository recurrenceRuleRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<Task> getAllTasks() {
         return taskRepository.findAll();
     }
@@ -78,6 +83,7 @@ public class TaskService {
 
         Task savedTask = taskRepository.save(task);
 
+        publishChange(savedTask.getProject(), savedTask, TaskChangeAction.CREATED);
         notifyAssignees(savedTask);
         metricsService.recordTaskCreated();
 
@@ -89,6 +95,7 @@ public class TaskService {
         Task task = getTaskById(id);
 
         checkIfTaskCompleted(task);
+        Project previousProject = task.getProject();
 
         updateTitle(task, taskDetails);
         updateDates(task, taskDetails);
@@ -97,7 +104,17 @@ public class TaskService {
         updateStatus(task, taskDetails);
         updateProject(task, taskDetails);
 
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+
+        if (previousProject != null && (savedTask.getProject() == null
+                || !previousProject.getId().equals(savedTask.getProject().getId()))) {
+            publishChange(previousProject, savedTask, TaskChangeAction.DELETED);
+            publishChange(savedTask.getProject(), savedTask, TaskChangeAction.CREATED);
+        } else {
+            publishChange(savedTask.getProject(), savedTask, TaskChangeAction.UPDATED);
+        }
+
+        return savedTask;
     }
 
     private void checkIfTaskCompleted(Task task) {
@@ -188,44 +205,57 @@ public class TaskService {
     @Transactional
     public void deleteTask(String id) {
         Task task = getTaskById(id);
+        recurrenceRuleRepository.deleteByTemplateTaskId(id);
+        taskDependencyRepository.deleteByTaskId(id);
         taskRepository.delete(task);
+
+        publishChange(task.getProject(), task, TaskChangeAction.DELETED);
     }
 
+    @Transactional(readOnly = true)
     public List<Task> searchTasksByTitle(String title) {
         return taskRepository.findByTitleContainingIgnoreCase(title);
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getTasksByCreator(User creator) {
         return taskRepository.findByCreatorId(creator.getId());
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getTasksByStatus(Integer statusId) {
         return taskRepository.findByStatusId(statusId);
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getTasksByPriority(Integer priorityId) {
         return taskRepository.findByPriorityId(priorityId);
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getTasksByAssignee(String userId) {
         return taskRepository.findByAssigneeId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getOverdueTasks() {
         return taskRepository.findByDeadlineDateBefore(LocalDate.now());
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getTasksWithUpcomingDeadlines(int daysAhead) {
         LocalDate start = LocalDate.now();
         LocalDate end = start.plusDays(daysAhead);
         return taskRepository.findTasksWithUpcomingDeadlines(start, end);
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getProjectTasks(String projectId) {
         Project project = projectRepository.getReferenceById(projectId);
         return taskRepository.getTasksByProject(project);
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getPersonalTasks(String userId) {
         User user = userRepository.getReferenceById(userId);
 
@@ -234,12 +264,20 @@ public class TaskService {
                 .toList();
     }
 
+    private void publishChange(Project project, Task task, TaskChangeAction action) {
+        if (project == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new TaskChangedEvent(project.getId(), task.getId(), action, task.getTitle()));
+    }
+
     private void notifyAssignees(Task task) {
         if (task.getAssignees() == null || task.getAssignees().isEmpty()) {
             return;
         }
 
         String creatorId = task.getCreator().getId();
+        String creatorName = task.getCreator().getUsername();
         String projectName = task.getProject() != null ? task.getProject().getName() : null;
 
         for (User assignee : task.getAssignees()) {
@@ -247,20 +285,25 @@ public class TaskService {
                 continue;
             }
 
-            try {
-                NotificationRequest notification = NotificationRequest.builder()
-                        .title("Новая задача")
-                        .message(task.getCreator().getUsername() + " назначил вам задачу \"" + task.getTitle() + "\""
-                                + " в проекте \"" + projectName + "\"")
-                        .senderId(creatorId)
-                        .type(NotificationType.TASK_ASSIGMENT)
-                        .build();
-
-                notificationService.sendNotification(assignee.getId(), notification);
-                log.info("Уведомление отправлено: userId={}, taskId={}", assignee.getId(), task.getId());
-            } catch (Exception e) {
-                log.error("Ошибка отправки уведомления исполнителю: userId={}, taskId={}", assignee.getId(), task.getId());
-            }
+            NotificationRequest notification = NotificationRequest.builder()
+                    .title("Новая задача")
+                    .message(creatorName + " назначил вам задачу \"" + task.getTitle() + "\""
+                            + " в проекте \"" + projectName + "\"")
+                    .senderId(creatorId)
+                    .type(NotificationType.TASK_ASSIGMENT)
+                    .build();
+
+            // Массовое назначение задач одним автором придёт получателю одним сводным уведомлением.
+            // Уведомление пишется в транзакции задачи: ошибка здесь всё равно пометила бы её на откат,
+            // поэтому она не перехватывается, а задача и уведомления фиксируются вместе
+            notificationCoalescer.submit(assignee.getId(), notification, task.getId(),
+                    NotificationRequest.builder()
+                            .title("Новые задачи")
+                            .message(creatorName + " назначил вам задач: " + NotificationCoalescer.COUNT_PLACEHOLDER)
+                            .senderId(creatorId)
+                            .type(NotificationType.TASK_ASSIGMENT)
+                            .build());
+            log.info("Уведомление поставлено в очередь: userId={}, taskId={}", assignee.getId(), task.getId());
         }
     }
 
@@ -0,0 +1,81 @@
+package com.example.businessLogic.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров: кольцо слотов по tickMs, один поток раз в тик вызывает advance()
+ * и обрабатывает содержимое очередного слота. Постановка и срабатывание - O(1), без таймера на каждый элемент.
+ * Задержка округляется вверх до тика и ограничена оборотом колеса (wheelSize - 1 тиков).
+ */
+@Slf4j
+class TimingWheel<T> {
+
+    private final long tickMs;
+    private final List<List<T>> slots;
+    private final Consumer<T> handler;
+
+    // Номер текущего тика, меняется только под монитором колеса
+    private long tick;
+
+    TimingWheel(long tickMs, int wheelSize, Consumer<T> handler) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Некорректные параметры колеса таймеров");
+        }
+        this.tickMs = tickMs;
+        this.handler = handler;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    synchronized void schedule(T item, long delayMs) {
+        long ticks = Math.max(1, (delayMs + tickMs - 1) / tickMs);
+        ticks = Math.min(ticks, slots.size() - 1);
+        slots.get((int) ((tick + ticks) % slots.size())).add(item);
+    }
+
+    /**
+     * Сдвигает колесо на один тик и обрабатывает истёкшие элементы вне монитора,
+     * чтобы обработчик не задерживал постановку новых.
+     */
+    void advance() {
+        List<T> expired;
+        synchronized (this) {
+            tick++;
+            int index = (int) (tick % slots.size());
+            expired = slots.get(index);
+            if (expired.isEmpty()) {
+                return;
+            }
+            slots.set(index, new ArrayList<>());
+        }
+        expired.forEach(this::fire);
+    }
+
+    /**
+     * Снимает с колеса все элементы без ожидания и обрабатывает их, например при остановке приложения.
+     */
+    void fireAll() {
+        List<T> pending = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < slots.size(); i++) {
+                pending.addAll(slots.get(i));
+                slots.set(i, new ArrayList<>());
+            }
+        }
+        pending.forEach(this::fire);
+    }
+
+    private void fire(T item) {
+        try {
+            handler.accept(item);
+        } catch (Exception e) {
+            log.error("Ошибка обработки таймера колеса: {}", e.getMessage(), e);
+        }
+    }
+}
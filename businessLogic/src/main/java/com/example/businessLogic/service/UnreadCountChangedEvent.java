@@ -0,0 +1,7 @@
+package com.example.businessLogic.service;
+
+import java.time.LocalDateTime;
+
+public record UnreadCountChangedEvent(String ownerId, long unreadCount, long version,
+                                      long readUpToId, LocalDateTime readUpToAt) {
+}
@@ -0,0 +1,176 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.example.businessLogic.entity.NotificationCounter;
+import com.example.businessLogic.repository.NotificationCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Счётчики непрочитанных уведомлений: строка в notification_counters меняется вместе с уведомлениями,
+ * после коммита новое значение попадает в локальный кэш и отправляется клиенту.
+ * Кэш живёт недолго, чтобы узел увидел изменения, сделанные на других узлах, и ограничен по размеру:
+ * вытесняются давно не запрошенные пользователи.
+ * В той же строке хранится отметка «прочитано до», поэтому «отметить все» - запись одной строки.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+
+    private static final int CACHE_SIZE = 10_000;
+
+    private final NotificationCounterRepository counterRepository;
+    private final NotificationSender notificationSender;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${notifications.unread.cache-ttl-ms:5000}")
+    private long cacheTtlMs;
+
+    private final Map<String, CachedCount> cache = Collections.synchronizedMap(lruMap(CACHE_SIZE));
+
+    @Transactional(readOnly = true)
+    public long getUnreadCount(String ownerId) {
+        return cached(ownerId).unreadCount();
+    }
+
+    /**
+     * Отметка «прочитано до» для чтения списков; для изменения состояния прочтения нужен lockReadState.
+     */
+    @Transactional(readOnly = true)
+    public long getReadUpToId(String ownerId) {
+        return cached(ownerId).readUpToId();
+    }
+
+    /**
+     * Блокирует счётчики владельцев до конца транзакции и возвращает их отметки «прочитано до».
+     * Вызывается до вставки уведомлений и до изменения is_read: пока есть незакоммиченная вставка,
+     * markAllRead ждёт блокировку и не сдвинет отметку за уведомление, которого пользователь не видел.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, Long> lockReadState(Collection<String> ownerIds) {
+        String[] owners = ownerIds.stream().distinct().sorted().toArray(String[]::new);
+        if (owners.length == 0) {
+            return Map.of();
+        }
+        counterRepository.createMissing(owners);
+
+        Map<String, Long> readUpTo = new HashMap<>();
+        for (NotificationCounterRepository.OwnerReadState state : counterRepository.lockAll(owners)) {
+            readUpTo.put(state.getOwnerId(), state.getReadUpToId());
+        }
+        return readUpTo;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long lockReadState(String ownerId) {
+        return lockReadState(List.of(ownerId)).getOrDefault(ownerId, 0L);
+    }
+
+    /**
+     * Отмечает прочитанными все уведомления владельца сдвигом отметки, строки уведомлений не меняются.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markAllRead(String ownerId) {
+        lockReadState(ownerId);
+        NotificationCounterRepository.CounterValue value = counterRepository.markAllRead(ownerId, LocalDateTime.now());
+        eventPublisher.publishEvent(changed(ownerId, value));
+    }
+
+    /**
+     * Меняет счётчик в транзакции вызывающего кода.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(String ownerId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        NotificationCounterRepository.CounterValue value = counterRepository.applyDelta(ownerId, delta);
+        eventPublisher.publishEvent(changed(ownerId, value));
+    }
+
+    /**
+     * Меняет счётчики многих владельцев одним запросом в транзакции вызывающего кода.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjustAll(Collection<String> ownerIds, long delta) {
+        if (delta == 0 || ownerIds.isEmpty()) {
+            return;
+        }
+        String[] owners = ownerIds.stream().distinct().sorted().toArray(String[]::new);
+        for (NotificationCounterRepository.OwnerCounterValue value : counterRepository.applyDeltaToAll(owners, delta)) {
+            eventPublisher.publishEvent(changed(value.getOwnerId(), value));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChanged(UnreadCountChangedEvent event) {
+        CachedCount fresh = new CachedCount(event.unreadCount(), event.version(), event.readUpToId(),
+                event.readUpToAt(), System.currentTimeMillis());
+        cache.merge(event.ownerId(), fresh, CachedCount::newer);
+
+        notificationSender.sendMessage(event.ownerId(),
+                new WebSocketMessage.UnreadCount(event.unreadCount(), event.version()));
+    }
+
+    private CachedCount cached(String ownerId) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(ownerId);
+        if (cached != null && now - cached.loadedAt() < cacheTtlMs) {
+            return cached;
+        }
+
+        // Чтение ничего не пишет: счётчика ещё нет - значение считается по уведомлениям с версией 0,
+        // строку счётчика создаст первое изменение уведомлений (lockReadState), и её версия вытеснит это значение
+        Optional<NotificationCounter> counter = counterRepository.findById(ownerId);
+        CachedCount loaded = counter
+                .map(value -> new CachedCount(value.getUnreadCount(), value.getVersion(),
+                        value.getReadUpToId(), value.getReadUpToAt(), now))
+                .orElseGet(() -> new CachedCount(counterRepository.countUnread(ownerId), 0, 0, null, now));
+        // Read-only транзакция могла прочитать отстающую реплику: такое значение отдаётся вызывающему,
+        // но в кэш не попадает, иначе до конца TTL перекрывало бы только что закоммиченные изменения
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return cached != null ? cached.newer(loaded) : loaded;
+        }
+        return cache.merge(ownerId, loaded, CachedCount::newer);
+    }
+
+    private static Map<String, CachedCount> lruMap(int maxSize) {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private UnreadCountChangedEvent changed(String ownerId, NotificationCounterRepository.CounterValue value) {
+        return new UnreadCountChangedEvent(ownerId, value.getUnreadCount(), value.getVersion(),
+                value.getReadUpToId(), value.getReadUpToAt());
+    }
+
+    record CachedCount(long unreadCount, long version, long readUpToId, LocalDateTime readUpToAt, long loadedAt) {
+
+        // Коммиты могут завершиться не в порядке изменений, поэтому побеждает большая версия
+        CachedCount newer(CachedCount other) {
+            return other.version >= version ? other : this;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.businessLogic.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пинг открытых WebSocket-сессий узла и закрытие тех, от кого давно не было ни кадра, ни pong.
+ * Без этого оборванное соединение держалось в реестре до первой неудачной отправки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebSocketHeartbeat {
+
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final NotificationSender notificationSender;
+    private final MetricsService metricsService;
+
+    @Value("${notifications.ws.idle-timeout-ms:75000}")
+    private long idleTimeoutMs;
+
+    @Value("${notifications.ws.reap-batch-size:500}")
+    private int reapBatchSize;
+
+    @PostConstruct
+    public void registerGauges() {
+        metricsService.monitorWebSocketSessions(sessionRegistry::getSessionCount, sessionRegistry::getUserCount);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.ws.ping-interval-ms:25000}")
+    public void beat() {
+        long idleBefore = System.currentTimeMillis() - idleTimeoutMs;
+        List<OutboundWebSocketSession> idle = new ArrayList<>();
+
+        for (WebSocketSession session : sessionRegistry.getAllSessions()) {
+            if (!session.isOpen()) {
+                // Закрытие прошло мимо afterConnectionClosed, сессию снимаем сами
+                notificationSender.removeSession(session);
+                continue;
+            }
+            if (session instanceof OutboundWebSocketSession outbound && outbound.getLastSeenAt() < idleBefore) {
+                // Остальные дождутся следующего прохода, чтобы разом не закрывать тысячи соединений
+                if (idle.size() < reapBatchSize) {
+                    idle.add(outbound);
+                }
+                continue;
+            }
+            try {
+                // Ping идёт через очередь сессии, как и обычные сообщения
+                session.sendMessage(new PingMessage());
+            } catch (Exception e) {
+                log.debug("Не удалось отправить ping в сессию {}", session.getId(), e);
+            }
+        }
+
+        for (OutboundWebSocketSession outbound : idle) {
+            outbound.terminate("idle_timeout");
+            notificationSender.removeSession(outbound);
+        }
+        if (!idle.isEmpty()) {
+            log.info("Закрыто неактивных WebSocket-сессий: {}", idle.size());
+        }
+    }
+}
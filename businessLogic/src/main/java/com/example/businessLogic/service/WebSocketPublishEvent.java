@@ -0,0 +1,9 @@
+package com.example.businessLogic.service;
+
+import java.util.Collection;
+
+/**
+ * Сериализованное сообщение для сессий пользователей на всех узлах; уходит в шину после коммита.
+ */
+public record WebSocketPublishEvent(Collection<String> userIds, String payload) {
+}
@@ -0,0 +1,74 @@
+package com.example.businessLogic.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Открытые WebSocket-сессии текущего узла: у пользователя может быть несколько вкладок,
+ * обратный индекс sessionId -> userId позволяет снять сессию при отключении без перебора.
+ */
+@Component
+public class WebSocketSessionRegistry {
+
+    // userId -> (sessionId -> сессия); ключ по id, потому что в реестре лежат обёртки над сессиями контейнера
+    private final Map<String, Map<String, WebSocketSession>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, String> userBySessionId = new ConcurrentHashMap<>();
+
+    public void register(String userId, WebSocketSession session) {
+        userBySessionId.put(session.getId(), userId);
+        // compute сериализует работу с набором пользователя, поэтому сессия не попадёт в уже удалённый набор
+        sessionsByUser.compute(userId, (id, sessions) -> {
+            Map<String, WebSocketSession> result = sessions != null ? sessions : new ConcurrentHashMap<>();
+            result.put(session.getId(), session);
+            return result;
+        });
+    }
+
+    /**
+     * Снимает сессию и возвращает её владельца или null, если сессия не была зарегистрирована.
+     */
+    public String unregister(WebSocketSession session) {
+        String userId = userBySessionId.remove(session.getId());
+        if (userId != null) {
+            sessionsByUser.computeIfPresent(userId, (id, sessions) -> {
+                sessions.remove(session.getId());
+                return sessions.isEmpty() ? null : sessions;
+            });
+        }
+        return userId;
+    }
+
+    public Collection<WebSocketSession> getSessions(String userId) {
+        Map<String, WebSocketSession> sessions = sessionsByUser.get(userId);
+        return sessions != null ? sessions.values() : List.of();
+    }
+
+    /**
+     * Снимок всех сессий узла для периодического обхода.
+     */
+    public List<WebSocketSession> getAllSessions() {
+        List<WebSocketSession> result = new ArrayList<>(userBySessionId.size());
+        for (Map<String, WebSocketSession> sessions : sessionsByUser.values()) {
+            result.addAll(sessions.values());
+        }
+        return result;
+    }
+
+    public String getUserId(WebSocketSession session) {
+        return userBySessionId.get(session.getId());
+    }
+
+    public int getSessionCount() {
+        return userBySessionId.size();
+    }
+
+    public int getUserCount() {
+        return sessionsByUser.size();
+    }
+}
@@ -0,0 +1,66 @@
+-- Перевод таблицы notifications на помесячные секции по date (PostgreSQL).
+-- Выполняется вручную в окно обслуживания, после чего включается notifications.retention.partitioned=true:
+-- задача очистки будет заранее создавать секции notifications_pYYYYMM и удалять секции старше срока хранения.
+--
+-- Ограничения секционирования: первичный ключ и уникальные индексы обязаны включать date,
+-- поэтому уникальность invitation_id дальше обеспечивается только приложением.
+
+BEGIN;
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+
+CREATE SEQUENCE notifications_partitioned_id_seq;
+SELECT setval('notifications_partitioned_id_seq', COALESCE((SELECT max(id) FROM notifications_legacy), 0) + 1, false);
+
+-- Общая последовательность изменений и удалений для курсора синхронизации, обычно уже создана приложением
+CREATE SEQUENCE IF NOT EXISTS notification_changes_seq;
+
+CREATE TABLE notifications (
+    id            BIGINT       NOT NULL DEFAULT nextval('notifications_partitioned_id_seq'),
+    owner_id      VARCHAR(255),
+    type          VARCHAR(255),
+    title         VARCHAR(255),
+    date          TIMESTAMP(6) NOT NULL,
+    is_read       BOOLEAN,
+    message       VARCHAR(255),
+    sender_id     VARCHAR(255),
+    invitation_id BIGINT,
+    updated_at    TIMESTAMP(6),
+    group_count   INTEGER,
+    reference_ids TEXT,
+    change_seq    BIGINT       DEFAULT nextval('notification_changes_seq'),
+    PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+ALTER SEQUENCE notifications_partitioned_id_seq OWNED BY notifications.id;
+
+-- Секции на уже накопленные данные и на ближайшие месяцы
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT min(date) FROM notifications_legacy), now()))::date;
+BEGIN
+    WHILE month_start <= (date_trunc('month', now()) + interval '2 months')::date LOOP
+        EXECUTE format('CREATE TABLE notifications_p%s PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYYMM'), month_start, (month_start + interval '1 month')::date);
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO notifications (id, owner_id, type, title, date, is_read, message, sender_id, invitation_id, updated_at,
+                           group_count, reference_ids, change_seq)
+SELECT id, owner_id, type, title, date, is_read, message, sender_id, invitation_id, updated_at, group_count, reference_ids,
+       COALESCE(change_seq, nextval('notification_changes_seq'))
+FROM notifications_legacy;
+
+-- Имена индексов уникальны в схеме, поэтому индексы создаются после удаления старой таблицы
+DROP TABLE notifications_legacy;
+
+CREATE INDEX idx_notifications_owner_date_read ON notifications (owner_id, date DESC, is_read);
+CREATE INDEX idx_notifications_owner_type ON notifications (owner_id, type);
+CREATE INDEX idx_notifications_invitation_id ON notifications (invitation_id);
+CREATE INDEX idx_notifications_owner_date ON notifications (owner_id, date);
+CREATE INDEX idx_notifications_owner_change_seq ON notifications (owner_id, change_seq);
+CREATE INDEX idx_notifications_type_read_date ON notifications (type, is_read, date, id);
+CREATE INDEX idx_notifications_owner_id ON notifications (owner_id, id);
+
+COMMIT;
@@ -0,0 +1,118 @@
+package com.example.businessLogic.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись объявления для проекта на 10k участников: вставка по одной строке на получателя
+ * (как цикл по sendNotification) против многострочных вставок через unnest, как в sendBulkNotification.
+ * Нужен PostgreSQL со схемой приложения: -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user, -Dbenchmark.jdbc.password.
+ * Каждый вызов откатывается, поэтому таблица не растёт.
+ * Запуск: main() из IDE или через exec:java с test-classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkNotificationBenchmark {
+
+    private static final String INSERT_ONE = "INSERT INTO notifications " +
+            "(owner_id, type, title, date, is_read, message, sender_id, updated_at) " +
+            "VALUES (?, 'INFO', 'Объявление', ?, false, 'Текст объявления', 'benchmark', ?) RETURNING id";
+
+    private static final String INSERT_MANY = "INSERT INTO notifications " +
+            "(owner_id, type, title, date, is_read, message, sender_id, updated_at) " +
+            "SELECT o.owner_id, 'INFO', 'Объявление', ?, false, 'Текст объявления', 'benchmark', ? " +
+            "FROM unnest(CAST(? AS varchar[])) AS o(owner_id) RETURNING id, owner_id";
+
+    @Param({"10000"})
+    private int members;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private Connection connection;
+    private String[] owners;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/taskmanager"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"));
+        connection.setAutoCommit(false);
+
+        owners = new String[members];
+        for (int i = 0; i < members; i++) {
+            owners[i] = "benchmark-user-" + i;
+        }
+        Arrays.sort(owners);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long insertPerRecipient() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long checksum = 0;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_ONE)) {
+            for (String owner : owners) {
+                statement.setString(1, owner);
+                statement.setTimestamp(2, now);
+                statement.setTimestamp(3, now);
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    checksum += rows.getLong(1);
+                }
+            }
+        } finally {
+            connection.rollback();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long insertUnnestBatches() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long checksum = 0;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_MANY)) {
+            for (int from = 0; from < owners.length; from += batchSize) {
+                String[] batch = Arrays.copyOfRange(owners, from, Math.min(from + batchSize, owners.length));
+                statement.setTimestamp(1, now);
+                statement.setTimestamp(2, now);
+                statement.setArray(3, connection.createArrayOf("varchar", batch));
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        checksum += rows.getLong(1);
+                    }
+                }
+            }
+        } finally {
+            connection.rollback();
+        }
+        return checksum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BulkNotificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.businessLogic.benchmark;
+
+import com.example.businessLogic.dto.ProjectWorkloadReport;
+import com.example.businessLogic.service.InProcessNotificationBus;
+import com.example.businessLogic.service.ProjectWorkloadService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отчёт о загрузке проекта на 1M задач и 50 исполнителей: выгрузка всех задач с исполнителями и подсчёт
+ * в памяти (как через /projects/{id}/tasks) против группировки и оконных функций ProjectWorkloadService,
+ * и повторный запрос из кэша.
+ * Нужен PostgreSQL со схемой приложения: -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user, -Dbenchmark.jdbc.password.
+ * Данные создаются в одной транзакции и откатываются после прогона.
+ * Запуск: main() из IDE или через exec:java с test-classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProjectWorkloadBenchmark {
+
+    private static final String PROJECT_ID = "benchmark-workload";
+
+    private static final String LOAD_ALL = "SELECT t.completion_date, t.deadline_date, a.user_id " +
+            "FROM tasks t LEFT JOIN task_assignees a ON a.task_id = t.task_id WHERE t.project_id = ?";
+
+    @Param({"1000000"})
+    private int tasks;
+
+    @Param({"50"})
+    private int assignees;
+
+    @Param({"12"})
+    private int weeks;
+
+    private Connection connection;
+    private ProjectWorkloadService service;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/taskmanager"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"));
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (user_id, user_name, friendship_key) " +
+                    "SELECT 'benchmark-user-' || g, 'Исполнитель ' || g, 'key' || g FROM generate_series(0, " +
+                    (assignees - 1) + ") AS g");
+            statement.execute("INSERT INTO projects (id, name, created_at) " +
+                    "VALUES ('" + PROJECT_ID + "', 'Нагрузка', current_date)");
+            // Задачи за два года: 70% завершены, у трети задач два исполнителя, у каждой двадцатой нет исполнителя
+            statement.execute("INSERT INTO tasks (task_id, task_title, project_id, creator_id, create_date, " +
+                    "deadline_date, completion_date) " +
+                    "SELECT 'benchmark-task-' || g, 'Задача ' || g, '" + PROJECT_ID + "', 'benchmark-user-0', " +
+                    "current_date - (g % 730), current_date - (g % 730) + (g % 45), " +
+                    "CASE WHEN g % 10 < 7 THEN LEAST(current_date, current_date - (g % 730) + (g % 20)) END " +
+                    "FROM generate_series(1, " + tasks + ") AS g");
+            statement.execute("INSERT INTO task_assignees (task_id, user_id) " +
+                    "SELECT 'benchmark-task-' || g, 'benchmark-user-' || (g % " + assignees + ") " +
+                    "FROM generate_series(1, " + tasks + ") AS g WHERE g % 20 <> 0 " +
+                    "UNION ALL " +
+                    "SELECT 'benchmark-task-' || g, 'benchmark-user-' || ((g + 7) % " + assignees + ") " +
+                    "FROM generate_series(1, " + tasks + ") AS g WHERE g % 3 = 0 AND g % 20 <> 0");
+            statement.execute("ANALYZE tasks");
+            statement.execute("ANALYZE task_assignees");
+        }
+
+        service = new ProjectWorkloadService(new JdbcTemplate(new SingleConnectionDataSource(connection, true)),
+                new InProcessNotificationBus());
+        ReflectionTestUtils.setField(service, "cacheTtlMs", 600_000L);
+        ReflectionTestUtils.setField(service, "cacheMaxProjects", 1000);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Benchmark
+    public Map<String, long[]> loadTasksAndCount() throws SQLException {
+        Date today = Date.valueOf(LocalDate.now());
+        Map<String, long[]> load = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(LOAD_ALL)) {
+            statement.setFetchSize(10_000);
+            statement.setString(1, PROJECT_ID);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    if (rows.getDate(1) != null) {
+                        continue;
+                    }
+                    Date deadline = rows.getDate(2);
+                    long[] counts = load.computeIfAbsent(String.valueOf(rows.getString(3)), id -> new long[2]);
+                    counts[0]++;
+                    if (deadline != null && deadline.before(today)) {
+                        counts[1]++;
+                    }
+                }
+            }
+        }
+        return load;
+    }
+
+    @Benchmark
+    public ProjectWorkloadReport windowedSql() {
+        service.invalidate(PROJECT_ID);
+        return service.getReport(PROJECT_ID, weeks);
+    }
+
+    @Benchmark
+    public ProjectWorkloadReport cachedReport() {
+        return service.getReport(PROJECT_ID, weeks);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProjectWorkloadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.businessLogic.benchmark;
+
+import com.example.businessLogic.service.TaskDependencyGraph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Анализ графа проекта на 50k задач и 50k зависимостей.
+ * Запуск: main() из IDE или через exec:java с test-classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskDependencyGraphBenchmark {
+
+    @Param({"50000"})
+    private int tasks;
+
+    private int[] from;
+    private int[] to;
+    private int[] start;
+    private int[] duration;
+    private TaskDependencyGraph graph;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        from = new int[tasks];
+        to = new int[tasks];
+        // Рёбра только от меньшего индекса к большему - граф ациклический
+        for (int i = 0; i < tasks; i++) {
+            int a = random.nextInt(tasks - 1);
+            from[i] = a;
+            to[i] = a + 1 + random.nextInt(Math.min(100, tasks - a - 1));
+        }
+
+        start = new int[tasks];
+        duration = new int[tasks];
+        for (int i = 0; i < tasks; i++) {
+            start[i] = 19_000 + random.nextInt(365);
+            duration[i] = 1 + random.nextInt(14);
+        }
+
+        graph = TaskDependencyGraph.of(tasks, from, to, tasks);
+    }
+
+    @Benchmark
+    public TaskDependencyGraph build() {
+        return TaskDependencyGraph.of(tasks, from, to, tasks);
+    }
+
+    @Benchmark
+    public boolean cycleCheckOnInsert() {
+        return graph.wouldCreateCycle(tasks - 1, 0);
+    }
+
+    @Benchmark
+    public TaskDependencyGraph.Schedule criticalPath() {
+        return graph.schedule(start, duration);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskDependencyGraphBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.businessLogic.benchmark;
+
+import com.example.businessLogic.dto.NotificationResponse;
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.service.CompactMessageCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Снимок NOTIFICATIONS_LIST на 50 уведомлений: JSON-кадр против компактного бинарного,
+ * каждый с permessage-deflate и без него (сжатие моделируется Deflater без заголовка, как в расширении).
+ * Размеры кадров печатаются в @Setup, время кодирования — результат бенчмарка.
+ * Запуск: main() из IDE или через exec:java с test-classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketEncodingBenchmark {
+
+    @Param({"50"})
+    private int notifications;
+
+    private CompactMessageCodec codec;
+    private String json;
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        codec = new CompactMessageCodec(objectMapper);
+
+        List<NotificationResponse> data = new ArrayList<>();
+        for (int i = 0; i < notifications; i++) {
+            data.add(NotificationResponse.builder()
+                    .id((long) i)
+                    .title("Новая задача")
+                    .message("Вам назначена задача «Подготовить отчёт " + i + "»")
+                    .senderId("creator-" + (i % 5))
+                    .type(NotificationType.TASK_ASSIGMENT)
+                    .isRead(i % 3 == 0)
+                    .date(LocalDateTime.of(2024, 6, 1, 12, 0).plusMinutes(i))
+                    .build());
+        }
+        json = objectMapper.writeValueAsString(
+                new WebSocketMessage.NotificationsSync("NOTIFICATIONS_LIST", data, List.of(), false, "c1", 17, notifications));
+        buffer = new byte[json.length() * 4];
+
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        byte[] compactBytes = codec.encode(json);
+        System.out.printf("json=%d json+deflate=%d compact=%d compact+deflate=%d bytes%n",
+                jsonBytes.length, deflate(jsonBytes), compactBytes.length, deflate(compactBytes));
+    }
+
+    @Benchmark
+    public int json() {
+        return json.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public int jsonDeflate() {
+        return deflate(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public int compact() {
+        return codec.encode(json).length;
+    }
+
+    @Benchmark
+    public int compactDeflate() {
+        return deflate(codec.encode(json));
+    }
+
+    private int deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                length += deflater.deflate(buffer);
+            }
+            return length;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebSocketEncodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.businessLogic.benchmark;
+
+import com.example.businessLogic.dto.NotificationResponse;
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.example.businessLogic.entity.NotificationType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.socket.TextMessage;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Рассылка одного уведомления 1000 получателям: прежний путь (HashMap и writeValueAsString на каждого)
+ * против типизированной записи, сериализованной один раз в общий TextMessage.
+ * Аллокации смотреть в колонке gc.alloc.rate.norm профилировщика GC.
+ * Запуск: main() из IDE или через exec:java с test-classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketMessageBenchmark {
+
+    @Param({"1000"})
+    private int recipients;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private NotificationResponse notification;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        writer = objectMapper.writer();
+        notification = NotificationResponse.builder()
+                .id(42L)
+                .title("Объявление")
+                .message("Плановые работы в субботу с 10:00 до 12:00")
+                .senderId("owner")
+                .type(NotificationType.INFO)
+                .isRead(false)
+                .date(LocalDateTime.of(2024, 6, 1, 12, 0))
+                .build();
+    }
+
+    @Benchmark
+    public void mapPerRecipient(Blackhole blackhole) throws JsonProcessingException {
+        for (int i = 0; i < recipients; i++) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("id", notification.getId());
+            body.put("title", notification.getTitle());
+            body.put("message", notification.getMessage());
+            body.put("senderId", notification.getSenderId());
+            body.put("type", notification.getType());
+            body.put("isRead", notification.getIsRead());
+            body.put("date", notification.getDate());
+            body.put("invitationId", notification.getInvitationId());
+
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "NEW_NOTIFICATION");
+            message.put("notification", body);
+            blackhole.consume(new TextMessage(objectMapper.writeValueAsString(message)));
+        }
+    }
+
+    @Benchmark
+    public void typedSerializeOnce(Blackhole blackhole) throws JsonProcessingException {
+        TextMessage frame = new TextMessage(writer.writeValueAsString(
+                new WebSocketMessage.NewNotification(null, notification)));
+        for (int i = 0; i < recipients; i++) {
+            blackhole.consume(frame);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebSocketMessageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.entity.Role;
+import com.example.businessLogic.repository.TaskRepository;
+import com.example.businessLogic.service.ProjectAccessCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectAccessInterceptorTest {
+
+    @Mock
+    private ProjectAccessCache projectAccessCache;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private ProjectAccessInterceptor interceptor;
+
+    @Test
+    void preHandle_Member_ShouldPass() throws Exception {
+        when(projectAccessCache.roleOf("u1", "p1")).thenReturn(Role.ROLE_USER);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request("u1", Map.of("id", "p1")), response, handler("read")));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void preHandle_NotMember_ShouldRespondForbidden() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request("u1", Map.of("projectId", "p1")), response, handler("read")));
+        assertEquals(403, response.getStatus());
+    }
+
+    @Test
+    void preHandle_RoleNotAllowed_ShouldRespondForbidden() throws Exception {
+        when(projectAccessCache.roleOf("u1", "p1")).thenReturn(Role.ROLE_ADMIN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request("u1", Map.of("id", "p1")), response, handler("delete")));
+        assertEquals(403, response.getStatus());
+    }
+
+    @Test
+    void preHandle_WithoutProjectVariable_ShouldSkipLookup() throws Exception {
+        assertTrue(interceptor.preHandle(request("u1", Map.of()), new MockHttpServletResponse(), handler("read")));
+        verifyNoInteractions(projectAccessCache);
+    }
+
+    @Test
+    void preHandle_ProjectTask_ShouldCheckTaskProject() throws Exception {
+        when(taskRepository.findProjectIdById("t1")).thenReturn("p1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request("u1", "/tasks/{id}", Map.of("id", "t1")), response, handler("read")));
+        assertEquals(403, response.getStatus());
+        verify(projectAccessCache).roleOf("u1", "p1");
+    }
+
+    @Test
+    void preHandle_PersonalTask_ShouldPass() throws Exception {
+        assertTrue(interceptor.preHandle(request("u1", "/tasks/{id}", Map.of("id", "t1")),
+                new MockHttpServletResponse(), handler("read")));
+        verifyNoInteractions(projectAccessCache);
+    }
+
+    private MockHttpServletRequest request(String userId, Map<String, String> variables) {
+        return request(userId, "/projects/{id}", variables);
+    }
+
+    private MockHttpServletRequest request(String userId, String pattern, Map<String, String> variables) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects/p1");
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList()));
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    private HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(name));
+    }
+
+    static class Endpoints {
+        public void read() {
+        }
+
+        @ProjectRoleRequired(Role.ROLE_OWNER)
+        public void delete() {
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.businessLogic.config;
+
+import com.example.businessLogic.service.MetricsService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Маршрутизация на двух локальных базах H2: "primary" - основная, "replica" - реплика.
+ */
+class ReadReplicaRoutingTest {
+
+    private final MetricsService metricsService = mock(MetricsService.class);
+    private final ReplicaLagMonitor replicaLagMonitor = mock(ReplicaLagMonitor.class);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private DataSource replica;
+    private ReadYourWritesInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica = database("replica");
+
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setEnabled(true);
+        interceptor = new ReadYourWritesInterceptor(properties);
+
+        DataSource dataSource = new ReadReplicaDataSourceConfig().dataSource(primary, replica,
+                properties, replicaLagMonitor, metricsService);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        when(replicaLagMonitor.isAcceptable()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+        verify(metricsService).recordReadRouting("replica");
+    }
+
+    @Test
+    void readOnlyTransaction_AfterUserWrite_ShouldUsePrimary() {
+        MockHttpServletRequest write = request("POST", "u1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(write, response, null);
+        interceptor.afterCompletion(write, response, null, null);
+        Cookie marker = response.getCookie(ReadYourWrites.COOKIE);
+        assertNotNull(marker);
+
+        // Следующий запрос может прийти на любой узел: метку приносит сам клиент
+        MockHttpServletRequest read = request("GET", "u1");
+        read.setCookies(marker);
+        interceptor.preHandle(read, new MockHttpServletResponse(), null);
+        assertEquals("primary", readOnly.execute(status -> node()));
+        verify(metricsService).recordReadRouting("primary-after-write");
+        interceptor.afterCompletion(read, new MockHttpServletResponse(), null, null);
+
+        MockHttpServletRequest other = request("GET", "u2");
+        interceptor.preHandle(other, new MockHttpServletResponse(), null);
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void readOnlyTransaction_WithForgedFutureMarker_ShouldUseReplica() {
+        ReadYourWrites.bind(System.currentTimeMillis() + 3_600_000);
+
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaLags_ShouldUsePrimary() {
+        when(replicaLagMonitor.isAcceptable()).thenReturn(false);
+
+        assertEquals("primary", readOnly.execute(status -> node()));
+        verify(metricsService).recordReadRouting("primary-lag");
+    }
+
+    @Test
+    void lagMonitor_WhenLagCannotBeMeasured_ShouldNotAcceptReplica() {
+        // У H2 нет функций репликации PostgreSQL - так же ведёт себя недоступная реплика
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, 5000, metricsService);
+
+        monitor.check();
+
+        assertFalse(monitor.isAcceptable());
+        assertEquals(-1, monitor.getLagMs());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private MockHttpServletRequest request(String method, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/notifications");
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+        return request;
+    }
+
+    private DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists node (name varchar(20))");
+        template.execute("delete from node");
+        template.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.businessLogic.repository;
+
+import com.example.businessLogic.entity.Notification;
+import com.example.businessLogic.entity.NotificationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Массовые изменения NotificationRepository на H2 в режиме PostgreSQL.
+ * Сущности загружены в контекст до изменения: проверяется, что после запроса читаются свежие данные.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class NotificationRepositoryTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void markAsRead_ShouldSkipRowsBelowWatermark() {
+        Notification below = persist("u1", NotificationType.INFO, "s1", false);
+        Notification above = persist("u1", NotificationType.INFO, "s1", false);
+
+        assertEquals(0, notificationRepository.markAsRead(below.getId(), "u1", below.getId(), LocalDateTime.now()));
+        assertEquals(1, notificationRepository.markAsRead(above.getId(), "u1", below.getId(), LocalDateTime.now()));
+
+        assertTrue(reload(above).getIsRead());
+        assertFalse(reload(below).getIsRead());
+    }
+
+    @Test
+    void changeSeq_ShouldGrowOnInsertAndUpdate() {
+        Notification first = persist("u1", NotificationType.INFO, "s1", false);
+        Notification second = persist("u1", NotificationType.INFO, "s1", false);
+        assertNotNull(first.getChangeSeq());
+        assertTrue(second.getChangeSeq() > first.getChangeSeq());
+
+        notificationRepository.markAsRead(first.getId(), "u1", 0, LocalDateTime.now());
+
+        List<Notification> changed = notificationRepository.findChangedAfter("u1", second.getChangeSeq(),
+                PageRequest.of(0, 10));
+        assertEquals(List.of(first.getId()), ids(changed));
+        assertEquals(changed.get(0).getChangeSeq(), notificationRepository.findLastChangeSeq("u1"));
+    }
+
+    @Test
+    void markAllAsReadByType_ShouldUpdateOnlyUnreadOfType() {
+        Notification info = persist("u1", NotificationType.INFO, "s1", false);
+        persist("u1", NotificationType.INFO, "s1", true);
+        Notification alert = persist("u1", NotificationType.SYSTEM_ALERT, "s1", false);
+
+        int updated = notificationRepository.markAllAsReadByType("u1", NotificationType.INFO, 0,
+                LocalDateTime.now());
+
+        assertEquals(1, updated);
+        assertTrue(reload(info).getIsRead());
+        assertFalse(reload(alert).getIsRead());
+        assertEquals(0, notificationRepository.countByOwnerIdAndTypeAndIsReadFalse("u1", NotificationType.INFO));
+    }
+
+    @Test
+    void deleteOldNotificationsByType_ShouldCompareDates() {
+        persist("u1", NotificationType.INFO, "s1", false);
+        Notification alert = persist("u1", NotificationType.SYSTEM_ALERT, "s1", false);
+
+        assertEquals(0, notificationRepository.deleteOldNotificationsByType("u1", NotificationType.INFO,
+                LocalDateTime.now().minusDays(1)));
+        assertEquals(1, notificationRepository.deleteOldNotificationsByType("u1", NotificationType.INFO,
+                LocalDateTime.now().plusMinutes(1)));
+
+        assertEquals(List.of(alert.getId()), ids(notificationRepository.findByOwnerIdOrderByDateDesc("u1")));
+    }
+
+    @Test
+    void deleteByOwnerIdAndTypeAndSenderId_ShouldReturnDeletedCount() {
+        persist("u1", NotificationType.CONTACT_REQUEST, "s1", false);
+        persist("u1", NotificationType.CONTACT_REQUEST, "s1", true);
+        Notification otherSender = persist("u1", NotificationType.CONTACT_REQUEST, "s2", false);
+
+        assertEquals(2, notificationRepository.deleteByOwnerIdAndTypeAndSenderId("u1",
+                NotificationType.CONTACT_REQUEST, "s1"));
+
+        assertTrue(notificationRepository.existsByOwnerIdAndTypeAndSenderIdAndIsReadFalse("u1",
+                NotificationType.CONTACT_REQUEST, "s2"));
+        assertEquals(List.of(otherSender.getId()), ids(notificationRepository.findByOwnerIdAndType("u1",
+                NotificationType.CONTACT_REQUEST)));
+    }
+
+    @Test
+    void deleteByOwnerIdAndType_ShouldKeepOtherTypes() {
+        persist("u1", NotificationType.INFO, "s1", false);
+        persist("u1", NotificationType.SYSTEM_ALERT, "s1", false);
+
+        assertEquals(1, notificationRepository.deleteByOwnerIdAndType("u1", NotificationType.INFO));
+        assertEquals(1, notificationRepository.countByOwnerIdAndType("u1", NotificationType.SYSTEM_ALERT));
+        assertEquals(0, notificationRepository.countByOwnerIdAndType("u1", NotificationType.INFO));
+    }
+
+    @Test
+    void deleteReadByOwnerId_ShouldIncludeRowsBelowWatermark() {
+        Notification below = persist("u1", NotificationType.INFO, "s1", false);
+        persist("u1", NotificationType.INFO, "s1", true);
+        Notification unread = persist("u1", NotificationType.INFO, "s1", false);
+
+        assertEquals(2, notificationRepository.deleteReadByOwnerId("u1", below.getId()));
+
+        assertEquals(List.of(unread.getId()), ids(notificationRepository.findByOwnerIdOrderByDateDesc("u1")));
+    }
+
+    @Test
+    void deleteUnread_ShouldRespectWatermark() {
+        Notification below = persist("u1", NotificationType.INFO, "s1", false);
+        persist("u1", NotificationType.INFO, "s1", false);
+        persist("u1", NotificationType.INFO, "s1", true);
+
+        assertEquals(0, notificationRepository.deleteUnreadByOwnerIdAndId("u1", below.getId(), below.getId()));
+        assertEquals(1, notificationRepository.deleteUnreadByOwnerId("u1", below.getId()));
+        assertEquals(2, notificationRepository.deleteAllByOwnerId("u1"));
+        assertEquals(0, notificationRepository.countByOwnerId("u1"));
+    }
+
+    @Test
+    void deleteBySender_ShouldReturnDeletedCount() {
+        persist("u1", NotificationType.INFO, "s1", false);
+        persist("u2", NotificationType.INFO, "s1", false);
+        persist("u2", NotificationType.INFO, "s2", false);
+
+        assertEquals(1, notificationRepository.deleteByOwnerIdAndSenderId("u2", "s2"));
+        assertEquals(2, notificationRepository.deleteBySenderId("s1"));
+        assertEquals(0, notificationRepository.count());
+    }
+
+    @Test
+    void deleteByIdIn_ShouldDeleteLoadedEntities() {
+        Notification first = persist("u1", NotificationType.INFO, "s1", false);
+        Notification second = persist("u1", NotificationType.INFO, "s1", false);
+        Notification kept = persist("u1", NotificationType.INFO, "s1", false);
+
+        assertEquals(2, notificationRepository.deleteByIdIn(List.of(first.getId(), second.getId())));
+
+        assertTrue(notificationRepository.findById(first.getId()).isEmpty());
+        assertTrue(notificationRepository.findById(kept.getId()).isPresent());
+    }
+
+    @Test
+    void updateNotificationContent_ShouldBeVisibleAfterUpdate() {
+        Notification notification = persist("u1", NotificationType.INFO, "s1", false);
+
+        assertEquals(0, notificationRepository.updateNotificationContent(notification.getId(), "u2", "Чужое", "Чужое",
+                LocalDateTime.now()));
+        assertEquals(1, notificationRepository.updateNotificationContent(notification.getId(), "u1", "Новый заголовок",
+                "Новый текст", LocalDateTime.now()));
+
+        Notification updated = reload(notification);
+        assertEquals("Новый заголовок", updated.getTitle());
+        assertEquals("Новый текст", updated.getMessage());
+    }
+
+    @Test
+    void findByOwnerAndTypeIn_ShouldBindEnumCollection() {
+        persist("u1", NotificationType.INFO, "s1", false);
+        persist("u1", NotificationType.SYSTEM_ALERT, "s1", false);
+        persist("u1", NotificationType.CONTACT_REQUEST, "s1", false);
+
+        List<Notification> found = notificationRepository.findByOwnerAndTypeIn("u1",
+                List.of(NotificationType.INFO, NotificationType.SYSTEM_ALERT));
+
+        assertEquals(2, found.size());
+        assertNotNull(notificationRepository.findFirstByOwnerIdAndTypeOrderByDateDesc("u1", NotificationType.INFO));
+    }
+
+    private Notification persist(String ownerId, NotificationType type, String senderId, boolean read) {
+        return entityManager.persistFlushFind(Notification.builder()
+                .ownerId(ownerId)
+                .type(type)
+                .title("Заголовок")
+                .message("Текст")
+                .senderId(senderId)
+                .isRead(read)
+                .build());
+    }
+
+    private Notification reload(Notification notification) {
+        return notificationRepository.findById(notification.getId()).orElseThrow();
+    }
+
+    private List<Long> ids(List<Notification> notifications) {
+        return notifications.stream().map(Notification::getId).toList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.businessLogic.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactMessageCodecTest {
+
+    private final CompactMessageCodec codec = new CompactMessageCodec(new ObjectMapper());
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @Test
+    void encode_KnownType_ShouldWriteTypeIdAndFieldTags() throws Exception {
+        byte[] frame = codec.encode("{\"type\":\"UNREAD_COUNT\",\"count\":3,\"version\":7}");
+
+        assertEquals(8, frame[0]);
+        JsonNode body = body(frame);
+        assertFalse(body.has("type"));
+        // Теги count=9 и version=10 читаются Jackson как имена полей
+        assertEquals(3, body.get("9").asLong());
+        assertEquals(7, body.get("10").asLong());
+    }
+
+    @Test
+    void encode_NestedNotification_ShouldTagNestedFields() throws Exception {
+        byte[] frame = codec.encode("{\"type\":\"NEW_NOTIFICATION\",\"messageId\":\"m1\"," +
+                "\"notification\":{\"id\":5,\"type\":\"INFO\",\"isRead\":false,\"extra\":null}}");
+
+        assertEquals(1, frame[0]);
+        JsonNode notification = body(frame).get("1");
+        assertEquals(5, notification.get("14").asLong());
+        assertEquals("INFO", notification.get("18").asText());
+        assertFalse(notification.get("3").asBoolean());
+        assertTrue(notification.get("extra").isNull());
+    }
+
+    @Test
+    void encode_UnknownType_ShouldKeepTypeInBody() throws Exception {
+        byte[] frame = codec.encode("{\"type\":\"SOMETHING_NEW\",\"value\":1}");
+
+        assertEquals(0, frame[0]);
+        assertEquals("SOMETHING_NEW", body(frame).get("18").asText());
+    }
+
+    private JsonNode body(byte[] frame) throws Exception {
+        return cborMapper.readTree(Arrays.copyOfRange(frame, 1, frame.length));
+    }
+}
@@ -3,6 +3,7 @@ package com.example.businessLogic.service;
 import com.example.businessLogic.dto.NotificationRequest;
 import com.example.businessLogic.entity.ContactRequest;
 import com.example.businessLogic.entity.Notification;
+import com.example.businessLogic.entity.NotificationType;
 import com.example.businessLogic.entity.User;
 import com.example.businessLogic.repository.ContactRequestRepository;
 import com.example.businessLogic.repository.NotificationRepository;
@@ -162,25 +163,25 @@ class ContactRequestServiceTest {
     }
 
     @Test
-    void deleteRequest_ShouldDeleteRequestAndNotifications() {
+    void declineRequestAndNotify_ShouldDeleteRequestAndNotifications() {
         String owner = "user1";
         String recipient = "user2";
 
-        contactRequestService.deleteRequest(owner, recipient);
+        contactRequestService.declineRequestAndNotify(owner, recipient);
 
         verify(contactRequestRepository).deleteByOwnerAndRecipient(owner, recipient);
-        verify(notificationRepository).findByOwnerIdAndTypeAndSenderId(recipient, "CONTACT_REQUEST", owner);
+        verify(notificationRepository).findByOwnerIdAndTypeAndSenderId(recipient, NotificationType.CONTACT_REQUEST, owner);
     }
 
     @Test
-    void deleteRequest_WhenNotificationDeletionFails_ShouldStillDeleteRequest() {
+    void declineRequestAndNotify_WhenNotificationDeletionFails_ShouldStillDeleteRequest() {
         String owner = "user1";
         String recipient = "user2";
 
         doThrow(new RuntimeException("DB error"))
-                .when(notificationRepository).findByOwnerIdAndTypeAndSenderId(anyString(), anyString(), anyString());
+                .when(notificationRepository).findByOwnerIdAndTypeAndSenderId(anyString(), any(NotificationType.class), anyString());
 
-        contactRequestService.deleteRequest(owner, recipient);
+        contactRequestService.declineRequestAndNotify(owner, recipient);
 
         verify(contactRequestRepository).deleteByOwnerAndRecipient(owner, recipient);
     }
@@ -197,7 +198,7 @@ class ContactRequestServiceTest {
         contactRequestService.deleteRequestById(requestId);
 
         verify(contactRequestRepository).deleteById(requestId);
-        verify(notificationRepository).findByOwnerIdAndTypeAndSenderId("user2", "CONTACT_REQUEST", "user1");
+        verify(notificationRepository).findByOwnerIdAndTypeAndSenderId("user2", NotificationType.CONTACT_REQUEST, "user1");
     }
 
     @Test
@@ -209,7 +210,7 @@ class ContactRequestServiceTest {
         contactRequestService.deleteRequestById(requestId);
 
         verify(contactRequestRepository).deleteById(requestId);
-        verify(notificationRepository, never()).findByOwnerIdAndTypeAndSenderId(anyString(), anyString(), anyString());
+        verify(notificationRepository, never()).findByOwnerIdAndTypeAndSenderId(anyString(), any(NotificationType.class), anyString());
     }
 
     @Test
@@ -256,12 +257,12 @@ class ContactRequestServiceTest {
         String userId = "user1";
         List<Notification> expectedNotifications = Arrays.asList(new Notification(), new Notification());
 
-        when(notificationRepository.findByOwnerIdAndType(userId, "CONTACT_REQUEST")).thenReturn(expectedNotifications);
+        when(notificationRepository.findByOwnerIdAndType(userId, NotificationType.CONTACT_REQUEST)).thenReturn(expectedNotifications);
 
         List<Notification> result = contactRequestService.getContactRequestNotifications(userId);
 
         assertEquals(expectedNotifications, result);
-        verify(notificationRepository).findByOwnerIdAndType(userId, "CONTACT_REQUEST");
+        verify(notificationRepository).findByOwnerIdAndType(userId, NotificationType.CONTACT_REQUEST);
     }
 
     @Test
@@ -317,11 +318,11 @@ class ContactRequestServiceTest {
         String recipientId = "user2";
         List<Notification> notifications = Arrays.asList(new Notification(), new Notification());
 
-        when(notificationRepository.findByOwnerIdAndTypeAndSenderId(recipientId, "CONTACT_REQUEST", senderId))
+        when(notificationRepository.findByOwnerIdAndTypeAndSenderId(recipientId, NotificationType.CONTACT_REQUEST, senderId))
                 .thenReturn(notifications);
 
-        contactRequestService.deleteRequest(senderId, recipientId);
+        contactRequestService.declineRequestAndNotify(senderId, recipientId);
 
-        verify(notificationRepository).deleteAll(notifications);
+        verify(notificationService).discard(notifications);
     }
 }
\ No newline at end of file
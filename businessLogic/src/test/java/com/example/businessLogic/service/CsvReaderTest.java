@@ -0,0 +1,38 @@
+package com.example.businessLogic.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readRecord_ShouldHandleQuotesAndLineBreaks() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader(
+                "title,status\r\n\"Задача, первая\",Активная\n\"Много\nстрок \"\"в кавычках\"\"\",\n"));
+
+        assertEquals(List.of("title", "status"), reader.readRecord());
+        assertEquals(List.of("Задача, первая", "Активная"), reader.readRecord());
+        assertEquals(List.of("Много\nстрок \"в кавычках\"", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readRecord_WithoutTrailingNewline_ShouldReturnLastRecord() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader("a,b"));
+
+        assertEquals(List.of("a", "b"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readRecord_LongerThanLimit_ShouldThrow() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader("a,b\n\"незакрытая кавычка,c\nd\n"), 10);
+
+        assertEquals(List.of("a", "b"), reader.readRecord());
+        assertThrows(CsvReader.RecordTooLongException.class, reader::readRecord);
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.NotificationRequest;
+import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.entity.PendingNotification;
+import com.example.businessLogic.repository.PendingNotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NotificationCoalescerTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PendingNotificationRepository pendingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @InjectMocks
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Окно больше времени теста: группы сбрасываются только явным stop()
+        ReflectionTestUtils.setField(coalescer, "windowMs", 60_000L);
+        ReflectionTestUtils.setField(coalescer, "tickMs", 30_000L);
+        ReflectionTestUtils.setField(coalescer, "maxReferences", 2);
+        ReflectionTestUtils.setField(coalescer, "sweepBatchSize", 10);
+        ReflectionTestUtils.setField(coalescer, "coalescedTypes", Set.of(NotificationType.TASK_ASSIGMENT));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        coalescer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.stop();
+    }
+
+    @Test
+    void submit_CoalescedType_ShouldPersistAndWaitForCommit() {
+        coalescer.submit("u1", request("creator", "одна задача"), "t1", digest());
+
+        ArgumentCaptor<PendingNotification> saved = ArgumentCaptor.forClass(PendingNotification.class);
+        verify(pendingRepository).save(saved.capture());
+        assertEquals("t1", saved.getValue().getReferenceId());
+        assertEquals("задач: {count}", saved.getValue().getDigestMessage());
+        verify(eventPublisher).publishEvent(new PendingNotificationEvent("u1", NotificationType.TASK_ASSIGMENT, "creator"));
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void submit_OtherType_ShouldSendImmediately() {
+        NotificationRequest request = request("creator", "приглашение");
+        request.setType(NotificationType.PROJECT_INVITATION);
+
+        coalescer.submit("u1", request, null, null);
+
+        verify(notificationService).sendNotification("u1", request);
+        verifyNoInteractions(eventPublisher, pendingRepository);
+    }
+
+    @Test
+    void flush_SingleNotification_ShouldSendItUnchanged() {
+        when(pendingRepository.lockGroup("u1", NotificationType.TASK_ASSIGMENT, "creator"))
+                .thenReturn(List.of(pending(1L, "creator", "одна задача", "t1")));
+        coalescer.onSubmitted(new PendingNotificationEvent("u1", NotificationType.TASK_ASSIGMENT, "creator"));
+
+        coalescer.stop();
+
+        ArgumentCaptor<NotificationRequest> sent = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(notificationService).sendNotification(eq("u1"), sent.capture());
+        assertEquals("одна задача", sent.getValue().getMessage());
+        assertEquals(List.of("t1"), sent.getValue().getReferenceIds());
+        assertNull(sent.getValue().getCount());
+        verify(pendingRepository).deleteByIdIn(List.of(1L));
+    }
+
+    @Test
+    void flush_ManyNotifications_ShouldSendOneDigestAndDeleteRows() {
+        when(pendingRepository.lockGroup("u1", NotificationType.TASK_ASSIGMENT, "creator")).thenReturn(List.of(
+                pending(1L, "creator", "задача 1", "t1"),
+                pending(2L, "creator", "задача 2", "t2"),
+                pending(3L, "creator", "задача 3", "t3")));
+        // Повторные события той же группы не ставят её в колесо второй раз
+        for (int i = 0; i < 3; i++) {
+            coalescer.onSubmitted(new PendingNotificationEvent("u1", NotificationType.TASK_ASSIGMENT, "creator"));
+        }
+
+        coalescer.stop();
+
+        ArgumentCaptor<NotificationRequest> sent = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(notificationService, times(1)).sendNotification(eq("u1"), sent.capture());
+        assertEquals("задач: 3", sent.getValue().getMessage());
+        assertEquals(3, sent.getValue().getCount());
+        assertEquals(List.of("t1", "t2"), sent.getValue().getReferenceIds());
+        verify(pendingRepository).deleteByIdIn(List.of(1L, 2L, 3L));
+        verify(metricsService).recordNotificationsCoalesced("TASK_ASSIGMENT", 2);
+    }
+
+    @Test
+    void flush_GroupTakenByAnotherNode_ShouldSendNothing() {
+        when(pendingRepository.lockGroup(any(), any(), any())).thenReturn(List.of());
+        coalescer.onSubmitted(new PendingNotificationEvent("u1", NotificationType.TASK_ASSIGMENT, "creator"));
+
+        coalescer.stop();
+
+        verifyNoInteractions(notificationService, metricsService);
+        verify(pendingRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void flushAbandoned_ShouldFlushGroupsLeftByStoppedNode() {
+        when(pendingRepository.findGroupsCreatedBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{"u2", NotificationType.TASK_ASSIGMENT, "creator"}));
+        when(pendingRepository.lockGroup("u2", NotificationType.TASK_ASSIGMENT, "creator"))
+                .thenReturn(List.of(pending(7L, "creator", "задача", "t7")));
+
+        coalescer.flushAbandoned();
+
+        verify(notificationService).sendNotification(eq("u2"), any());
+        verify(pendingRepository).deleteByIdIn(List.of(7L));
+    }
+
+    @Test
+    void timingWheel_ShouldFireAfterDelayInTicks() {
+        List<String> fired = new ArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>(100, 4, fired::add);
+
+        wheel.schedule("fast", 100);
+        wheel.schedule("slow", 250);
+        wheel.advance();
+        assertEquals(List.of("fast"), fired);
+
+        wheel.advance();
+        assertEquals(List.of("fast"), fired);
+
+        wheel.advance();
+        assertEquals(List.of("fast", "slow"), fired);
+    }
+
+    private NotificationRequest digest() {
+        return request("creator", "задач: " + NotificationCoalescer.COUNT_PLACEHOLDER);
+    }
+
+    private PendingNotification pending(Long id, String senderId, String message, String referenceId) {
+        return PendingNotification.builder()
+                .id(id)
+                .ownerId("u1")
+                .type(NotificationType.TASK_ASSIGMENT)
+                .senderId(senderId)
+                .title("Новая задача")
+                .message(message)
+                .referenceId(referenceId)
+                .digestTitle("Новые задачи")
+                .digestMessage("задач: " + NotificationCoalescer.COUNT_PLACEHOLDER)
+                .build();
+    }
+
+    private NotificationRequest request(String senderId, String message) {
+        return NotificationRequest.builder()
+                .title("Новая задача")
+                .message(message)
+                .senderId(senderId)
+                .type(NotificationType.TASK_ASSIGMENT)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.NotificationResponse;
+import com.example.businessLogic.entity.NotificationOutboxMessage;
+import com.example.businessLogic.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxServiceTest {
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private NotificationOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new NotificationOutboxService(outboxRepository, notificationSender, eventPublisher,
+                transactionTemplate);
+        ReflectionTestUtils.setField(outboxService, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxService, "graceMs", 5000L);
+    }
+
+    @Test
+    void enqueue_ShouldWriteOutboxRowAndDeferSending() {
+        when(outboxRepository.save(any(NotificationOutboxMessage.class))).thenAnswer(invocation -> {
+            NotificationOutboxMessage message = invocation.getArgument(0);
+            message.setId(7L);
+            return message;
+        });
+
+        when(notificationSender.serialize(any())).thenAnswer(invocation ->
+                new ObjectMapper().writeValueAsString(invocation.getArgument(0)));
+
+        outboxService.enqueue("u1", NotificationResponse.builder().id(1L).title("Новая задача").build());
+
+        ArgumentCaptor<NotificationOutboxMessage> saved = ArgumentCaptor.forClass(NotificationOutboxMessage.class);
+        verify(outboxRepository).save(saved.capture());
+        assertTrue(saved.getValue().getPayload().contains("\"messageId\":\"" + saved.getValue().getMessageId() + "\""));
+        assertTrue(saved.getValue().getPayload().contains("\"type\":\"NEW_NOTIFICATION\""));
+
+        ArgumentCaptor<NotificationQueuedEvent> event = ArgumentCaptor.forClass(NotificationQueuedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(7L, event.getValue().outboxId());
+        verify(notificationSender, never()).sendSerialized(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueueAll_ShouldSaveOneRowPerOwnerAndPublishEach() {
+        when(outboxRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<NotificationOutboxMessage> messages = invocation.getArgument(0);
+            for (int i = 0; i < messages.size(); i++) {
+                messages.get(i).setId(10L + i);
+            }
+            return messages;
+        });
+        when(notificationSender.serialize(any())).thenReturn("{}");
+
+        Map<String, NotificationResponse> notifications = new LinkedHashMap<>();
+        notifications.put("u1", NotificationResponse.builder().id(1L).invitationId(11L).build());
+        notifications.put("u2", NotificationResponse.builder().id(2L).invitationId(12L).build());
+        outboxService.enqueueAll(notifications);
+
+        ArgumentCaptor<List<NotificationOutboxMessage>> saved = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(saved.capture());
+        assertEquals(List.of("u1", "u2"), saved.getValue().stream().map(NotificationOutboxMessage::getOwnerId).toList());
+        verify(eventPublisher).publishEvent(new NotificationQueuedEvent(10L, "u1", "{}"));
+        verify(eventPublisher).publishEvent(new NotificationQueuedEvent(11L, "u2", "{}"));
+        verify(notificationSender, never()).sendSerialized(any(), any());
+    }
+
+    @Test
+    void relayPending_ShouldDeleteRowsDeliveredAfterCommit() {
+        inTransaction();
+
+        outboxService.onQueued(new NotificationQueuedEvent(7L, "u1", "{}"));
+        outboxService.relayPending();
+
+        verify(notificationSender).sendSerialized("u1", "{}");
+        verify(outboxRepository).deleteByIdIn(List.of(7L));
+    }
+
+    @Test
+    void relayPending_ShouldRedeliverStaleRowsInBatches() {
+        inTransaction();
+        when(outboxRepository.lockPending(any(LocalDateTime.class), any()))
+                .thenReturn(List.of(row(1L), row(2L)))
+                .thenReturn(List.of(row(3L)));
+
+        outboxService.relayPending();
+
+        verify(notificationSender, times(3)).sendSerialized(eq("u1"), any());
+        verify(outboxRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(outboxRepository).deleteByIdIn(List.of(3L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private NotificationOutboxMessage row(Long id) {
+        return NotificationOutboxMessage.builder()
+                .id(id)
+                .messageId("m" + id)
+                .ownerId("u1")
+                .payload("{\"id\":" + id + "}")
+                .build();
+    }
+}
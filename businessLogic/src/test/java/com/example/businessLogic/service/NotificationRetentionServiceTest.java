@@ -0,0 +1,141 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.config.NotificationRetentionProperties;
+import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.repository.NotificationRepository;
+import com.example.businessLogic.repository.NotificationRepository.ExpiredNotification;
+import com.example.businessLogic.repository.NotificationTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRetentionServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 3, 30);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final NotificationRetentionProperties properties = new NotificationRetentionProperties();
+
+    private NotificationRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        retentionService = new NotificationRetentionService(notificationRepository, tombstoneRepository,
+                unreadCounterService, properties, metricsService, transactionTemplate, jdbcTemplate);
+    }
+
+    @Test
+    void purge_ShouldDeleteInKeysetBatches() {
+        inTransaction();
+        LocalDateTime old = NOW.minusDays(60);
+        when(notificationRepository.lockExpiredBatch(eq(NotificationType.INFO), eq(true), eq(NOW.minusDays(30)),
+                any(LocalDateTime.class), anyLong(), eq(2)))
+                .thenReturn(List.of(expired(1L, "u1", old), expired(2L, "u2", old)))
+                .thenReturn(List.of(expired(3L, "u1", old)));
+
+        long deleted = retentionService.purge(NotificationType.INFO, true, NOW);
+
+        assertEquals(3, deleted);
+        verify(notificationRepository).lockExpiredBatch(NotificationType.INFO, true, NOW.minusDays(30), old, 2L, 2);
+        verify(notificationRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(notificationRepository).deleteByIdIn(List.of(3L));
+        verify(metricsService).recordNotificationsExpired("INFO", true, 2);
+        verify(tombstoneRepository).insertAll(aryEq(new String[]{"u1", "u2"}), aryEq(new Long[]{1L, 2L}),
+                any(LocalDateTime.class));
+        verify(unreadCounterService).lockReadState(List.of("u1", "u2"));
+        verify(unreadCounterService, never()).adjust(anyString(), anyLong());
+    }
+
+    @Test
+    void purge_Unread_ShouldDecrementCountersPerOwner() {
+        inTransaction();
+        LocalDateTime old = NOW.minusDays(120);
+        when(notificationRepository.lockExpiredBatch(eq(NotificationType.INFO), eq(false), any(), any(), anyLong(), anyInt()))
+                .thenReturn(List.of(expired(1L, "u1", old), expired(2L, "u1", old), expired(3L, "u2", old)))
+                .thenReturn(List.of());
+        // Отметка u2 сдвинулась после выборки пачки
+        when(unreadCounterService.lockReadState(List.of("u1", "u1", "u2"))).thenReturn(Map.of("u1", 0L, "u2", 5L));
+
+        retentionService.purge(NotificationType.INFO, false, NOW);
+
+        verify(unreadCounterService).adjust("u1", -2L);
+        // У u2 строка ниже отметки «прочитано до» - счётчик не меняется
+        verify(unreadCounterService, never()).adjust(eq("u2"), anyLong());
+    }
+
+    @Test
+    void purge_TypeOverrideKeepForever_ShouldSkipType() {
+        NotificationRetentionProperties.TypePolicy policy = new NotificationRetentionProperties.TypePolicy();
+        policy.setUnreadTtlDays(0);
+        properties.getTypes().put(NotificationType.PROJECT_INVITATION, policy);
+
+        long deleted = retentionService.purge(NotificationType.PROJECT_INVITATION, false, NOW);
+
+        assertEquals(0, deleted);
+        verify(notificationRepository, never())
+                .lockExpiredBatch(any(NotificationType.class), anyBoolean(), any(), any(), anyLong(), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private ExpiredNotification expired(Long id, String ownerId, LocalDateTime date) {
+        return new ExpiredNotification() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public LocalDateTime getDate() {
+                return date;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationSenderTest {
+
+    @Mock
+    private MetricsService metricsService;
+
+    private final WebSocketSessionRegistry sessionRegistry = new WebSocketSessionRegistry();
+
+    private NotificationSender notificationSender;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        // Вне транзакции слушатель AFTER_COMMIT срабатывает сразу (fallbackExecution)
+        notificationSender = new NotificationSender(objectMapper, sessionRegistry, new InProcessNotificationBus(),
+                metricsService, new CompactMessageCodec(objectMapper),
+                event -> notificationSender.onPublish((WebSocketPublishEvent) event));
+        ReflectionTestUtils.setField(notificationSender, "senderThreads", 1);
+        notificationSender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationSender.stop();
+    }
+
+    @Test
+    void serialize_ShouldWriteTypeAndComponents() {
+        String json = notificationSender.serialize(new WebSocketMessage.NotificationRead(5L, true));
+
+        assertTrue(json.contains("\"type\":\"NOTIFICATION_READ\""));
+        assertTrue(json.contains("\"notificationId\":5"));
+        assertTrue(json.contains("\"isRead\":true"));
+    }
+
+    @Test
+    void sendToUsers_ShouldShareOneFrameAcrossRecipients() throws Exception {
+        WebSocketSession first = session("s1");
+        WebSocketSession second = session("s2");
+        sessionRegistry.register("u1", first);
+        sessionRegistry.register("u2", second);
+
+        notificationSender.sendToUsers(List.of("u1", "u2"), new WebSocketMessage.UnreadCount(3, 7));
+
+        ArgumentCaptor<TextMessage> firstFrame = ArgumentCaptor.forClass(TextMessage.class);
+        ArgumentCaptor<TextMessage> secondFrame = ArgumentCaptor.forClass(TextMessage.class);
+        verify(first).sendMessage(firstFrame.capture());
+        verify(second).sendMessage(secondFrame.capture());
+        assertSame(firstFrame.getValue(), secondFrame.getValue());
+        assertTrue(firstFrame.getValue().getPayload().contains("\"type\":\"UNREAD_COUNT\""));
+    }
+
+    @Test
+    void sendToUsers_CompactSession_ShouldReceiveBinaryFrame() throws Exception {
+        WebSocketSession json = session("s1");
+        WebSocketSession compact = session("s2");
+        when(compact.getAcceptedProtocol()).thenReturn(CompactMessageCodec.PROTOCOL);
+        sessionRegistry.register("u1", json);
+        sessionRegistry.register("u1", compact);
+
+        notificationSender.sendToUsers(List.of("u1"), new WebSocketMessage.UnreadCount(3, 7));
+
+        verify(json).sendMessage(any(TextMessage.class));
+        ArgumentCaptor<BinaryMessage> frame = ArgumentCaptor.forClass(BinaryMessage.class);
+        verify(compact).sendMessage(frame.capture());
+        assertEquals(8, frame.getValue().getPayload().get(0));
+        verify(metricsService).recordWebSocketFrameEncoded(eq("compact"), anyInt(), anyLong());
+    }
+
+    private WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
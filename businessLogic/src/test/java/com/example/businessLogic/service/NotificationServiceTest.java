@@ -0,0 +1,336 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.BulkNotificationResult;
+import com.example.businessLogic.dto.NotificationPage;
+import com.example.businessLogic.dto.NotificationRequest;
+import com.example.businessLogic.dto.NotificationResponse;
+import com.example.businessLogic.dto.NotificationSyncResponse;
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.example.businessLogic.entity.Notification;
+import com.example.businessLogic.entity.NotificationTombstone;
+import com.example.businessLogic.entity.NotificationType;
+import com.example.businessLogic.repository.NotificationRepository;
+import com.example.businessLogic.repository.NotificationTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_456_000);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private NotificationOutboxService notificationOutboxService;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationService, "syncPageSize", 3);
+        ReflectionTestUtils.setField(notificationService, "maxPageSize", 2);
+    }
+
+    @Test
+    void getNotificationsPage_ShouldCapLimitAndReturnNextCursor() {
+        when(notificationRepository.findFirstPage(eq("u1"), eq(PageRequest.of(0, 3)))).thenReturn(notifications(3));
+
+        NotificationPage page = notificationService.getNotificationsPage("u1", null, 500, false);
+
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void getNotificationsPage_WithCursor_ShouldContinueAfterLastItem() {
+        when(notificationRepository.findFirstUnreadPage(eq("u1"), eq(0L), any(Pageable.class))).thenReturn(notifications(3));
+        String cursor = notificationService.getNotificationsPage("u1", null, 2, true).getNextCursor();
+
+        when(notificationRepository.findUnreadPageBefore(eq("u1"), eq(0L), eq(NOW), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(notification(3L)));
+        NotificationPage page = notificationService.getNotificationsPage("u1", cursor, 2, true);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getNotificationsPage_BrokenCursor_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationService.getNotificationsPage("u1", "%%%", 10, false));
+    }
+
+    @Test
+    void sync_WithoutCursor_ShouldReturnCappedSnapshot() {
+        when(notificationRepository.findFirstPage(eq("u1"), any(Pageable.class))).thenReturn(notifications(4));
+        when(notificationRepository.findLastChangeSeq("u1")).thenReturn(40L);
+        when(tombstoneRepository.findLastId("u1")).thenReturn(42L);
+
+        NotificationSyncResponse response = notificationService.sync("u1", null);
+
+        assertTrue(response.isSnapshot());
+        assertTrue(response.isHasMore());
+        assertEquals(3, response.getNotifications().size());
+        assertEquals("42", response.getCursor());
+    }
+
+    @Test
+    void sync_WithCursor_ShouldReturnChangesAndDeletions() {
+        when(tombstoneRepository.findAfter(eq("u1"), eq(50L), any(Pageable.class)))
+                .thenReturn(List.of(tombstone(75L, 4L)));
+        when(notificationRepository.findChangedAfter(eq("u1"), eq(50L), any(Pageable.class)))
+                .thenReturn(List.of(notification(6L), notification(7L)));
+
+        NotificationSyncResponse response = notificationService.sync("u1", "50");
+
+        assertFalse(response.isSnapshot());
+        assertEquals(2, response.getNotifications().size());
+        assertEquals(List.of(4L), response.getDeletedIds());
+        assertEquals("75", response.getCursor());
+        verify(notificationRepository, never()).findFirstPage(any(), any());
+    }
+
+    @Test
+    void sync_TooManyChanges_ShouldFallBackToSnapshot() {
+        when(notificationRepository.findChangedAfter(eq("u1"), eq(50L), any(Pageable.class)))
+                .thenReturn(notifications(4));
+        when(notificationRepository.findFirstPage(eq("u1"), any(Pageable.class))).thenReturn(notifications(2));
+
+        NotificationSyncResponse response = notificationService.sync("u1", "50");
+
+        assertTrue(response.isSnapshot());
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    void sync_WhenTombstonesPurgedPastCursor_ShouldReturnSnapshot() {
+        when(tombstoneRepository.findOldestId()).thenReturn(100L);
+        when(notificationRepository.findFirstPage(eq("u1"), any(Pageable.class))).thenReturn(notifications(1));
+
+        NotificationSyncResponse response = notificationService.sync("u1", "50");
+
+        assertTrue(response.isSnapshot());
+        verify(notificationRepository, never()).findChangedAfter(any(), anyLong(), any());
+    }
+
+    @Test
+    void sync_BrokenCursor_ShouldReturnSnapshot() {
+        when(notificationRepository.findFirstPage(eq("u1"), any(Pageable.class))).thenReturn(List.of());
+
+        NotificationSyncResponse response = notificationService.sync("u1", "2024-05-01T12:00_5");
+
+        assertTrue(response.isSnapshot());
+        assertNull(response.getCursor());
+        verify(notificationRepository, never()).findChangedAfter(any(), anyLong(), any());
+    }
+
+    @Test
+    void markAsRead_ShouldAdjustCounterByUpdatedRows() {
+        when(unreadCounterService.lockReadState("u1")).thenReturn(2L);
+        when(notificationRepository.markAsRead(eq(5L), eq("u1"), eq(2L), any(LocalDateTime.class))).thenReturn(1);
+
+        notificationService.markAsRead(5L, "u1");
+
+        verify(unreadCounterService).adjust("u1", -1);
+    }
+
+    @Test
+    void markAllAsRead_ShouldMoveWatermarkWithoutTouchingRows() {
+        notificationService.markAllAsRead("u1");
+
+        verify(unreadCounterService).markAllRead("u1");
+        verify(tombstoneRepository).save(argThat(tombstone -> tombstone.getNotificationId() == null));
+        verifyNoInteractions(notificationRepository);
+        verify(notificationSender).sendMessage(eq("u1"), any(WebSocketMessage.AllNotificationsRead.class));
+    }
+
+    @Test
+    void getUserNotifications_BelowWatermark_ShouldBeRead() {
+        when(notificationRepository.findByOwnerIdOrderByDateDesc("u1")).thenReturn(List.of(notification(3L), notification(2L)));
+        when(unreadCounterService.getReadUpToId("u1")).thenReturn(2L);
+
+        List<NotificationResponse> notifications = notificationService.getUserNotifications("u1");
+
+        assertFalse(notifications.get(0).getIsRead());
+        assertTrue(notifications.get(1).getIsRead());
+    }
+
+    @Test
+    void sync_AfterReset_ShouldReturnSnapshot() {
+        when(tombstoneRepository.findAfter(eq("u1"), eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(tombstone(11L, null)));
+        when(notificationRepository.findFirstPage(eq("u1"), any(Pageable.class))).thenReturn(notifications(1));
+
+        NotificationSyncResponse response = notificationService.sync("u1", "10");
+
+        assertTrue(response.isSnapshot());
+        verify(notificationRepository, never()).findChangedAfter(any(), anyLong(), any());
+    }
+
+    @Test
+    void deleteNotification_ReadNotification_ShouldNotChangeCounter() {
+        when(notificationRepository.deleteUnreadByOwnerIdAndId("u1", 5L, 0L)).thenReturn(0);
+        when(notificationRepository.deleteByOwnerIdAndId("u1", 5L)).thenReturn(1);
+
+        notificationService.deleteNotification(5L, "u1");
+
+        verify(unreadCounterService).adjust("u1", 0);
+        verify(tombstoneRepository).save(argThat(tombstone -> Long.valueOf(5L).equals(tombstone.getNotificationId())));
+    }
+
+    @Test
+    void discard_ShouldDecrementOnlyUnreadPerOwner() {
+        Notification belowWatermark = notification(1L);
+        Notification unread = notification(3L);
+        Notification read = notification(4L);
+        read.setIsRead(true);
+        when(unreadCounterService.lockReadState(List.of("u1", "u1", "u1"))).thenReturn(Map.of("u1", 2L));
+
+        notificationService.discard(List.of(belowWatermark, unread, read));
+
+        verify(notificationRepository).deleteByIdIn(List.of(1L, 3L, 4L));
+        verify(tombstoneRepository).insertAll(aryEq(new String[]{"u1", "u1", "u1"}), aryEq(new Long[]{1L, 3L, 4L}),
+                any(LocalDateTime.class));
+        verify(unreadCounterService).adjust("u1", -1L);
+    }
+
+    @Test
+    void sendBulkNotification_ShouldInsertInBatchesAndReportStatuses() {
+        inTransaction();
+        ReflectionTestUtils.setField(notificationService, "bulkBatchSize", 2);
+        when(notificationRepository.insertForOwners(any(), eq(NotificationType.INFO), eq("Релиз"), eq("Вышла версия 2.0"),
+                eq("owner"), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> Arrays.stream((String[]) invocation.getArgument(0)).map(this::created).toList());
+        when(notificationSender.deliver(any(), any())).thenAnswer(invocation -> "u1".equals(invocation.getArgument(0))
+                ? BulkNotificationResult.DeliveryStatus.DELIVERED
+                : BulkNotificationResult.DeliveryStatus.STORED);
+        NotificationRequest request = NotificationRequest.builder()
+                .title("Релиз")
+                .message("Вышла версия 2.0")
+                .senderId("owner")
+                .type(NotificationType.INFO)
+                .build();
+
+        BulkNotificationResult result = notificationService.sendBulkNotification(List.of("u3", "u1", "u2", "u1", ""), request);
+
+        assertEquals(3, result.getRecipients());
+        assertEquals(1, result.getDelivered());
+        assertEquals(2, result.getStored());
+        verify(notificationRepository).insertForOwners(aryEq(new String[]{"u1", "u2"}), any(), any(), any(), any(), any());
+        verify(notificationRepository).insertForOwners(aryEq(new String[]{"u3"}), any(), any(), any(), any(), any());
+        verify(unreadCounterService).adjustAll(List.of("u1", "u2"), 1);
+        verify(unreadCounterService).adjustAll(List.of("u3"), 1);
+        verifyNoInteractions(notificationOutboxService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendInvitationNotifications_ShouldInsertOnceAndQueueInOutbox() {
+        when(notificationRepository.insertInvitationsForOwners(any(), any(), eq(NotificationType.PROJECT_INVITATION), any(), any(),
+                eq("owner"), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> Arrays.stream((String[]) invocation.getArgument(0)).map(this::created).toList());
+        NotificationRequest request = NotificationRequest.builder()
+                .title("Приглашение в проект")
+                .message("owner приглашает вас в проект")
+                .senderId("owner")
+                .type(NotificationType.PROJECT_INVITATION)
+                .build();
+
+        notificationService.sendInvitationNotifications(Map.of("u2", 12L, "u1", 11L), request);
+
+        verify(unreadCounterService).lockReadState(List.of("u1", "u2"));
+        verify(notificationRepository).insertInvitationsForOwners(aryEq(new String[]{"u1", "u2"}),
+                aryEq(new Long[]{11L, 12L}), any(), any(), any(), any(), any());
+        verify(unreadCounterService).adjustAll(List.of("u1", "u2"), 1);
+        verifyNoInteractions(notificationSender);
+
+        ArgumentCaptor<Map<String, NotificationResponse>> queued = ArgumentCaptor.forClass(Map.class);
+        verify(notificationOutboxService).enqueueAll(queued.capture());
+        assertEquals(List.of("u1", "u2"), List.copyOf(queued.getValue().keySet()));
+        assertEquals(11L, queued.getValue().get("u1").getInvitationId());
+        assertEquals(12L, queued.getValue().get("u2").getInvitationId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private NotificationRepository.CreatedNotification created(String ownerId) {
+        return new NotificationRepository.CreatedNotification() {
+            @Override
+            public Long getId() {
+                return (long) ownerId.hashCode();
+            }
+
+            @Override
+            public String getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+
+    private List<Notification> notifications(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(this::notification).toList();
+    }
+
+    private Notification notification(Long id) {
+        return Notification.builder()
+                .id(id)
+                .ownerId("u1")
+                .isRead(false)
+                .date(NOW)
+                .updatedAt(NOW)
+                .changeSeq(id * 10)
+                .build();
+    }
+
+    private NotificationTombstone tombstone(Long id, Long notificationId) {
+        return NotificationTombstone.builder()
+                .id(id)
+                .ownerId("u1")
+                .notificationId(notificationId)
+                .createdAt(NOW)
+                .build();
+    }
+}
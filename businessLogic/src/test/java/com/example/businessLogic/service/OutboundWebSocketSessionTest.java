@@ -0,0 +1,76 @@
+package com.example.businessLogic.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboundWebSocketSessionTest {
+
+    @Mock
+    private WebSocketSession delegate;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Test
+    void sendMessage_ShouldNotWriteOnCallerThread() throws Exception {
+        OutboundWebSocketSession session = session(1024, OutboundWebSocketSession.OverflowPolicy.DROP_OLDEST);
+
+        session.sendMessage(new TextMessage("one"));
+        session.sendMessage(new TextMessage("two"));
+
+        verify(delegate, never()).sendMessage(any());
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+
+        verify(delegate).sendMessage(new TextMessage("one"));
+        verify(delegate).sendMessage(new TextMessage("two"));
+        assertEquals(0, session.getQueuedBytes());
+    }
+
+    @Test
+    void sendMessage_DropOldest_ShouldKeepNewestMessages() throws Exception {
+        OutboundWebSocketSession session = session(10, OutboundWebSocketSession.OverflowPolicy.DROP_OLDEST);
+
+        session.sendMessage(new TextMessage("first!"));
+        session.sendMessage(new TextMessage("second"));
+        session.sendMessage(new TextMessage("third!"));
+        tasks.get(0).run();
+
+        verify(delegate).sendMessage(new TextMessage("third!"));
+        verify(delegate, times(1)).sendMessage(any());
+        verify(metricsService, times(2)).recordWebSocketMessageDropped();
+    }
+
+    @Test
+    void sendMessage_Disconnect_ShouldCloseSlowSession() throws Exception {
+        OutboundWebSocketSession session = session(10, OutboundWebSocketSession.OverflowPolicy.DISCONNECT);
+
+        session.sendMessage(new TextMessage("first!"));
+        session.sendMessage(new TextMessage("second"));
+        session.sendMessage(new TextMessage("third!"));
+
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(metricsService).recordWebSocketSessionTerminated("buffer_overflow");
+        assertEquals(0, session.getQueuedBytes());
+    }
+
+    private OutboundWebSocketSession session(int bufferSizeLimit, OutboundWebSocketSession.OverflowPolicy policy) {
+        return new OutboundWebSocketSession(delegate, tasks::add, metricsService, 10_000, bufferSizeLimit, policy);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.entity.Role;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectAccessCacheTest {
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Spy
+    private NotificationBus notificationBus = new InProcessNotificationBus();
+
+    @InjectMocks
+    private ProjectAccessCache projectAccessCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(projectAccessCache, "maxUsers", 2);
+        ReflectionTestUtils.setField(projectAccessCache, "ttlMs", 60_000L);
+        projectAccessCache.subscribe();
+    }
+
+    @Test
+    void roleOf_ShouldLoadAllProjectsOfUserOnce() {
+        when(projectMemberRepository.findRolesByUserId("u1"))
+                .thenReturn(List.of(role("p1", Role.ROLE_OWNER), role("p2", Role.ROLE_USER)));
+
+        assertEquals(Role.ROLE_OWNER, projectAccessCache.roleOf("u1", "p1"));
+        assertEquals(Role.ROLE_USER, projectAccessCache.roleOf("u1", "p2"));
+        assertNull(projectAccessCache.roleOf("u1", "p3"));
+
+        verify(projectMemberRepository, times(1)).findRolesByUserId("u1");
+    }
+
+    @Test
+    void onMembershipChanged_ShouldReloadOnlyAffectedUsers() {
+        when(projectMemberRepository.findRolesByUserId("u1"))
+                .thenReturn(List.of())
+                .thenReturn(List.of(role("p1", Role.ROLE_USER)));
+        when(projectMemberRepository.findRolesByUserId("u2")).thenReturn(List.of(role("p1", Role.ROLE_OWNER)));
+
+        assertNull(projectAccessCache.roleOf("u1", "p1"));
+        projectAccessCache.roleOf("u2", "p1");
+
+        projectAccessCache.onMembershipChanged(new ProjectMembershipChangedEvent(List.of("u1")));
+
+        assertEquals(Role.ROLE_USER, projectAccessCache.roleOf("u1", "p1"));
+        assertEquals(Role.ROLE_OWNER, projectAccessCache.roleOf("u2", "p1"));
+        verify(projectMemberRepository, times(2)).findRolesByUserId("u1");
+        verify(projectMemberRepository, times(1)).findRolesByUserId("u2");
+        verify(notificationBus).broadcast(ProjectAccessCache.INVALIDATION_TOPIC, "u1");
+    }
+
+    @Test
+    void invalidationFromOtherNode_ShouldDropUsers() {
+        when(projectMemberRepository.findRolesByUserId(anyString())).thenReturn(List.of());
+        projectAccessCache.rolesOf("u1");
+        projectAccessCache.rolesOf("u2");
+
+        notificationBus.broadcast(ProjectAccessCache.INVALIDATION_TOPIC, "u1\nu2");
+        projectAccessCache.rolesOf("u1");
+        projectAccessCache.rolesOf("u2");
+
+        verify(projectMemberRepository, times(2)).findRolesByUserId("u1");
+        verify(projectMemberRepository, times(2)).findRolesByUserId("u2");
+    }
+
+    @Test
+    void rolesOf_WhenExpired_ShouldReload() {
+        ReflectionTestUtils.setField(projectAccessCache, "ttlMs", 0L);
+        when(projectMemberRepository.findRolesByUserId("u1")).thenReturn(List.of());
+
+        projectAccessCache.rolesOf("u1");
+        projectAccessCache.rolesOf("u1");
+
+        verify(projectMemberRepository, times(2)).findRolesByUserId("u1");
+    }
+
+    @Test
+    void rolesOf_WhenInvalidatedDuringLoad_ShouldNotCacheStaleRoles() {
+        when(projectMemberRepository.findRolesByUserId("u1"))
+                .thenAnswer(inv -> {
+                    // Членство изменилось и сброс пришёл, пока шёл запрос
+                    projectAccessCache.invalidate("u1");
+                    return List.of();
+                })
+                .thenReturn(List.of(role("p1", Role.ROLE_USER)));
+
+        assertNull(projectAccessCache.roleOf("u1", "p1"));
+        assertEquals(Role.ROLE_USER, projectAccessCache.roleOf("u1", "p1"));
+    }
+
+    @Test
+    void rolesOf_WhenFull_ShouldStartOver() {
+        when(projectMemberRepository.findRolesByUserId(anyString())).thenReturn(List.of());
+
+        projectAccessCache.rolesOf("u1");
+        projectAccessCache.rolesOf("u2");
+        projectAccessCache.rolesOf("u3");
+        projectAccessCache.rolesOf("u1");
+
+        verify(projectMemberRepository, times(2)).findRolesByUserId("u1");
+    }
+
+    private ProjectMemberRepository.ProjectRole role(String projectId, Role role) {
+        return new ProjectMemberRepository.ProjectRole() {
+            @Override
+            public String getProjectId() {
+                return projectId;
+            }
+
+            @Override
+            public Role getRole() {
+                return role;
+            }
+        };
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.NotificationRequest;
+import com.example.businessLogic.dto.ProjectDeletionStatus;
+import com.example.businessLogic.entity.Notification;
+import com.example.businessLogic.entity.Project;
+import com.example.businessLogic.entity.ProjectDeletion;
+import com.example.businessLogic.entity.TaskChangeAction;
+import com.example.businessLogic.repository.NotesRepository;
+import com.example.businessLogic.repository.NotificationRepository;
+import com.example.businessLogic.repository.ProjectDeletionRepository;
+import com.example.businessLogic.repository.ProjectInvitationRepository;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import com.example.businessLogic.repository.ProjectRepository;
+import com.example.businessLogic.repository.RecurrenceRuleRepository;
+import com.example.businessLogic.repository.TaskDependencyRepository;
+import com.example.businessLogic.repository.TaskRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectDeletionServiceTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private ProjectDeletionRepository deletionRepository;
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @Mock
+    private RecurrenceRuleRepository recurrenceRuleRepository;
+
+    @Mock
+    private NotesRepository notesRepository;
+
+    @Mock
+    private ProjectInvitationRepository invitationRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ProjectDeletionService projectDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(projectDeletionService, "chunkSize", 2);
+    }
+
+    @Test
+    void requestDeletion_ShouldHideProjectAndInvalidateMembers() {
+        Project project = new Project();
+        project.setId("p1");
+        project.setName("Проект");
+        when(projectRepository.findById("p1")).thenReturn(Optional.of(project));
+        when(projectRepository.markDeleted(eq("p1"), any(LocalDateTime.class))).thenReturn(1);
+        when(projectMemberRepository.findUserIdsByProjectId("p1")).thenReturn(List.of("u1", "u2"));
+        when(deletionRepository.save(any(ProjectDeletion.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ProjectDeletionStatus status = projectDeletionService.requestDeletion("p1", "u1");
+
+        assertEquals(ProjectDeletionStatus.State.QUEUED, status.getState());
+        verify(eventPublisher).publishEvent(new ProjectMembershipChangedEvent(List.of("u1", "u2")));
+        verify(eventPublisher).publishEvent(new ProjectDeletionRequestedEvent(status.getDeletionId()));
+
+        ArgumentCaptor<ProjectDeletion> saved = ArgumentCaptor.forClass(ProjectDeletion.class);
+        verify(deletionRepository).save(saved.capture());
+        assertEquals("p1", saved.getValue().getProjectId());
+        when(deletionRepository.findById(status.getDeletionId())).thenReturn(Optional.of(saved.getValue()));
+        assertEquals(status.getDeletionId(), projectDeletionService.getStatus(status.getDeletionId(), "u1").getDeletionId());
+        assertThrows(EntityNotFoundException.class,
+                () -> projectDeletionService.getStatus(status.getDeletionId(), "u2"));
+    }
+
+    @Test
+    void requestDeletion_WhenAlreadyDeleting_ShouldThrow() {
+        when(projectRepository.findById("p1")).thenReturn(Optional.of(new Project()));
+        when(projectRepository.markDeleted(eq("p1"), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> projectDeletionService.requestDeletion("p1", "u1"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void run_ShouldDeleteTasksInChunksThenProjectData() {
+        inlineTransactions();
+        when(taskRepository.countTasksInProject("p1")).thenReturn(3L);
+        when(taskRepository.findIdBatchByProjectId("p1", 2))
+                .thenReturn(List.of("t1", "t2"))
+                .thenReturn(List.of("t3"))
+                .thenReturn(List.of());
+        when(taskRepository.deleteByTaskIdIn(any())).thenAnswer(inv -> ((String[]) inv.getArgument(0)).length);
+        when(notesRepository.deleteProjectNotesBatch("p1", 2)).thenReturn(1).thenReturn(0);
+        Notification invitationNotification = Notification.builder().id(7L).ownerId("u3").build();
+        when(invitationRepository.findIdBatchByProjectId("p1", 2)).thenReturn(List.of(5L)).thenReturn(List.of());
+        when(notificationRepository.findByInvitationIdIn(List.of(5L))).thenReturn(List.of(invitationNotification));
+        when(invitationRepository.deleteByIdIn(List.of(5L))).thenReturn(1);
+
+        holdLease();
+
+        projectDeletionService.run(deletion());
+
+        verify(taskRepository).deleteAssigneesByTaskIdIn(new String[]{"t1", "t2"});
+        verify(taskDependencyRepository).deleteByTaskIdIn(new String[]{"t1", "t2"});
+        verify(recurrenceRuleRepository).deleteByTemplateTaskIdIn(new String[]{"t3"});
+        verify(notesRepository).deleteTaskNotes(new String[]{"t3"});
+        verify(notificationService).discard(List.of(invitationNotification));
+        verify(projectMemberRepository).deleteAllByProjectId("p1");
+        verify(projectRepository).purgeDeleted("p1");
+        verify(notificationService).sendNotification(eq("u1"), any(NotificationRequest.class));
+        verify(eventPublisher).publishEvent(new TaskChangedEvent("p1", "t3", TaskChangeAction.DELETED, null));
+        verify(eventPublisher, times(3)).publishEvent(any(TaskChangedEvent.class));
+
+        // Аренда продлевается после каждой пачки каждой фазы; важно, что итоговый прогресс дошёл до 3 из 3
+        verify(deletionRepository, atLeastOnce()).renewLease(eq("d1"), anyString(), eq(ProjectDeletionStatus.State.RUNNING),
+                any(LocalDateTime.class), eq(3L), eq(3L));
+        verify(deletionRepository).finish(eq("d1"), anyString(), eq(ProjectDeletionStatus.State.COMPLETED),
+                any(LocalDateTime.class), isNull(), eq(3L));
+    }
+
+    @Test
+    void run_WhenLeaseTakenOver_ShouldStopWithoutPurging() {
+        inlineTransactions();
+        when(taskRepository.countTasksInProject("p1")).thenReturn(3L);
+        when(taskRepository.findIdBatchByProjectId("p1", 2)).thenReturn(List.of("t1", "t2"));
+        when(taskRepository.deleteByTaskIdIn(any())).thenReturn(2);
+        // Первое продление прошло, после первой пачки аренда уже у другого узла
+        when(deletionRepository.renewLease(eq("d1"), anyString(), any(), any(), anyLong(), anyLong()))
+                .thenReturn(1)
+                .thenReturn(0);
+
+        projectDeletionService.run(deletion());
+
+        verify(taskRepository, times(1)).deleteByTaskIdIn(any());
+        verify(projectRepository, never()).purgeDeleted(any());
+        verify(deletionRepository, never()).finish(any(), any(), any(), any(), any(), anyLong());
+        verifyNoInteractions(metricsService);
+    }
+
+    @Test
+    void run_WhenStatementFails_ShouldKeepProjectMarkedAndReportFailure() {
+        inlineTransactions();
+        when(taskRepository.findIdBatchByProjectId("p1", 2)).thenThrow(new IllegalStateException("timeout"));
+
+        holdLease();
+
+        projectDeletionService.run(deletion());
+
+        verify(deletionRepository).finish(eq("d1"), anyString(), eq(ProjectDeletionStatus.State.FAILED),
+                any(LocalDateTime.class), eq("timeout"), eq(0L));
+        verify(projectRepository, never()).purgeDeleted(any());
+        verify(metricsService).recordProjectDeletion(eq("failed"), eq(0L), anyLong());
+    }
+
+    private ProjectDeletion deletion() {
+        return ProjectDeletion.builder()
+                .id("d1")
+                .projectId("p1")
+                .projectName("Проект")
+                .requestedBy("u1")
+                .state(ProjectDeletionStatus.State.QUEUED)
+                .requestedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void holdLease() {
+        when(deletionRepository.renewLease(eq("d1"), anyString(), any(), any(), anyLong(), anyLong())).thenReturn(1);
+        when(deletionRepository.finish(eq("d1"), anyString(), any(), any(), any(), anyLong())).thenReturn(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inlineTransactions() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.businessLogic.service;
 
+import com.example.businessLogic.dto.InvitationBatchResult;
 import com.example.businessLogic.dto.NotificationRequest;
 import com.example.businessLogic.entity.*;
 import com.example.businessLogic.repository.*;
@@ -9,14 +10,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +46,9 @@ class ProjectInvitationServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProjectInvitationService projectInvitationService;
 
@@ -323,7 +332,7 @@ class ProjectInvitationServiceTest {
 
         projectInvitationService = new ProjectInvitationService(
                 notificationRepository, invitationRepository, projectRepository,
-                userRepository, projectMemberRepository, notificationService
+                userRepository, projectMemberRepository, notificationService, eventPublisher
         );
     }
 
@@ -388,4 +397,92 @@ class ProjectInvitationServiceTest {
                 () -> projectInvitationService.acceptInvitation(invitationId, invitedUserId));
         assertEquals("invited user not found", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void acceptInvitation_ShouldAddMemberAndInvalidateAccessCache() {
+        Long invitationId = 1L;
+        String invitedUserId = "user2";
+
+        ProjectInvitation invitation = ProjectInvitation.builder()
+                .id(invitationId)
+                .projectId("project1")
+                .invitedUserId(invitedUserId)
+                .inviterUserId("user1")
+                .status(InvitationStatus.PENDING)
+                .build();
+
+        Project project = new Project();
+        project.setId("project1");
+        project.setName("Test Project");
+
+        User invitedUser = new User();
+        invitedUser.setId(invitedUserId);
+        invitedUser.setUsername("InvitedUser");
+
+        when(invitationRepository.findById(invitationId)).thenReturn(Optional.of(invitation));
+        when(projectRepository.findById("project1")).thenReturn(Optional.of(project));
+        when(userRepository.findById(invitedUserId)).thenReturn(Optional.of(invitedUser));
+
+        projectInvitationService.acceptInvitation(invitationId, invitedUserId);
+
+        assertEquals(InvitationStatus.ACCEPTED, invitation.getStatus());
+        verify(projectMemberRepository).save(any(ProjectMember.class));
+        verify(eventPublisher).publishEvent(new ProjectMembershipChangedEvent(List.of(invitedUserId)));
+    }
+
+    @Test
+    void sendInvitations_ShouldValidateWithSetQueriesAndReportOutcomes() {
+        Project project = new Project();
+        project.setId("project1");
+        project.setName("Test Project");
+
+        User inviter = new User();
+        inviter.setId("owner");
+        inviter.setUsername("Owner");
+
+        List<String> candidates = List.of("u1", "u2", "u3", "u4");
+        when(projectRepository.findById("project1")).thenReturn(Optional.of(project));
+        when(userRepository.findById("owner")).thenReturn(Optional.of(inviter));
+        when(userRepository.findExistingIds(candidates)).thenReturn(Set.of("u1", "u2", "u3"));
+        when(projectMemberRepository.findMemberUserIds("project1", candidates)).thenReturn(List.of("u2"));
+        when(invitationRepository.findInvitedUserIds("project1", candidates, InvitationStatus.PENDING))
+                .thenReturn(List.of("u3"));
+        when(invitationRepository.insertPending(eq("project1"), aryEq(new String[]{"u1"}), eq("owner"),
+                any(LocalDateTime.class))).thenReturn(List.of(createdInvitation(10L, "u1")));
+
+        InvitationBatchResult result = projectInvitationService.sendInvitations("project1",
+                List.of("owner", "u1", "u2", "u3", "u4", "u1"), "owner");
+
+        assertEquals(1, result.getInvited());
+        assertEquals(3, result.getSkipped());
+        assertEquals(Map.of(
+                "u1", InvitationBatchResult.Outcome.INVITED,
+                "u2", InvitationBatchResult.Outcome.ALREADY_MEMBER,
+                "u3", InvitationBatchResult.Outcome.ALREADY_INVITED,
+                "u4", InvitationBatchResult.Outcome.USER_NOT_FOUND), result.getOutcomes());
+        verify(notificationService).sendInvitationNotifications(eq(Map.of("u1", 10L)), any(NotificationRequest.class));
+        verify(invitationRepository, never()).save(any(ProjectInvitation.class));
+    }
+
+    @Test
+    void sendInvitations_WithOnlyInviter_ShouldNotQuery() {
+        InvitationBatchResult result = projectInvitationService.sendInvitations("project1", List.of("owner"), "owner");
+
+        assertEquals(0, result.getInvited());
+        verifyNoInteractions(projectRepository, userRepository, invitationRepository, notificationService);
+    }
+
+    private ProjectInvitationRepository.CreatedInvitation createdInvitation(Long id, String userId) {
+        return new ProjectInvitationRepository.CreatedInvitation() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getInvitedUserId() {
+                return userId;
+            }
+        };
+    }
+}
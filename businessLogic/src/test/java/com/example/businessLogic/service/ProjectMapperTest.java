@@ -0,0 +1,120 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.ProjectDto;
+import com.example.businessLogic.dto.ProjectMemberDto;
+import com.example.businessLogic.entity.Project;
+import com.example.businessLogic.entity.ProjectMember;
+import com.example.businessLogic.entity.Role;
+import com.example.businessLogic.entity.User;
+import com.example.businessLogic.id.ProjectMemberId;
+import com.example.businessLogic.repository.ProjectRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Число SQL-запросов при построении списка проектов не должно зависеть от числа проектов и участников.
+ */
+@DataJpaTest
+@Import(ProjectMapper.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProjectMapperTest {
+
+    private static final int PROJECTS = 30;
+
+    @Autowired
+    private ProjectMapper projectMapper;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User owner = persistUser("owner");
+        User first = persistUser("first");
+        User second = persistUser("second");
+
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = new Project();
+            project.setName("Проект " + i);
+            entityManager.persist(project);
+
+            persistMember(project, owner, Role.ROLE_OWNER);
+            persistMember(project, first, Role.ROLE_ADMIN);
+            if (i % 2 == 0) {
+                persistMember(project, second, Role.ROLE_USER);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void toDtoList_ShouldUseFixedNumberOfStatements() {
+        List<ProjectDto> projects = projectMapper.toDtoList(projectRepository.findAllByUserId("owner"));
+
+        // Один запрос за проектами и один за всеми участниками с именами
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(PROJECTS, projects.size());
+
+        int members = projects.stream().mapToInt(project -> project.getMembers().size()).sum();
+        assertEquals(PROJECTS * 2 + PROJECTS / 2, members);
+
+        ProjectMemberDto owner = projects.get(0).getMembers().stream()
+                .filter(member -> member.getUserId().equals("owner"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("owner-name", owner.getUsername());
+        assertEquals(Role.ROLE_OWNER.name(), owner.getRole());
+    }
+
+    @Test
+    void toDto_ShouldUseSingleStatementForMembers() {
+        Project project = projectRepository.findAllByUserId("second").get(0);
+        statistics.clear();
+
+        ProjectDto dto = projectMapper.toDto(project);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3, dto.getMembers().size());
+    }
+
+    private User persistUser(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(id + "-name");
+        return entityManager.persist(user);
+    }
+
+    private void persistMember(Project project, User user, Role role) {
+        ProjectMember member = new ProjectMember();
+        member.setId(new ProjectMemberId(user.getId(), project.getId()));
+        member.setUser(user);
+        member.setProject(project);
+        member.setRole(role);
+        entityManager.persist(member);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.AssigneeWorkloadDto;
+import com.example.businessLogic.dto.ProjectWorkloadReport;
+import com.example.businessLogic.dto.WeeklyThroughputDto;
+import com.example.businessLogic.entity.Project;
+import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Запросы отчёта о загрузке выполняются на настоящей схеме: ранги, просрочка и скользящее среднее по неделям.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class ProjectWorkloadQueryTest {
+
+    private static final int WEEKS = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ProjectWorkloadService projectWorkloadService;
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate monday = today.with(DayOfWeek.MONDAY);
+
+    private String projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectWorkloadService = new ProjectWorkloadService(jdbcTemplate, new InProcessNotificationBus());
+        ReflectionTestUtils.setField(projectWorkloadService, "cacheTtlMs", 60_000L);
+        ReflectionTestUtils.setField(projectWorkloadService, "cacheMaxProjects", 100);
+
+        User first = persistUser("u1");
+        User second = persistUser("u2");
+
+        Project project = new Project();
+        project.setName("Проект");
+        entityManager.persist(project);
+        projectId = project.getId();
+
+        // Задачи другого проекта в отчёт попадать не должны
+        Project other = new Project();
+        other.setName("Другой проект");
+        entityManager.persist(other);
+        persistTask(other, first, Set.of(first), monday, today.minusDays(1), null);
+
+        persistTask(project, first, Set.of(first), monday, today.minusDays(1), null);
+        persistTask(project, first, Set.of(first), monday.minusWeeks(1), null, null);
+        persistTask(project, first, Set.of(second), monday.minusWeeks(1), today.plusDays(5), null);
+        persistTask(project, first, Set.of(second), monday.minusWeeks(2), null, monday.minusDays(6));
+        persistTask(project, first, Set.of(), monday.minusWeeks(2), today.minusDays(3), null);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getReport_ShouldRankAssigneesAndCountOverdue() {
+        ProjectWorkloadReport report = projectWorkloadService.getReport(projectId, WEEKS);
+
+        List<AssigneeWorkloadDto> assignees = report.getAssignees();
+        assertEquals(2, assignees.size());
+
+        AssigneeWorkloadDto first = assignees.get(0);
+        assertEquals("u1", first.getUserId());
+        assertEquals("u1-name", first.getUsername());
+        assertEquals(2, first.getOpenTasks());
+        assertEquals(1, first.getOverdueTasks());
+        assertEquals(0, first.getCompletedTasks());
+        assertEquals(1, first.getLoadRank());
+        assertEquals(2.0 / 3, first.getLoadShare(), 1e-6);
+
+        AssigneeWorkloadDto second = assignees.get(1);
+        assertEquals("u2", second.getUserId());
+        assertEquals(1, second.getOpenTasks());
+        assertEquals(0, second.getOverdueTasks());
+        assertEquals(1, second.getCompletedTasks());
+        assertEquals(2, second.getLoadRank());
+        assertEquals(1.0 / 3, second.getLoadShare(), 1e-6);
+
+        assertEquals(1, report.getUnassignedOpenTasks());
+        assertEquals(1, report.getUnassignedOverdueTasks());
+    }
+
+    @Test
+    void getReport_ShouldFillEmptyWeeksAndRollCompleted() {
+        ProjectWorkloadReport report = projectWorkloadService.getReport(projectId, WEEKS);
+
+        List<WeeklyThroughputDto> weeks = report.getThroughput();
+        assertEquals(List.of(monday.minusWeeks(3), monday.minusWeeks(2), monday.minusWeeks(1), monday),
+                weeks.stream().map(WeeklyThroughputDto::getWeekStart).toList());
+        assertEquals(List.of(0L, 2L, 2L, 1L), weeks.stream().map(WeeklyThroughputDto::getCreated).toList());
+        assertEquals(List.of(0L, 0L, 1L, 0L), weeks.stream().map(WeeklyThroughputDto::getCompleted).toList());
+        assertEquals(List.of(0L, 2L, 3L, 4L), weeks.stream().map(WeeklyThroughputDto::getBacklogChange).toList());
+
+        // Окно из четырёх недель: неделя без событий тоже входит в среднее
+        assertEquals(0.0, weeks.get(1).getRollingCompleted(), 1e-6);
+        assertEquals(1.0 / 3, weeks.get(2).getRollingCompleted(), 1e-6);
+        assertEquals(0.25, weeks.get(3).getRollingCompleted(), 1e-6);
+    }
+
+    private User persistUser(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(id + "-name");
+        return entityManager.persist(user);
+    }
+
+    private void persistTask(Project project, User creator, Set<User> assignees, LocalDate created,
+                             LocalDate deadline, LocalDate completed) {
+        Task task = new Task();
+        task.setTitle("Задача");
+        task.setProject(project);
+        task.setCreator(creator);
+        task.setAssignees(new HashSet<>(assignees));
+        task.setCreateDate(created);
+        task.setDeadlineDate(deadline);
+        task.setCompletionDate(completed);
+        entityManager.persist(task);
+    }
+}
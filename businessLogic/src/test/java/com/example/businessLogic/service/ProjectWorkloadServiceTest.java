@@ -0,0 +1,164 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.AssigneeWorkloadDto;
+import com.example.businessLogic.dto.ProjectWorkloadReport;
+import com.example.businessLogic.entity.TaskChangeAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectWorkloadServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NotificationBus notificationBus;
+
+    @InjectMocks
+    private ProjectWorkloadService projectWorkloadService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(projectWorkloadService, "cacheTtlMs", 60_000L);
+        ReflectionTestUtils.setField(projectWorkloadService, "cacheMaxProjects", 100);
+    }
+
+    @Test
+    void getReport_ShouldMapRowsAndCacheUntilTaskChanged() throws SQLException {
+        ResultSet assignee = mock(ResultSet.class);
+        when(assignee.getString("user_id")).thenReturn("u1");
+        when(assignee.getString("user_name")).thenReturn("Анна");
+        when(assignee.getLong("open_tasks")).thenReturn(5L);
+        when(assignee.getLong("overdue_tasks")).thenReturn(2L);
+        when(assignee.getLong("completed_tasks")).thenReturn(7L);
+        when(assignee.getInt("load_rank")).thenReturn(1);
+        when(assignee.getDouble("load_share")).thenReturn(0.5);
+
+        ResultSet unassigned = mock(ResultSet.class);
+        when(unassigned.getLong("open_tasks")).thenReturn(3L);
+        when(unassigned.getLong("overdue_tasks")).thenReturn(1L);
+
+        LocalDate week = LocalDate.now().with(DayOfWeek.MONDAY);
+        ResultSet throughput = mock(ResultSet.class);
+        when(throughput.getDate("week_start")).thenReturn(Date.valueOf(week));
+        when(throughput.getLong("created")).thenReturn(6L);
+        when(throughput.getLong("completed")).thenReturn(4L);
+        when(throughput.getLong("backlog_change")).thenReturn(2L);
+        when(throughput.getDouble("rolling_completed")).thenReturn(2.5);
+
+        answerRows(ProjectWorkloadService.ASSIGNEE_LOAD_SQL, assignee, unassigned);
+        answerRows(ProjectWorkloadService.WEEKLY_THROUGHPUT_SQL, throughput);
+
+        ProjectWorkloadReport report = projectWorkloadService.getReport("p1", 4);
+
+        assertEquals(week.minusWeeks(3), report.getFromWeek());
+        assertEquals(3, report.getUnassignedOpenTasks());
+        assertEquals(1, report.getUnassignedOverdueTasks());
+        AssigneeWorkloadDto load = report.getAssignees().get(0);
+        assertEquals("Анна", load.getUsername());
+        assertEquals(5, load.getOpenTasks());
+        assertEquals(2, load.getOverdueTasks());
+        assertEquals(0.5, load.getLoadShare());
+        assertEquals(6, report.getThroughput().get(0).getCreated());
+        assertEquals(4, report.getThroughput().get(0).getCompleted());
+        assertEquals(2, report.getThroughput().get(0).getBacklogChange());
+
+        assertSame(report, projectWorkloadService.getReport("p1", 4));
+        verify(jdbcTemplate, times(1)).query(eq(ProjectWorkloadService.ASSIGNEE_LOAD_SQL),
+                any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+
+        projectWorkloadService.onTaskChanged(new TaskChangedEvent("p1", "t1", TaskChangeAction.UPDATED, "Задача"));
+
+        assertNotSame(report, projectWorkloadService.getReport("p1", 4));
+        verify(jdbcTemplate, times(2)).query(eq(ProjectWorkloadService.ASSIGNEE_LOAD_SQL),
+                any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void getReport_WhenTasksChangeDuringLoad_ShouldNotReuseReport() {
+        // Задачи меняются только во время первой загрузки, вторая проходит без изменений
+        AtomicBoolean changed = new AtomicBoolean();
+        doAnswer(inv -> {
+            if (changed.compareAndSet(false, true)) {
+                projectWorkloadService.invalidate("p1");
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(ProjectWorkloadService.ASSIGNEE_LOAD_SQL),
+                any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+
+        ProjectWorkloadReport first = projectWorkloadService.getReport("p1", 4);
+        ProjectWorkloadReport second = projectWorkloadService.getReport("p1", 4);
+
+        assertNotSame(first, second);
+        assertSame(second, projectWorkloadService.getReport("p1", 4));
+    }
+
+    @Test
+    void getReport_ShouldClampPeriodAndCacheItSeparately() {
+        ProjectWorkloadReport report = projectWorkloadService.getReport("p1", 1000);
+
+        assertEquals(ProjectWorkloadService.MAX_WEEKS, report.getWeeks());
+        assertNotSame(report, projectWorkloadService.getReport("p1", 4));
+    }
+
+    @Test
+    void invalidate_ShouldBroadcastPendingProjectsOnce() {
+        projectWorkloadService.invalidate("p1");
+        projectWorkloadService.onTaskChanged(new TaskChangedEvent("p2", "t1", TaskChangeAction.CREATED, "Задача"));
+        projectWorkloadService.invalidate("p1");
+
+        projectWorkloadService.broadcastInvalidations();
+        projectWorkloadService.broadcastInvalidations();
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(notificationBus, times(1)).broadcast(eq(ProjectWorkloadService.INVALIDATION_TOPIC), message.capture());
+        assertEquals(Set.of("p1", "p2"), Set.of(message.getValue().split("\n")));
+    }
+
+    @Test
+    void invalidationFromOtherNode_ShouldDropCachedReport() {
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.captor();
+        projectWorkloadService.subscribe();
+        verify(notificationBus).subscribe(eq(ProjectWorkloadService.INVALIDATION_TOPIC), listener.capture());
+
+        ProjectWorkloadReport report = projectWorkloadService.getReport("p1", 4);
+        listener.getValue().accept("p1");
+
+        assertNotSame(report, projectWorkloadService.getReport("p1", 4));
+    }
+
+    // lenient: два SQL стабятся на один метод, и строгие заглушки приняли бы запрос к одному за чужой
+    private void answerRows(String sql, ResultSet... rows) {
+        lenient().doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(2);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(sql), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.RecurrenceRuleDto;
+import com.example.businessLogic.entity.Project;
+import com.example.businessLogic.entity.RecurrenceFrequency;
+import com.example.businessLogic.entity.RecurrenceRule;
+import com.example.businessLogic.entity.Status;
+import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.entity.TaskChangeAction;
+import com.example.businessLogic.repository.RecurrenceRuleRepository;
+import com.example.businessLogic.repository.StatusRepository;
+import com.example.businessLogic.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecurrenceServiceTest {
+
+    @Mock
+    private RecurrenceRuleRepository recurrenceRuleRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private StatusRepository statusRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RecurrenceService recurrenceService;
+
+    @Test
+    void occurrencesBetween_Weekly_ShouldSkipToWindow() {
+        RecurrenceRule rule = RecurrenceRule.builder()
+                .frequency(RecurrenceFrequency.WEEKLY)
+                .interval(2)
+                .startDate(LocalDate.of(2024, 1, 1))
+                .build();
+
+        List<LocalDate> result = recurrenceService.occurrencesBetween(rule,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+
+        assertEquals(List.of(LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 25)), result);
+    }
+
+    @Test
+    void occurrencesBetween_Monthly_ShouldClampToEndOfMonth() {
+        RecurrenceRule rule = RecurrenceRule.builder()
+                .frequency(RecurrenceFrequency.MONTHLY)
+                .interval(1)
+                .startDate(LocalDate.of(2024, 1, 31))
+                .build();
+
+        List<LocalDate> result = recurrenceService.occurrencesBetween(rule,
+                LocalDate.of(2024, 1, 31), LocalDate.of(2024, 3, 31));
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31)), result);
+    }
+
+    @Test
+    void occurrencesBetween_Cron_ShouldReturnOneDatePerDay() {
+        RecurrenceRule rule = RecurrenceRule.builder()
+                .frequency(RecurrenceFrequency.CRON)
+                .cronExpression("0 0 9,18 * * MON")
+                .startDate(LocalDate.of(2024, 1, 1))
+                .build();
+
+        List<LocalDate> result = recurrenceService.occurrencesBetween(rule,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 15));
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 15)), result);
+    }
+
+    @Test
+    void materialize_ShouldSkipAlreadyCreatedOccurrences() {
+        Task template = new Task();
+        template.setId("task-1");
+        template.setTitle("Отчёт");
+        template.setAssignees(new HashSet<>());
+
+        RecurrenceRule rule = RecurrenceRule.builder()
+                .id(5L)
+                .templateTask(template)
+                .frequency(RecurrenceFrequency.DAILY)
+                .interval(1)
+                .startDate(LocalDate.of(2024, 1, 1))
+                .materializedUntil(LocalDate.of(2024, 1, 1))
+                .build();
+
+        Status active = new Status(3, "Активная");
+        when(taskRepository.findOccurrenceDates(5L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 4)))
+                .thenReturn(Set.of(LocalDate.of(2024, 1, 2)));
+        when(statusRepository.findByNameIgnoreCase("Активная")).thenReturn(Optional.of(active));
+
+        int created = recurrenceService.materialize(rule, LocalDate.of(2024, 1, 4));
+
+        assertEquals(2, created);
+        assertEquals(LocalDate.of(2024, 1, 4), rule.getMaterializedUntil());
+        ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository, times(2)).save(saved.capture());
+        assertTrue(saved.getAllValues().stream().allMatch(task -> task.getStatus() == active));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void materialize_ProjectTask_ShouldPublishCreatedEvents() {
+        Project project = new Project();
+        project.setId("project-1");
+        Task template = new Task();
+        template.setId("task-1");
+        template.setTitle("Планёрка");
+        template.setProject(project);
+        template.setAssignees(new HashSet<>());
+
+        RecurrenceRule rule = RecurrenceRule.builder()
+                .id(5L)
+                .templateTask(template)
+                .frequency(RecurrenceFrequency.DAILY)
+                .interval(1)
+                .startDate(LocalDate.of(2024, 1, 1))
+                .materializedUntil(LocalDate.of(2024, 1, 1))
+                .build();
+        when(taskRepository.findOccurrenceDates(5L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3)))
+                .thenReturn(Set.of());
+        when(statusRepository.findByNameIgnoreCase("Активная")).thenReturn(Optional.of(new Status(3, "Активная")));
+
+        recurrenceService.materialize(rule, LocalDate.of(2024, 1, 3));
+
+        ArgumentCaptor<TaskChangedEvent> events = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> "project-1".equals(event.projectId())
+                && event.action() == TaskChangeAction.CREATED && "Планёрка".equals(event.title())));
+    }
+
+    @Test
+    void setRecurrence_ShouldLockExistingRuleBeforeMaterializing() {
+        Task template = new Task();
+        template.setId("task-1");
+        template.setCreateDate(LocalDate.now());
+        template.setAssignees(new HashSet<>());
+
+        RecurrenceRule rule = RecurrenceRule.builder()
+                .id(5L)
+                .templateTask(template)
+                .materializedUntil(LocalDate.now().plusDays(30))
+                .build();
+
+        when(taskRepository.findById("task-1")).thenReturn(Optional.of(template));
+        when(recurrenceRuleRepository.lockByTemplateTaskId("task-1")).thenReturn(Optional.of(rule));
+        when(recurrenceRuleRepository.save(rule)).thenReturn(rule);
+
+        recurrenceService.setRecurrence("task-1", RecurrenceRuleDto.builder()
+                .frequency(RecurrenceFrequency.DAILY)
+                .build());
+
+        verify(recurrenceRuleRepository).lockByTemplateTaskId("task-1");
+    }
+
+    @Test
+    void setRecurrence_WithInvalidCron_ShouldThrowException() {
+        Task template = new Task();
+        template.setId("task-1");
+        when(taskRepository.findById("task-1")).thenReturn(Optional.of(template));
+
+        RecurrenceRuleDto request = RecurrenceRuleDto.builder()
+                .frequency(RecurrenceFrequency.CRON)
+                .cronExpression("not a cron")
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> recurrenceService.setRecurrence("task-1", request));
+        verify(recurrenceRuleRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.businessLogic.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskDependencyGraphTest {
+
+    @Test
+    void wouldCreateCycle_WhenPathExists_ShouldReturnTrue() {
+        // 0 -> 1 -> 2
+        TaskDependencyGraph graph = TaskDependencyGraph.of(3, new int[]{0, 1}, new int[]{1, 2}, 2);
+
+        assertTrue(graph.wouldCreateCycle(2, 0));
+        assertTrue(graph.wouldCreateCycle(1, 1));
+        assertFalse(graph.wouldCreateCycle(0, 2));
+    }
+
+    @Test
+    void topologicalOrder_WithCycle_ShouldReturnNull() {
+        TaskDependencyGraph graph = TaskDependencyGraph.of(2, new int[]{0, 1}, new int[]{1, 0}, 2);
+
+        assertNull(graph.topologicalOrder());
+        assertThrows(IllegalStateException.class, () -> graph.schedule(new int[2], new int[2]));
+    }
+
+    @Test
+    void schedule_ShouldShiftBlockedTasksAndReturnCriticalPath() {
+        // 0 -> 2, 1 -> 2; задача 1 длиннее, поэтому она на критическом пути
+        TaskDependencyGraph graph = TaskDependencyGraph.of(3, new int[]{0, 1}, new int[]{2, 2}, 2);
+
+        TaskDependencyGraph.Schedule schedule = graph.schedule(new int[]{0, 0, 0}, new int[]{2, 5, 1});
+
+        assertArrayEquals(new int[]{0, 0, 5}, schedule.earliestStart());
+        assertArrayEquals(new int[]{2, 5, 6}, schedule.earliestFinish());
+        assertArrayEquals(new int[]{1, 2}, schedule.criticalPath());
+    }
+}
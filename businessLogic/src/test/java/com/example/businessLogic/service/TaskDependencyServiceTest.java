@@ -0,0 +1,167 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.ProjectScheduleDto;
+import com.example.businessLogic.dto.TaskScheduleDto;
+import com.example.businessLogic.entity.Project;
+import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.entity.TaskDependency;
+import com.example.businessLogic.repository.ProjectRepository;
+import com.example.businessLogic.repository.TaskDependencyRepository;
+import com.example.businessLogic.repository.TaskRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDependencyServiceTest {
+
+    @Mock
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @InjectMocks
+    private TaskDependencyService taskDependencyService;
+
+    private Task task(String id, Project project) {
+        Task task = new Task();
+        task.setId(id);
+        task.setProject(project);
+        return task;
+    }
+
+    private Project project(String id) {
+        Project project = new Project();
+        project.setId(id);
+        return project;
+    }
+
+    @Test
+    void addDependency_WithoutCycle_ShouldSave() {
+        Project project = project("project-1");
+        when(taskRepository.findById("b")).thenReturn(Optional.of(task("b", project)));
+        when(taskRepository.findById("a")).thenReturn(Optional.of(task("a", project)));
+        when(projectRepository.findByIdForUpdate("project-1")).thenReturn(Optional.of(project));
+        // c -> a уже есть, новая связь a -> b цикла не даёт
+        when(taskDependencyRepository.findEdgesByProjectId("project-1"))
+                .thenReturn(List.<Object[]>of(new Object[]{"c", "a"}));
+        when(taskDependencyRepository.save(any(TaskDependency.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TaskDependency result = taskDependencyService.addDependency("b", "a");
+
+        assertEquals("a", result.getBlockerTaskId());
+        assertEquals("b", result.getBlockedTaskId());
+        assertEquals("project-1", result.getProjectId());
+    }
+
+    @Test
+    void addDependency_ClosingTransitiveCycle_ShouldThrowException() {
+        Project project = project("project-1");
+        when(taskRepository.findById("a")).thenReturn(Optional.of(task("a", project)));
+        when(taskRepository.findById("c")).thenReturn(Optional.of(task("c", project)));
+        when(projectRepository.findByIdForUpdate("project-1")).thenReturn(Optional.of(project));
+        // a -> b -> c, добавление c -> a замыкает цикл
+        when(taskDependencyRepository.findEdgesByProjectId("project-1"))
+                .thenReturn(List.of(new Object[]{"a", "b"}, new Object[]{"b", "c"}));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> taskDependencyService.addDependency("a", "c"));
+
+        assertEquals("Зависимость создаёт цикл", exception.getMessage());
+        verify(taskDependencyRepository, never()).save(any());
+    }
+
+    @Test
+    void addDependency_OnItself_ShouldThrowException() {
+        Project project = project("project-1");
+        when(taskRepository.findById("a")).thenReturn(Optional.of(task("a", project)));
+        when(projectRepository.findByIdForUpdate("project-1")).thenReturn(Optional.of(project));
+        when(taskDependencyRepository.findEdgesByProjectId("project-1")).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> taskDependencyService.addDependency("a", "a"));
+        verify(taskDependencyRepository, never()).save(any());
+    }
+
+    @Test
+    void addDependency_WhenTaskMissing_ShouldThrowException() {
+        when(taskRepository.findById("b")).thenReturn(Optional.of(task("b", project("project-1"))));
+        when(taskRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> taskDependencyService.addDependency("b", "missing"));
+        verifyNoInteractions(projectRepository, taskDependencyRepository);
+    }
+
+    @Test
+    void addDependency_AcrossProjects_ShouldThrowException() {
+        when(taskRepository.findById("a")).thenReturn(Optional.of(task("a", project("project-1"))));
+        when(taskRepository.findById("b")).thenReturn(Optional.of(task("b", project("project-2"))));
+
+        assertThrows(IllegalArgumentException.class, () -> taskDependencyService.addDependency("b", "a"));
+        verifyNoInteractions(projectRepository, taskDependencyRepository);
+    }
+
+    @Test
+    void addDependency_WhenAlreadyExists_ShouldThrowException() {
+        Project project = project("project-1");
+        when(taskRepository.findById("b")).thenReturn(Optional.of(task("b", project)));
+        when(taskRepository.findById("a")).thenReturn(Optional.of(task("a", project)));
+        when(projectRepository.findByIdForUpdate("project-1")).thenReturn(Optional.of(project));
+        when(taskDependencyRepository.existsByBlockerTaskIdAndBlockedTaskId("a", "b")).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> taskDependencyService.addDependency("b", "a"));
+        verify(taskDependencyRepository, never()).save(any());
+    }
+
+    @Test
+    void analyzeProject_ShouldShiftBlockedTasksAndReturnCriticalPath() {
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        // a: 2 дня, b: 5 дней, c: 1 день без дат, стартует от даты создания; a -> c, b -> c
+        when(taskRepository.findScheduleRowsByProjectId("project-1")).thenReturn(List.of(
+                new Object[]{"a", day, day.plusDays(1), day},
+                new Object[]{"b", day, day.plusDays(4), day},
+                new Object[]{"c", null, null, day}));
+        when(taskDependencyRepository.findEdgesByProjectId("project-1")).thenReturn(List.of(
+                new Object[]{"a", "c"},
+                new Object[]{"b", "c"},
+                new Object[]{"b", "outside"}));
+
+        ProjectScheduleDto result = taskDependencyService.analyzeProject("project-1");
+
+        assertEquals(List.of("b", "c"), result.getCriticalPath());
+        assertEquals(day.plusDays(5), result.getEarliestFinish());
+
+        TaskScheduleDto c = result.getTasks().get(2);
+        assertEquals("c", c.getTaskId());
+        assertEquals(day.plusDays(5), c.getEarliestStart());
+        assertEquals(day.plusDays(5), c.getEarliestFinish());
+        assertTrue(c.isCritical());
+        assertFalse(result.getTasks().get(0).isCritical());
+    }
+
+    @Test
+    void analyzeProject_WithoutTasks_ShouldReturnEmptySchedule() {
+        when(taskRepository.findScheduleRowsByProjectId("project-1")).thenReturn(List.of());
+        when(taskDependencyRepository.findEdgesByProjectId("project-1")).thenReturn(List.of());
+
+        ProjectScheduleDto result = taskDependencyService.analyzeProject("project-1");
+
+        assertNull(result.getEarliestFinish());
+        assertTrue(result.getCriticalPath().isEmpty());
+        assertTrue(result.getTasks().isEmpty());
+    }
+}
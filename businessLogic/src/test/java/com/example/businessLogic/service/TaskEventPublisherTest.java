@@ -0,0 +1,194 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.TaskChangeMessage;
+import com.example.businessLogic.dto.WebSocketMessage;
+import com.example.businessLogic.entity.TaskChangeAction;
+import com.example.businessLogic.entity.TaskEvent;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import com.example.businessLogic.repository.TaskEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskEventPublisherTest {
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Mock
+    private TaskEventRepository taskEventRepository;
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaskEventPublisher taskEventPublisher;
+
+    private long nextId;
+
+    private TaskEventRecordedEvent recorded(String taskId, TaskChangeAction action, String title) {
+        return new TaskEventRecordedEvent(TaskChangeMessage.builder()
+                .eventId(++nextId)
+                .projectId("p1")
+                .taskId(taskId)
+                .action(action)
+                .title(title)
+                .build());
+    }
+
+    private TaskEvent stored(long id) {
+        return TaskEvent.builder()
+                .id(id)
+                .projectId("p1")
+                .taskId("t" + id)
+                .action(TaskChangeAction.UPDATED)
+                .title("x")
+                .build();
+    }
+
+    @Test
+    void onTaskChanged_ShouldStoreEventAndPublishDatabaseId() {
+        when(taskEventRepository.save(any(TaskEvent.class))).thenAnswer(inv -> {
+            TaskEvent event = inv.getArgument(0);
+            event.setId(42L);
+            return event;
+        });
+
+        taskEventPublisher.onTaskChanged(new TaskChangedEvent("p1", "t1", TaskChangeAction.UPDATED, "a"));
+
+        ArgumentCaptor<TaskEventRecordedEvent> captor = ArgumentCaptor.forClass(TaskEventRecordedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(42L, captor.getValue().message().getEventId());
+        assertEquals("t1", captor.getValue().message().getTaskId());
+        verifyNoInteractions(notificationSender);
+    }
+
+    @Test
+    void flush_ShouldCoalesceUpdatesOfSameTask() {
+        when(projectMemberRepository.findUserIdsByProjectId("p1")).thenReturn(List.of("u1"));
+
+        taskEventPublisher.onRecorded(recorded("t1", TaskChangeAction.UPDATED, "a"));
+        taskEventPublisher.onRecorded(recorded("t1", TaskChangeAction.UPDATED, "b"));
+        taskEventPublisher.onRecorded(recorded("t2", TaskChangeAction.CREATED, "c"));
+        taskEventPublisher.flush();
+
+        ArgumentCaptor<WebSocketMessage.TaskChanges> captor = ArgumentCaptor.forClass(WebSocketMessage.TaskChanges.class);
+        verify(notificationSender).sendToUsers(eq(List.of("u1")), captor.capture());
+
+        List<TaskChangeMessage> events = captor.getValue().events();
+        assertEquals(2, events.size());
+        assertEquals("b", events.get(0).getTitle());
+        assertEquals(2L, events.get(0).getEventId());
+        assertEquals("t2", events.get(1).getTaskId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_SameEventsForAllMembers_ShouldSendOneMessage() {
+        when(projectMemberRepository.findUserIdsByProjectId("p1")).thenReturn(List.of("u1", "u2", "u3"));
+
+        taskEventPublisher.onRecorded(recorded("t1", TaskChangeAction.UPDATED, "a"));
+        taskEventPublisher.flush();
+
+        ArgumentCaptor<List<String>> users = ArgumentCaptor.forClass(List.class);
+        verify(notificationSender, times(1)).sendToUsers(users.capture(), any());
+        assertEquals(Set.of("u1", "u2", "u3"), Set.copyOf(users.getValue()));
+    }
+
+    @Test
+    void flush_CreatedThenDeleted_ShouldSendNothing() {
+        when(projectMemberRepository.findUserIdsByProjectId("p1")).thenReturn(List.of("u1"));
+
+        taskEventPublisher.onRecorded(recorded("t1", TaskChangeAction.CREATED, "a"));
+        taskEventPublisher.onRecorded(recorded("t1", TaskChangeAction.DELETED, "a"));
+        taskEventPublisher.flush();
+
+        verify(notificationSender, never()).sendToUsers(any(), any());
+    }
+
+    @Test
+    void resume_ShouldSendMissedEventsFromJournal() {
+        when(projectMemberRepository.existsByProjectIdAndUserId("p1", "u1")).thenReturn(true);
+        when(taskEventRepository.findLastId("p1")).thenReturn(3L);
+        when(taskEventRepository.findOldestId()).thenReturn(1L);
+        when(taskEventRepository.findAfter(eq("p1"), eq(1L), any())).thenReturn(List.of(stored(2), stored(3)));
+
+        taskEventPublisher.resume("u1", "p1", 1);
+
+        ArgumentCaptor<WebSocketMessage.TaskChanges> captor = ArgumentCaptor.forClass(WebSocketMessage.TaskChanges.class);
+        verify(notificationSender).sendMessage(eq("u1"), captor.capture());
+
+        List<TaskChangeMessage> events = captor.getValue().events();
+        assertEquals(List.of(2L, 3L), events.stream().map(TaskChangeMessage::getEventId).toList());
+    }
+
+    @Test
+    void resume_UpToDate_ShouldSendNothing() {
+        when(projectMemberRepository.existsByProjectIdAndUserId("p1", "u1")).thenReturn(true);
+        when(taskEventRepository.findLastId("p1")).thenReturn(3L);
+
+        taskEventPublisher.resume("u1", "p1", 3);
+
+        verifyNoInteractions(notificationSender);
+    }
+
+    @Test
+    void resume_HistoryPurged_ShouldRequestResync() {
+        when(projectMemberRepository.existsByProjectIdAndUserId("p1", "u1")).thenReturn(true);
+        when(taskEventRepository.findLastId("p1")).thenReturn(500L);
+        when(taskEventRepository.findOldestId()).thenReturn(100L);
+
+        taskEventPublisher.resume("u1", "p1", 1);
+
+        ArgumentCaptor<WebSocketMessage> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(notificationSender).sendMessage(eq("u1"), captor.capture());
+        assertEquals("TASK_RESYNC_REQUIRED", captor.getValue().type());
+        verify(taskEventRepository, never()).findAfter(any(), anyLong(), any());
+    }
+
+    @Test
+    void resume_TooManyMissed_ShouldRequestResync() {
+        when(projectMemberRepository.existsByProjectIdAndUserId("p1", "u1")).thenReturn(true);
+        when(taskEventRepository.findLastId("p1")).thenReturn(1000L);
+        when(taskEventRepository.findOldestId()).thenReturn(1L);
+        List<TaskEvent> page = new ArrayList<>();
+        for (int i = 0; i <= TaskEventPublisher.HISTORY_SIZE; i++) {
+            page.add(stored(i + 2));
+        }
+        when(taskEventRepository.findAfter(eq("p1"), eq(1L), any())).thenReturn(page);
+
+        taskEventPublisher.resume("u1", "p1", 1);
+
+        ArgumentCaptor<WebSocketMessage> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(notificationSender).sendMessage(eq("u1"), captor.capture());
+        assertEquals("TASK_RESYNC_REQUIRED", captor.getValue().type());
+    }
+
+    @Test
+    void resume_NotMember_ShouldSendNothing() {
+        when(projectMemberRepository.existsByProjectIdAndUserId("p1", "u1")).thenReturn(false);
+
+        taskEventPublisher.resume("u1", "p1", 0);
+
+        verify(notificationSender, never()).sendMessage(anyString(), any());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.entity.Priority;
+import com.example.businessLogic.entity.Project;
+import com.example.businessLogic.entity.Task;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import com.example.businessLogic.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TaskExportService taskExportService;
+
+    private Task task() {
+        Project project = new Project();
+        project.setId("project1");
+
+        Task task = new Task();
+        task.setId("task1");
+        task.setTitle("Сверстать \"отчёт\", срочно");
+        task.setProject(project);
+        task.setPriority(Priority.builder().id(1).name("Высокий").build());
+        task.setCreateDate(LocalDate.of(2024, 5, 1));
+        return task;
+    }
+
+    @Test
+    void exportProjectTasks_Csv_ShouldEscapeFieldsAndDetachRows() throws Exception {
+        Task task = task();
+        when(taskRepository.streamByProjectId("project1")).thenReturn(Stream.of(task));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = taskExportService.exportProjectTasks("project1", TaskExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, rows);
+        assertEquals("id,title,projectId,creatorId,priority,status,createDate,startDate,deadlineDate,completionDate", lines[0]);
+        assertEquals("task1,\"Сверстать \"\"отчёт\"\", срочно\",project1,,Высокий,,2024-05-01,,,", lines[1]);
+        verify(entityManager).detach(task);
+    }
+
+    @Test
+    void exportPersonalTasks_Ndjson_ShouldWriteOneObjectPerLine() throws Exception {
+        when(taskRepository.streamPersonalByCreatorId("user1")).thenReturn(Stream.of(task(), task()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = taskExportService.exportPersonalTasks("user1", TaskExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        assertEquals("task1", objectMapper.readTree(lines[1]).get("id").asText());
+        assertEquals("2024-05-01", objectMapper.readTree(lines[0]).get("createDate").asText());
+    }
+
+    @Test
+    void formatOf_ShouldRejectUnknownValues() {
+        assertEquals(TaskExportService.Format.CSV, TaskExportService.Format.of("CSV"));
+        assertEquals(TaskExportService.Format.NDJSON, TaskExportService.Format.of("json"));
+        assertThrows(IllegalArgumentException.class, () -> TaskExportService.Format.of("xlsx"));
+    }
+
+    @Test
+    void checkProjectAccess_WhenNotMember_ShouldThrowAccessDenied() {
+        when(projectMemberRepository.existsByProjectIdAndUserId("project1", "user1")).thenReturn(false);
+
+        assertThrows(AccessDeniedException.class, () -> taskExportService.checkProjectAccess("project1", "user1"));
+    }
+}
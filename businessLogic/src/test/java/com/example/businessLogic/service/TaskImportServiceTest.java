@@ -0,0 +1,235 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.dto.TaskImportResult;
+import com.example.businessLogic.entity.Priority;
+import com.example.businessLogic.entity.Status;
+import com.example.businessLogic.repository.PriorityRepository;
+import com.example.businessLogic.repository.ProjectMemberRepository;
+import com.example.businessLogic.repository.ProjectRepository;
+import com.example.businessLogic.repository.StatusRepository;
+import com.example.businessLogic.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TaskImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PriorityRepository priorityRepository;
+
+    @Mock
+    private StatusRepository statusRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ProjectWorkloadService projectWorkloadService;
+
+    @InjectMocks
+    private TaskImportService taskImportService;
+
+    @TempDir
+    Path reportDir;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(taskImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(taskImportService, "maxLineLength", 200);
+        ReflectionTestUtils.setField(taskImportService, "reportDir", reportDir.toString());
+
+        when(priorityRepository.findAll()).thenReturn(List.of(Priority.builder().id(1).name("Высокий").build()));
+        when(statusRepository.findAll()).thenReturn(List.of(new Status(1, "Активная"), new Status(2, "Завершена")));
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importTasks_Csv_ShouldInsertValidRowsAndReportInvalid() throws Exception {
+        when(projectRepository.existsById("project1")).thenReturn(true);
+        when(projectMemberRepository.existsByProjectIdAndUserId("project1", "user1")).thenReturn(true);
+        when(projectMemberRepository.findMemberUserIds(eq("project1"), anyCollection())).thenReturn(List.of("user2"));
+
+        TaskImportResult result = taskImportService.importTasks("project1", "user1", TaskExportService.Format.CSV, csv(
+                "title,priority,status,startDate,deadlineDate,assignees\n" +
+                        "Первая,высокий,завершена,2024-05-01,2024-05-03,user2\n" +
+                        ",,,,,\n" +
+                        "Третья,,,2024-05-03,2024-05-01,\n" +
+                        "Четвёртая,,,,,user2;ghost\n" +
+                        "Пятая,,,не дата,,\n"));
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        assertEquals(4, result.getFailed());
+        assertNotNull(result.getErrorsUrl());
+
+        ArgumentCaptor<List<Object[]>> tasks = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("insert into tasks"), tasks.capture(), any(int[].class));
+        Object[] row = tasks.getValue().get(0);
+        assertEquals("Первая", row[1]);
+        assertEquals("project1", row[2]);
+        assertNotNull(row[7]);
+        assertEquals(1, row[8]);
+        assertEquals(2, row[9]);
+        verify(jdbcTemplate).batchUpdate(startsWith("insert into task_assignees"), anyList(), any(int[].class));
+        verify(projectWorkloadService).invalidate("project1");
+        verify(userRepository, never()).findExistingIds(anyCollection());
+
+        List<String> report = Files.readAllLines(taskImportService.getErrorReport("user1", result.getImportId()));
+        assertEquals(5, report.size());
+        assertTrue(report.get(3).contains("ghost"));
+    }
+
+    @Test
+    void importTasks_ShouldLookUpEachUnknownAssigneeOnce() throws Exception {
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(Set.of("user2"));
+
+        TaskImportResult result = taskImportService.importTasks(null, "user1", TaskExportService.Format.CSV, csv(
+                "title,assignees\n" +
+                        "А,user2;ghost\n" +
+                        "Б,user1\n" +
+                        "В,user2\n" +
+                        "Г,ghost\n"));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        ArgumentCaptor<Collection<String>> lookups = ArgumentCaptor.captor();
+        verify(userRepository).findExistingIds(lookups.capture());
+        assertEquals(Set.of("user2", "ghost"), Set.copyOf(lookups.getValue()));
+        verifyNoInteractions(projectWorkloadService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importTasks_DuplicateAssignee_ShouldInsertItOnce() throws Exception {
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(Set.of("user2"));
+
+        TaskImportResult result = taskImportService.importTasks(null, "user1", TaskExportService.Format.CSV, csv(
+                "title,assignees\n" +
+                        "А,user2;user2; user2\n"));
+
+        assertEquals(1, result.getImported());
+        ArgumentCaptor<List<Object[]>> assignees = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("insert into task_assignees"), assignees.capture(), any(int[].class));
+        assertEquals(1, assignees.getValue().size());
+    }
+
+    @Test
+    void importTasks_AssigneeOutsideProject_ShouldRejectRow() throws Exception {
+        when(projectRepository.existsById("project1")).thenReturn(true);
+        when(projectMemberRepository.existsByProjectIdAndUserId("project1", "user1")).thenReturn(true);
+        when(projectMemberRepository.findMemberUserIds(eq("project1"), anyCollection())).thenReturn(List.of());
+
+        TaskImportResult result = taskImportService.importTasks("project1", "user1", TaskExportService.Format.CSV, csv(
+                "title,assignees\n" +
+                        "А,stranger\n" +
+                        "Б,user1\n"));
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        List<String> report = Files.readAllLines(taskImportService.getErrorReport("user1", result.getImportId()));
+        assertTrue(report.get(1).contains("stranger"));
+    }
+
+    @Test
+    void importTasks_UnterminatedQuote_ShouldStopAtLengthLimit() throws Exception {
+        TaskImportResult result = taskImportService.importTasks(null, "user1", TaskExportService.Format.CSV, csv(
+                "title\n" +
+                        "Первая\n" +
+                        "\"Без конца\n" + "x".repeat(1000) + "\n"));
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+    }
+
+    @Test
+    void importTasks_Ndjson_ShouldRejectTooLongLine() throws Exception {
+        TaskImportResult result = taskImportService.importTasks(null, "user1", TaskExportService.Format.NDJSON, csv(
+                "{\"title\":\"" + "x".repeat(1000) + "\"}\n" +
+                        "{\"title\":\"Задача\"}\n"));
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+    }
+
+    @Test
+    void importTasks_Ndjson_ShouldRejectMalformedLines() throws Exception {
+        TaskImportResult result = taskImportService.importTasks(null, "user1", TaskExportService.Format.NDJSON, csv(
+                "{\"title\":\"Задача\",\"priority\":\"1\"}\n" +
+                        "{not json\n"));
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+    }
+
+    @Test
+    void importTasks_WhenNotProjectMember_ShouldThrowAccessDenied() {
+        when(projectRepository.existsById("project1")).thenReturn(true);
+        when(projectMemberRepository.existsByProjectIdAndUserId("project1", "user1")).thenReturn(false);
+
+        assertThrows(AccessDeniedException.class, () -> taskImportService.importTasks("project1", "user1",
+                TaskExportService.Format.CSV, csv("title\nЗадача\n")));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void getErrorReport_WithMalformedId_ShouldReturnNull() {
+        assertNull(taskImportService.getErrorReport("user1", "../../etc/passwd"));
+        assertNull(taskImportService.getErrorReport("user1", "6f1c2a8e-0000-4000-8000-000000000000"));
+    }
+}
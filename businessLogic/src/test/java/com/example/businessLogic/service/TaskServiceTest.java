@@ -3,7 +3,9 @@ package com.example.businessLogic.service;
 import com.example.businessLogic.entity.*;
 import com.example.businessLogic.repository.PriorityRepository;
 import com.example.businessLogic.repository.ProjectRepository;
+import com.example.businessLogic.repository.RecurrenceRuleRepository;
 import com.example.businessLogic.repository.StatusRepository;
+import com.example.businessLogic.repository.TaskDependencyRepository;
 import com.example.businessLogic.repository.TaskRepository;
 import com.example.businessLogic.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -40,11 +43,20 @@ class TaskServiceTest {
     private ProjectRepository projectRepository;
 
     @Mock
-    private NotificationService notificationService;
+    private NotificationCoalescer notificationCoalescer;
 
     @Mock
     private MetricsService metricsService;
 
+    @Mock
+    private RecurrenceRuleRepository recurrenceRuleRepository;
+
+    @Mock
+    private TaskDependencyRepository taskDependencyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -97,7 +109,7 @@ class TaskServiceTest {
         assertEquals("Priority not found", exception.getMessage());
 
         verify(taskRepository, never()).save(any(Task.class));
-        verify(metricsService, never()).recordTaskCreated(anyString());
+        verify(metricsService, never()).recordTaskCreated();
     }
 
     @Test
@@ -119,7 +131,7 @@ class TaskServiceTest {
         assertEquals("Status not found", exception.getMessage());
 
         verify(taskRepository, never()).save(any(Task.class));
-        verify(metricsService, never()).recordTaskCreated(anyString());
+        verify(metricsService, never()).recordTaskCreated();
     }
 
     @Test
@@ -354,8 +366,8 @@ class TaskServiceTest {
         assertNotNull(result);
         assertNotNull(result.getCreateDate());
         verify(taskRepository).save(task);
-        verify(metricsService).recordTaskCreated(task.getId());
-        verify(notificationService, atLeastOnce()).sendNotification(anyString(), any());
+        verify(metricsService).recordTaskCreated();
+        verify(notificationCoalescer, atLeastOnce()).submit(anyString(), any(), any(), any());
     }
 
     @Test
@@ -394,7 +406,7 @@ class TaskServiceTest {
 
         assertNotNull(result);
         verify(taskRepository).save(task);
-        verify(metricsService).recordTaskCreated(task.getId());
+        verify(metricsService).recordTaskCreated();
     }
 
     @Test
@@ -535,7 +547,7 @@ class TaskServiceTest {
     }
 
     @Test
-    void notifyAssignees_WithNotificationError_ShouldLogError() {
+    void notifyAssignees_WithNotificationError_ShouldFailTaskCreation() {
         User creator = new User();
         creator.setId("user1");
         creator.setUsername("creator");
@@ -554,11 +566,13 @@ class TaskServiceTest {
         when(taskRepository.save(any(Task.class))).thenReturn(task);
 
         doThrow(new RuntimeException("Notification failed"))
-                .when(notificationService)
-                .sendNotification(anyString(), any());
+                .when(notificationCoalescer)
+                .submit(anyString(), any(), any(), any());
 
-        assertDoesNotThrow(() -> taskService.createTask(task));
+        // Ошибка постановки уведомления помечает общую транзакцию на откат, поэтому не скрывается
+        assertThrows(RuntimeException.class, () -> taskService.createTask(task));
 
         verify(taskRepository).save(task);
+        verify(metricsService, never()).recordTaskCreated();
     }
 }
\ No newline at end of file
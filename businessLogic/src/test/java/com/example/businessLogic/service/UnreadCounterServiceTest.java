@@ -0,0 +1,233 @@
+package com.example.businessLogic.service;
+
+import com.example.businessLogic.entity.NotificationCounter;
+import com.example.businessLogic.repository.NotificationCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    @Mock
+    private NotificationCounterRepository counterRepository;
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private UnreadCounterService unreadCounterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(unreadCounterService, "cacheTtlMs", 60_000L);
+    }
+
+    @Test
+    void getUnreadCount_ShouldHitDatabaseOncePerTtl() {
+        when(counterRepository.findById("u1")).thenReturn(Optional.of(new NotificationCounter("u1", 3, 1, 0, null)));
+
+        assertEquals(3, unreadCounterService.getUnreadCount("u1"));
+        assertEquals(3, unreadCounterService.getUnreadCount("u1"));
+
+        verify(counterRepository, times(1)).findById("u1");
+    }
+
+    @Test
+    void getUnreadCount_MissingCounter_ShouldCountWithoutWriting() {
+        when(counterRepository.findById("u1")).thenReturn(Optional.empty());
+        when(counterRepository.countUnread("u1")).thenReturn(2L);
+
+        assertEquals(2, unreadCounterService.getUnreadCount("u1"));
+        assertEquals(0, unreadCounterService.getReadUpToId("u1"));
+
+        verify(counterRepository, never()).applyDelta(anyString(), anyLong());
+        verify(counterRepository, never()).createMissing(any());
+        verify(counterRepository, times(1)).findById("u1");
+    }
+
+    @Test
+    void getUnreadCount_InReadOnlyTransaction_ShouldNotCacheValue() {
+        when(counterRepository.findById("u1")).thenReturn(Optional.of(new NotificationCounter("u1", 3, 1, 0, null)));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertEquals(3, unreadCounterService.getUnreadCount("u1"));
+            assertEquals(3, unreadCounterService.getUnreadCount("u1"));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        verify(counterRepository, times(2)).findById("u1");
+    }
+
+    @Test
+    void cache_ShouldEvictLeastRecentlyUsedOwners() {
+        for (int i = 0; i <= 10_000; i++) {
+            unreadCounterService.onChanged(new UnreadCountChangedEvent("u" + i, 1, 1, 0, null));
+        }
+        when(counterRepository.findById("u0")).thenReturn(Optional.of(new NotificationCounter("u0", 7, 2, 0, null)));
+
+        assertEquals(1, unreadCounterService.getUnreadCount("u10000"));
+        assertEquals(7, unreadCounterService.getUnreadCount("u0"));
+        verify(counterRepository, never()).findById("u10000");
+    }
+
+    @Test
+    void adjust_ShouldPublishNewValue() {
+        when(counterRepository.applyDelta("u1", 1)).thenReturn(value(5, 2));
+
+        unreadCounterService.adjust("u1", 1);
+
+        verify(eventPublisher).publishEvent(new UnreadCountChangedEvent("u1", 5, 2, 0, null));
+    }
+
+    @Test
+    void adjust_ZeroDelta_ShouldSkipDatabase() {
+        unreadCounterService.adjust("u1", 0);
+
+        verifyNoInteractions(counterRepository, eventPublisher);
+    }
+
+    @Test
+    void adjustAll_ShouldUpdateDistinctSortedOwnersInOneQuery() {
+        when(counterRepository.applyDeltaToAll(new String[]{"u1", "u2"}, 1))
+                .thenReturn(List.of(ownerValue("u1", 4, 3), ownerValue("u2", 1, 1)));
+
+        unreadCounterService.adjustAll(List.of("u2", "u1", "u2"), 1);
+
+        verify(eventPublisher).publishEvent(new UnreadCountChangedEvent("u1", 4, 3, 0, null));
+        verify(eventPublisher).publishEvent(new UnreadCountChangedEvent("u2", 1, 1, 0, null));
+    }
+
+    @Test
+    void onChanged_OutOfOrderCommit_ShouldKeepNewerVersion() {
+        unreadCounterService.onChanged(new UnreadCountChangedEvent("u1", 6, 3, 0, null));
+        unreadCounterService.onChanged(new UnreadCountChangedEvent("u1", 5, 2, 0, null));
+
+        assertEquals(6, unreadCounterService.getUnreadCount("u1"));
+        verify(counterRepository, never()).findById(anyString());
+        verify(notificationSender, times(2)).sendMessage(eq("u1"), any());
+    }
+
+    @Test
+    void lockReadState_ShouldCreateMissingCountersAndLockInOrder() {
+        when(counterRepository.lockAll(new String[]{"u1", "u2"}))
+                .thenReturn(List.of(readState("u1", 7), readState("u2", 0)));
+
+        Map<String, Long> readUpTo = unreadCounterService.lockReadState(List.of("u2", "u1", "u2"));
+
+        verify(counterRepository).createMissing(new String[]{"u1", "u2"});
+        assertEquals(Map.of("u1", 7L, "u2", 0L), readUpTo);
+    }
+
+    @Test
+    void markAllRead_ShouldMoveWatermarkAndPublishZero() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        when(counterRepository.lockAll(new String[]{"u1"})).thenReturn(List.of(readState("u1", 3)));
+        when(counterRepository.markAllRead(eq("u1"), any(LocalDateTime.class))).thenReturn(value(0, 4, 10, now));
+
+        unreadCounterService.markAllRead("u1");
+
+        verify(eventPublisher).publishEvent(new UnreadCountChangedEvent("u1", 0, 4, 10, now));
+    }
+
+    @Test
+    void getReadUpToId_ShouldComeFromCachedCounter() {
+        unreadCounterService.onChanged(new UnreadCountChangedEvent("u1", 0, 4, 10, null));
+
+        assertEquals(10, unreadCounterService.getReadUpToId("u1"));
+        verify(counterRepository, never()).findById(anyString());
+    }
+
+    private NotificationCounterRepository.OwnerReadState readState(String ownerId, long readUpToId) {
+        return new NotificationCounterRepository.OwnerReadState() {
+            @Override
+            public String getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public long getReadUpToId() {
+                return readUpToId;
+            }
+        };
+    }
+
+    private NotificationCounterRepository.OwnerCounterValue ownerValue(String ownerId, long unreadCount, long version) {
+        return new NotificationCounterRepository.OwnerCounterValue() {
+            @Override
+            public String getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public long getUnreadCount() {
+                return unreadCount;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+
+            @Override
+            public long getReadUpToId() {
+                return 0;
+            }
+
+            @Override
+            public LocalDateTime getReadUpToAt() {
+                return null;
+            }
+        };
+    }
+
+    private NotificationCounterRepository.CounterValue value(long unreadCount, long version) {
+        return value(unreadCount, version, 0, null);
+    }
+
+    private NotificationCounterRepository.CounterValue value(long unreadCount, long version, long readUpToId,
+                                                             LocalDateTime readUpToAt) {
+        return new NotificationCounterRepository.CounterValue() {
+            @Override
+            public long getUnreadCount() {
+                return unreadCount;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+
+            @Override
+            public long getReadUpToId() {
+                return readUpToId;
+            }
+
+            @Override
+            public LocalDateTime getReadUpToAt() {
+                return readUpToAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.businessLogic.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketHeartbeatTest {
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private final WebSocketSessionRegistry sessionRegistry = new WebSocketSessionRegistry();
+
+    // Отправка выполняется сразу в вызывающем потоке
+    private final Executor directExecutor = Runnable::run;
+
+    private WebSocketHeartbeat heartbeat;
+
+    @BeforeEach
+    void setUp() {
+        heartbeat = new WebSocketHeartbeat(sessionRegistry, notificationSender, metricsService);
+        ReflectionTestUtils.setField(heartbeat, "idleTimeoutMs", 1_000L);
+        ReflectionTestUtils.setField(heartbeat, "reapBatchSize", 1);
+        // Реестр снимает сессию так же, как настоящий NotificationSender
+        lenient().when(notificationSender.removeSession(any()))
+                .thenAnswer(inv -> sessionRegistry.unregister(inv.getArgument(0)));
+    }
+
+    @Test
+    void beat_LiveSession_ShouldReceivePing() throws Exception {
+        WebSocketSession delegate = delegate("s1");
+        sessionRegistry.register("u1", outbound(delegate));
+
+        heartbeat.beat();
+
+        verify(delegate).sendMessage(any(PingMessage.class));
+        assertEquals(1, sessionRegistry.getSessionCount());
+    }
+
+    @Test
+    void beat_IdleSessions_ShouldBeClosedInBatches() throws Exception {
+        WebSocketSession first = delegate("s1");
+        WebSocketSession second = delegate("s2");
+        OutboundWebSocketSession firstOutbound = outbound(first);
+        OutboundWebSocketSession secondOutbound = outbound(second);
+        ReflectionTestUtils.setField(firstOutbound, "lastSeenAt", 0L);
+        ReflectionTestUtils.setField(secondOutbound, "lastSeenAt", 0L);
+        sessionRegistry.register("u1", firstOutbound);
+        sessionRegistry.register("u2", secondOutbound);
+
+        heartbeat.beat();
+        assertEquals(1, sessionRegistry.getSessionCount());
+
+        heartbeat.beat();
+        assertEquals(0, sessionRegistry.getSessionCount());
+        verify(first).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(second).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(metricsService, times(2)).recordWebSocketSessionTerminated("idle_timeout");
+        verify(first, never()).sendMessage(any());
+    }
+
+    @Test
+    void beat_ClosedSession_ShouldBeRemovedFromRegistry() {
+        WebSocketSession delegate = delegate("s1");
+        when(delegate.isOpen()).thenReturn(false);
+        sessionRegistry.register("u1", outbound(delegate));
+
+        heartbeat.beat();
+
+        assertEquals(0, sessionRegistry.getUserCount());
+    }
+
+    private WebSocketSession delegate(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        lenient().when(session.getId()).thenReturn(id);
+        lenient().when(session.isOpen()).thenReturn(true);
+        lenient().when(session.getAttributes()).thenReturn(new HashMap<>());
+        return session;
+    }
+
+    private OutboundWebSocketSession outbound(WebSocketSession delegate) {
+        return new OutboundWebSocketSession(delegate, directExecutor, metricsService, 10_000, 1_000_000,
+                OutboundWebSocketSession.OverflowPolicy.DROP_OLDEST);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.businessLogic.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WebSocketSessionRegistryTest {
+
+    private final WebSocketSessionRegistry registry = new WebSocketSessionRegistry();
+
+    @Test
+    void register_SecondTab_ShouldKeepBothSessions() {
+        WebSocketSession first = session("s1");
+        WebSocketSession second = session("s2");
+
+        registry.register("u1", first);
+        registry.register("u1", second);
+
+        assertEquals(2, registry.getSessions("u1").size());
+        assertEquals("u1", registry.getUserId(second));
+        assertEquals(1, registry.getUserCount());
+    }
+
+    @Test
+    void unregister_ShouldRemoveOnlyClosedSession() {
+        WebSocketSession first = session("s1");
+        WebSocketSession second = session("s2");
+        registry.register("u1", first);
+        registry.register("u1", second);
+
+        assertEquals("u1", registry.unregister(first));
+
+        assertEquals(1, registry.getSessions("u1").size());
+        assertTrue(registry.getSessions("u1").contains(second));
+        assertNull(registry.getUserId(first));
+    }
+
+    @Test
+    void unregister_LastSession_ShouldForgetUser() {
+        WebSocketSession session = session("s1");
+        registry.register("u1", session);
+
+        registry.unregister(session);
+
+        assertTrue(registry.getSessions("u1").isEmpty());
+        assertEquals(0, registry.getUserCount());
+        assertEquals(0, registry.getSessionCount());
+        assertNull(registry.unregister(session));
+    }
+
+    private WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        return session;
+    }
+}